@@ -0,0 +1,69 @@
+package org.ai2ra.hso.simpic16f84.sim;
+
+import org.ai2ra.hso.simpic16f84.sim.prof.AddressProfiler;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end benchmark executing the reference programs with a complete
+ * {@link Pic16F84VM}. Throughput is reported in instructions per microsecond, this
+ * means the score equals the simulated MIPS (Million Instructions Per Second).
+ *
+ * <p>
+ *     Reference programs requiring unsupported instructions (e.g. SLEEP) are
+ *     intentionally not part of the set. Each program is executed with and without
+ *     an attached {@link AddressProfiler} for determining the profiling overhead.
+ * </p>
+ *
+ * @author 0x1C1B
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Pic16F84VMBenchmark {
+
+    private static final int INSTRUCTIONS_PER_INVOCATION = 10_000;
+
+    @Param({"TPicSim1", "TPicSim2", "TPicSim3", "TPicSim4", "TPicSim5", "TPicSim6",
+            "TPicSim7", "TPicSim8", "TPicSim10", "TPicSim11", "TPicSim13", "TPicSim14"})
+    private String program;
+
+    @Param({"false", "true"})
+    private boolean profiled;
+
+    private Pic16F84VM simulator;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+
+        File file = new File(getClass().getResource(String.format("/LstFiles/%s.LST", program)).toURI());
+
+        simulator = new Pic16F84VM();
+        simulator.load(file);
+
+        if (profiled) {
+
+            simulator.addProfiler(new AddressProfiler());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(INSTRUCTIONS_PER_INVOCATION)
+    public int execute() {
+
+        int address = 0;
+
+        for (int count = 0; count < INSTRUCTIONS_PER_INVOCATION; ++count) {
+
+            address = simulator.execute();
+        }
+
+        return address;
+    }
+}
@@ -0,0 +1,66 @@
+package org.ai2ra.hso.simpic16f84.sim.mem;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading and writing the {@link RamMemory}, once without any registered
+ * listener and once observed by a single no-op listener. Writes alternate between
+ * a general purpose register and a mapped special function register.
+ *
+ * @author 0x1C1B
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RamMemoryBenchmark {
+
+    @Param({"false", "true"})
+    private boolean observed;
+
+    private RamMemory<Byte> ram;
+    private byte value;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        ram = new RamMemory<>();
+
+        if (observed) {
+
+            ram.addPropertyChangeListener(event -> {});
+        }
+
+        ram.set(RamMemory.Bank.BANK_0, 0x20, (byte) 0x00);
+        ram.set(RamMemory.SFR.STATUS, (byte) 0x00);
+    }
+
+    @Benchmark
+    public Byte getGeneralPurposeRegister() {
+
+        return ram.get(RamMemory.Bank.BANK_0, 0x20);
+    }
+
+    @Benchmark
+    public Byte getSpecialFunctionRegister() {
+
+        return ram.get(RamMemory.SFR.STATUS);
+    }
+
+    @Benchmark
+    public void setGeneralPurposeRegister() {
+
+        ram.set(RamMemory.Bank.BANK_0, 0x20, value++);
+    }
+
+    @Benchmark
+    public void setSpecialFunctionRegister() {
+
+        ram.set(RamMemory.SFR.STATUS, value++);
+    }
+}
@@ -0,0 +1,44 @@
+package org.ai2ra.hso.simpic16f84.sim.mem;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a push/pop pair on the {@link StackMemory}, once without any registered
+ * listener and once observed by a single no-op listener.
+ *
+ * @author 0x1C1B
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StackMemoryBenchmark {
+
+    @Param({"false", "true"})
+    private boolean observed;
+
+    private StackMemory<Integer> stack;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        stack = new StackMemory<>(8);
+
+        if (observed) {
+
+            stack.addPropertyChangeListener(event -> {});
+        }
+    }
+
+    @Benchmark
+    public Integer pushAndPop() {
+
+        stack.push(0x0123);
+        return stack.pop();
+    }
+}
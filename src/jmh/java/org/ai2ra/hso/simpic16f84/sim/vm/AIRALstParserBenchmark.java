@@ -0,0 +1,80 @@
+package org.ai2ra.hso.simpic16f84.sim.vm;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing large LST files using the {@link AIRALstParser} compared to the
+ * {@link MappedLstParser}. The listings are generated once per trial and mimic the layout
+ * of the reference listings, this means every fourth line is a comment and every eighth
+ * line a label.
+ *
+ * @author 0x1C1B
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AIRALstParserBenchmark {
+
+    @Param({"2000", "200000"})
+    private int lines;
+
+    @Param({"AIRA", "Mapped"})
+    private String implementation;
+
+    private LstParser<Short> parser;
+    private File file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+
+        parser = "Mapped".equals(implementation) ? new MappedLstParser() : new AIRALstParser();
+        file = File.createTempFile("benchmark", ".LST");
+        file.deleteOnExit();
+
+        try (PrintWriter writer = new PrintWriter(file, "ISO-8859-1")) {
+
+            int address = 0;
+
+            for (int line = 1; line <= lines; ++line) {
+
+                if (0 == line % 8) {
+
+                    writer.printf("                    %05d  label%-4d%n", line % 100_000, line);
+
+                } else if (0 == line % 4) {
+
+                    writer.printf("                    %05d           ;Comment without machine instruction%n",
+                            line % 100_000);
+
+                } else {
+
+                    writer.printf("%04X %04X           %05d           movlw %02Xh           ;W = %02Xh%n",
+                            address & 0xFFFF, 0x3000 | (line & 0xFF), line % 100_000, line & 0xFF, line & 0xFF);
+
+                    ++address;
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+
+        file.delete();
+    }
+
+    @Benchmark
+    public Short[] parse() throws IOException {
+
+        return parser.parse(file);
+    }
+}
@@ -0,0 +1,64 @@
+package org.ai2ra.hso.simpic16f84.sim.vm;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the decoding costs of the {@link InstructionDecoder} separated by the
+ * four operation groups. Each invocation decodes a fixed set of instruction codes,
+ * the score is reported per decoded instruction.
+ *
+ * @author 0x1C1B
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InstructionDecoderBenchmark {
+
+    private static final int[] LITERAL_CODES = {0x3E25, 0x3930, 0x3821, 0x3011, 0x34FF, 0x3C00, 0x3A11, 0x3F01};
+    private static final int[] BYTE_CODES = {0x0730, 0x0186, 0x008C, 0x0B8E, 0x0A84, 0x0D20, 0x0E21, 0x0008};
+    private static final int[] BIT_CODES = {0x1283, 0x158F, 0x192E, 0x1C01, 0x1683, 0x1D0B, 0x1A8B, 0x110B};
+    private static final int[] JUMP_CODES = {0x2805, 0x20FF, 0x2100, 0x2806, 0x2000, 0x281C, 0x2823, 0x2008};
+
+    @Benchmark
+    @OperationsPerInvocation(8)
+    public void decodeLiteral(Blackhole blackhole) {
+
+        decode(LITERAL_CODES, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(8)
+    public void decodeByteOrControl(Blackhole blackhole) {
+
+        decode(BYTE_CODES, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(8)
+    public void decodeBit(Blackhole blackhole) {
+
+        decode(BIT_CODES, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(8)
+    public void decodeJump(Blackhole blackhole) {
+
+        decode(JUMP_CODES, blackhole);
+    }
+
+    private static void decode(int[] codes, Blackhole blackhole) {
+
+        for (int code : codes) {
+
+            blackhole.consume(InstructionDecoder.decode(code));
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package org.ai2ra.hso.simpic16f84.sim.vm.exec;
+
+import org.ai2ra.hso.simpic16f84.sim.mem.EepromMemory;
+import org.ai2ra.hso.simpic16f84.sim.mem.ProgramMemory;
+import org.ai2ra.hso.simpic16f84.sim.mem.RamMemory;
+import org.ai2ra.hso.simpic16f84.sim.mem.StackMemory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the costs of a single {@link InstructionExecutor#execute()} cycle per
+ * instruction class. For every class the program memory is filled with a synthetic
+ * program, consisting almost only out of instructions of this class, that finally
+ * jumps back to the beginning.
+ *
+ * @author 0x1C1B
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InstructionExecutorBenchmark {
+
+    private static final int PROGRAM_LENGTH = 256;
+
+    @Param({"LITERAL", "BYTE_ORIENTED", "BIT_ORIENTED", "JUMP", "CALL"})
+    private String instructionClass;
+
+    private InstructionExecutor executor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        ProgramMemory<Short> programMemory = new ProgramMemory<>(1024);
+        int[] program = createProgram(instructionClass);
+
+        for (int address = 0; address < program.length; ++address) {
+
+            programMemory.set(address, (short) program[address]);
+        }
+
+        executor = new InstructionExecutor(programMemory, new RamMemory<>(),
+                new StackMemory<>(8), new EepromMemory<>(64));
+        executor.reset();
+    }
+
+    @Benchmark
+    public int execute() {
+
+        return executor.execute();
+    }
+
+    /**
+     * Creates a program of {@link #PROGRAM_LENGTH} words for the given instruction
+     * class. The last instruction always jumps back to the first one.
+     *
+     * @param instructionClass The instruction class the program should consist of
+     * @return Returns the machine instructions of the program
+     */
+
+    private static int[] createProgram(String instructionClass) {
+
+        int[] program = new int[PROGRAM_LENGTH];
+        int[] pattern;
+
+        switch (instructionClass) {
+
+            case "LITERAL": {
+
+                pattern = new int[]{
+                        0x3011, // MOVLW 11h
+                        0x3E25, // ADDLW 25h
+                        0x3930, // ANDLW 30h
+                        0x380D, // IORLW 0Dh
+                        0x3C3D, // SUBLW 3Dh
+                        0x3A20  // XORLW 20h
+                };
+                break;
+            }
+            case "BYTE_ORIENTED": {
+
+                pattern = new int[]{
+                        0x00A0, // MOVWF 20h
+                        0x07A0, // ADDWF 20h,f
+                        0x0AA1, // INCF 21h,f
+                        0x03A1, // DECF 21h,f
+                        0x0EA0, // SWAPF 20h,f
+                        0x0DA0, // RLF 20h,f
+                        0x0CA0, // RRF 20h,f
+                        0x0820, // MOVF 20h,w
+                        0x0621, // XORWF 21h,w
+                        0x09A2, // COMF 22h,f
+                        0x01A3, // CLRF 23h
+                        0x0000  // NOP
+                };
+                break;
+            }
+            case "BIT_ORIENTED": {
+
+                pattern = new int[]{
+                        0x1420, // BSF 20h,0
+                        0x1C20, // BTFSS 20h,0 (skips next)
+                        0x1020, // BCF 20h,0
+                        0x1820  // BTFSC 20h,0
+                };
+                break;
+            }
+            case "JUMP": {
+
+                // Chain of GOTOs, each one jumps to it's successor
+
+                for (int address = 0; address < PROGRAM_LENGTH - 1; ++address) {
+
+                    program[address] = 0x2800 | (address + 1);
+                }
+
+                program[PROGRAM_LENGTH - 1] = 0x2800; // GOTO 00h
+                return program;
+            }
+            case "CALL": {
+
+                // Calls of a subroutine, that returns immediately, pushing and popping the stack
+
+                int subroutine = PROGRAM_LENGTH / 2;
+
+                for (int address = 0; address < subroutine - 1; ++address) {
+
+                    program[address] = 0x2000 | subroutine; // CALL subroutine
+                }
+
+                program[subroutine - 1] = 0x2800; // GOTO 00h
+                program[subroutine] = 0x0008; // RETURN
+                return program;
+            }
+            default: {
+
+                throw new IllegalArgumentException("Unknown instruction class");
+            }
+        }
+
+        for (int address = 0; address < PROGRAM_LENGTH - 1; ++address) {
+
+            program[address] = pattern[address % pattern.length];
+        }
+
+        program[PROGRAM_LENGTH - 1] = 0x2800; // GOTO 00h
+        return program;
+    }
+}
@@ -8,6 +8,7 @@ import javafx.scene.Scene;
 import javafx.scene.image.Image;
 import javafx.stage.Stage;
 import org.ai2ra.hso.simpic16f84.ui.util.ApplicationDialog;
+import org.apache.log4j.LogManager;
 
 /**
  * Application entry class of the graphical simulator. This class is responsible for
@@ -36,6 +37,15 @@ public class Pic16F84Simulator extends Application {
         primaryStage.show();
     }
 
+    /**
+     * Flushes the logs buffered by asynchronous appenders before the application exits.
+     */
+
+    @Override public void stop() throws Exception {
+
+        LogManager.shutdown();
+    }
+
     /**
      * Default exception handler for handling uncaught exceptions occurred inside of
      * the JavaFX application thread.
@@ -1,9 +1,15 @@
 package org.ai2ra.hso.simpic16f84.sim;
 
+import org.ai2ra.hso.simpic16f84.sim.debug.BreakpointSet;
+import org.ai2ra.hso.simpic16f84.sim.debug.WatchpointSet;
 import org.ai2ra.hso.simpic16f84.sim.mem.*;
-import org.ai2ra.hso.simpic16f84.sim.vm.AIRALstParser;
+import org.ai2ra.hso.simpic16f84.sim.prof.ExecutionProfiler;
+import org.ai2ra.hso.simpic16f84.sim.vm.DebugInfo;
+import org.ai2ra.hso.simpic16f84.sim.vm.Instruction;
+import org.ai2ra.hso.simpic16f84.sim.vm.InstructionDecoder;
 import org.ai2ra.hso.simpic16f84.sim.vm.exec.InstructionExecutor;
 import org.ai2ra.hso.simpic16f84.sim.vm.LstParser;
+import org.ai2ra.hso.simpic16f84.sim.vm.MappedLstParser;
 import org.ai2ra.hso.simpic16f84.sim.vm.exec.ObservableExecution;
 import org.apache.log4j.Logger;
 
@@ -11,6 +17,10 @@ import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
 import java.io.File;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
 
 /**
  * Pic16F84VM is the runtime environment of the simulator itself. It encapsulates the
@@ -41,6 +51,8 @@ import java.io.IOException;
 public class Pic16F84VM {
 
     private static final Logger LOGGER;
+    /** Number of words of the program memory, the Pic16F84 implements 1K words. */
+    private static final int PROGRAM_MEMORY_SIZE = 1024;
 
     private ProgramMemory<Short> programMemory;
     private RamMemory<Byte> ram;
@@ -48,7 +60,13 @@ public class Pic16F84VM {
     private EepromMemory<Byte> eeprom;
 
     private LstParser<Short> parser;
+    /** Debug information of the loaded program, e.g. labels and line mappings. */
+    private DebugInfo<Short> debugInfo;
+    /** Entry addresses of the loaded program's routines. */
+    private SortedSet<Integer> routines;
     private InstructionExecutor executor;
+    private BreakpointSet breakpoints;
+    private WatchpointSet watchpoints;
     private PropertyChangeSupport changes;
 
     /**
@@ -71,13 +89,18 @@ public class Pic16F84VM {
 
     public Pic16F84VM() {
 
-        this.programMemory = new ProgramMemory<>(1000);
+        this.programMemory = new ProgramMemory<>(PROGRAM_MEMORY_SIZE);
         this.ram = new RamMemory<>();
         this.stack = new StackMemory<>(8);
         this.eeprom = new EepromMemory<>(64);
 
-        this.parser = new AIRALstParser();
+        this.parser = new MappedLstParser();
+        this.debugInfo = new DebugInfo<>(new Short[0], new int[0], new int[0],
+                Collections.emptyMap(), Collections.emptyMap());
+        this.routines = Collections.emptySortedSet();
         this.executor = new InstructionExecutor(programMemory, ram, stack, eeprom);
+        this.breakpoints = new BreakpointSet();
+        this.watchpoints = new WatchpointSet(ram, eeprom);
         this.changes = new PropertyChangeSupport(this);
     }
 
@@ -139,6 +162,18 @@ public class Pic16F84VM {
         return stack;
     }
 
+    /**
+     * Determines the current stack depth, meaning the number of pending returns of
+     * subroutines and interrupt service routines.
+     *
+     * @return Returns the current stack depth
+     */
+
+    public int getStackDepth() {
+
+        return stack.getDepth();
+    }
+
     /**
      * Allows pseudo read-only access to the data memory (EEPROM). Important to note is,
      * that's pseudo read-only, this means that's possible to bypass this restriction
@@ -158,6 +193,17 @@ public class Pic16F84VM {
         return eeprom;
     }
 
+    /**
+     * Determines the number of locations of the data memory (EEPROM).
+     *
+     * @return Returns the size of the data memory
+     */
+
+    public int getEepromSize() {
+
+        return eeprom.getSize();
+    }
+
     /**
      * Returns the main execution unit (CPU + ALU) in a readable state. This is primarily used
      * for observing internal changes.
@@ -170,6 +216,160 @@ public class Pic16F84VM {
         return executor;
     }
 
+    /**
+     * Returns the labels of the loaded program, these are used for naming
+     * routines e.g. while profiling.
+     *
+     * @return Returns the label names indexed by the address they're pointing to
+     */
+
+    public Map<Integer, String> getLabels() {
+
+        return debugInfo.getLabels();
+    }
+
+    /**
+     * Returns the debug information of the loaded program. It maps addresses to lines
+     * of the LST file and vice versa, both in constant time.
+     *
+     * @return Returns the debug information parsed while loading
+     */
+
+    public DebugInfo<Short> getDebugInfo() {
+
+        return debugInfo;
+    }
+
+    /**
+     * Returns the entry addresses of the loaded program's routines. These are the reset
+     * vector, all targets of <code>CALL</code> instructions and, if the program returns
+     * from interrupts, the interrupt vector.
+     *
+     * @return Returns the sorted entry addresses
+     */
+
+    public SortedSet<Integer> getRoutines() {
+
+        return routines;
+    }
+
+    /**
+     * Returns the breakpoints of the loaded program. Breakpoints are modifiable at any
+     * time, even while a program is running, and are removed when loading a program.
+     * Checking an address is done in constant time, so it's intended for being
+     * checked after every executed instruction.
+     *
+     * @return Returns the breakpoints indexed by program memory address
+     */
+
+    public BreakpointSet getBreakpoints() {
+
+        return breakpoints;
+    }
+
+    /**
+     * Returns the data watchpoints of the loaded program. Like breakpoints, watchpoints
+     * are modifiable at any time and are removed when loading a program. They're intended
+     * for being checked after every executed instruction.
+     *
+     * @return Returns the watchpoints of RAM and EEPROM locations
+     */
+
+    public WatchpointSet getWatchpoints() {
+
+        return watchpoints;
+    }
+
+    /**
+     * Determines the routine entries of a program by decoding its instructions.
+     *
+     * @param instructions The machine instructions of the program
+     * @return Returns the sorted entry addresses
+     */
+
+    private static SortedSet<Integer> findRoutines(Short[] instructions) {
+
+        SortedSet<Integer> entries = new TreeSet<>();
+        entries.add(0x0000); // Reset vector
+
+        for (Short code : instructions) {
+
+            try {
+
+                Instruction instruction = InstructionDecoder.decode(null == code ? 0 : code);
+
+                if (Instruction.OperationCode.CALL == instruction.getOpc()) {
+
+                    entries.add(instruction.getArguments()[0]);
+
+                } else if (Instruction.OperationCode.RETFIE == instruction.getOpc()) {
+
+                    entries.add(0x0004); // Interrupt vector
+                }
+
+            } catch (IllegalArgumentException exc) {
+
+                // Undecodable codes are reported as soon as they're executed
+            }
+        }
+
+        return entries;
+    }
+
+    /**
+     * Attaches a profiler to the execution unit. Profilers can be attached or detached
+     * at any time, even while a program is running.
+     *
+     * @param profiler The profiler that should be attached
+     * @see InstructionExecutor#addProfiler(ExecutionProfiler)
+     */
+
+    public void addProfiler(ExecutionProfiler profiler) {
+
+        executor.addProfiler(profiler);
+    }
+
+    /**
+     * Detaches a previously attached profiler from the execution unit.
+     *
+     * @param profiler The profiler that should be detached
+     */
+
+    public void removeProfiler(ExecutionProfiler profiler) {
+
+        executor.removeProfiler(profiler);
+    }
+
+    /**
+     * Enables or disables counting the reads and writes of the executed program per
+     * RAM and EEPROM location. The counters are accessible through
+     * {@link ObservableMemory#getReadCount(int)} and {@link ObservableMemory#getWriteCount(int)}.
+     *
+     * @param counting True for enabling access counting, otherwise false
+     * @see RamMemory#setAccessCounting(boolean)
+     */
+
+    public void setAccessCounting(boolean counting) {
+
+        ram.setAccessCounting(counting);
+        eeprom.setAccessCounting(counting);
+    }
+
+    public boolean isAccessCounting() {
+
+        return ram.isAccessCounting();
+    }
+
+    /**
+     * Clears the access counters of RAM and EEPROM.
+     */
+
+    public void resetAccessCounts() {
+
+        ram.resetAccessCounts();
+        eeprom.resetAccessCounts();
+    }
+
     /**
      * Adds a change listener <b>only</b> for observing the virtual machines state. For
      * observing memory changes, the listeners must be registered for the related memory
@@ -202,19 +402,44 @@ public class Pic16F84VM {
      * @param file The path to the LST file
      * @throws IOException           Thrown if given file couldn't be loaded
      * @throws NumberFormatException Thrown if LST file is malformed, means couldn't be parsed
+     * @throws IllegalArgumentException Thrown if the program exceeds the program memory
      */
 
     public void load(File file) throws IOException {
 
+        load(parser.parseDebugInfo(file));
+    }
+
+    /**
+     * Loads the machine instructions of an already parsed LST file to program memory.
+     * This allows parsing the LST file elsewhere, e.g. together with displaying it.
+     *
+     * @param debugInfo The debug information of the LST file, including the machine instructions
+     * @throws IllegalArgumentException Thrown if the program exceeds the program memory
+     * @see LstParser#parseDebugInfo(java.io.BufferedReader, java.util.function.Consumer)
+     */
+
+    public void load(DebugInfo<Short> debugInfo) throws IllegalArgumentException {
+
+        if (PROGRAM_MEMORY_SIZE < debugInfo.getSize()) {
+
+            throw new IllegalArgumentException("Program exceeds the program memory");
+        }
+
         stop(); // Stops current execution flow if runtime environment is already running
 
-        Short[] instructions = parser.parse(file); // Extract machine instructions
+        this.debugInfo = debugInfo;
 
-        // Load extracted machine instructions into program memory
+        Short[] instructions = debugInfo.getWords(); // Machine instructions placed at their addresses
+        routines = Collections.unmodifiableSortedSet(findRoutines(instructions));
+        breakpoints.clear();
+        watchpoints.clear();
 
-        for (int address = 0; address < instructions.length; ++address) {
+        // Load machine instructions into program memory, clearing words of the previous program
 
-            programMemory.set(address, instructions[address]);
+        for (int address = 0; address < PROGRAM_MEMORY_SIZE; ++address) {
+
+            programMemory.set(address, address < instructions.length ? instructions[address] : null);
         }
 
         loaded = true; // Set state to execution ready
@@ -247,9 +472,15 @@ public class Pic16F84VM {
             if (!running) {
 
                 running = true;
-                changes.firePropertyChange("running", false, true);
+
+                if (changes.hasListeners(null)) {
+
+                    changes.firePropertyChange("running", false, true);
+                }
 
                 executor.reset();
+                watchpoints.rearm(); // Writes of the power-on reset aren't watched
+                breakpoints.resetHitCounts();
             }
 
             return executor.execute();
@@ -264,7 +495,11 @@ public class Pic16F84VM {
     public void stop() {
 
         running = false;
-        changes.firePropertyChange("running", true, false);
+
+        if (changes.hasListeners(null)) {
+
+            changes.firePropertyChange("running", true, false);
+        }
     }
 
     /**
@@ -332,7 +567,10 @@ public class Pic16F84VM {
             throw new IllegalStateException("Selected pin is set as output pin");
         }
 
-        LOGGER.debug(String.format("Sets pin %d of Port A to %s", pin, isSet ? "HIGH" : "LOW"));
+        if (LOGGER.isDebugEnabled()) {
+
+            LOGGER.debug(String.format("Sets pin %d of Port A to %s", pin, isSet ? "HIGH" : "LOW"));
+        }
     }
 
     /**
@@ -384,7 +622,10 @@ public class Pic16F84VM {
             throw new IllegalStateException("Selected pin is set as output pin");
         }
 
-        LOGGER.debug(String.format("Sets pin %d of Port B to %s", pin, isSet ? "HIGH" : "LOW"));
+        if (LOGGER.isDebugEnabled()) {
+
+            LOGGER.debug(String.format("Sets pin %d of Port B to %s", pin, isSet ? "HIGH" : "LOW"));
+        }
     }
 
     /**
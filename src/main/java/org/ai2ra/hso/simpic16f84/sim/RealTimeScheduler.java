@@ -0,0 +1,211 @@
+package org.ai2ra.hso.simpic16f84.sim;
+
+import org.ai2ra.hso.simpic16f84.sim.vm.exec.ObservableExecution;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntPredicate;
+import java.util.function.LongSupplier;
+
+/**
+ * Paces the execution of a virtual machine, so that the simulated time tracks the
+ * wall-clock time. The simulated time is taken from the runtime counter, therefor it
+ * respects the configured quartz frequency, even if the frequency is changed while
+ * executing. Instructions are executed in batches, once per time slice, as many as
+ * required for catching up with the wall-clock.
+ *
+ * <p>
+ *     If the execution falls behind, e.g. because the host is too slow for the configured
+ *     frequency, the scheduler catches up by executing larger batches. As soon as the lag
+ *     exceeds the maximum lag, the scheduler gives up catching up, drops the lag and
+ *     continues from the current point in time. This is reported as overrun. The current
+ *     lag is reported as drift.
+ * </p>
+ *
+ * <pre>{@code
+ * RealTimeScheduler scheduler = new RealTimeScheduler(simulator);
+ * scheduler.synchronize();
+ *
+ * while (simulator.isRunning()) {
+ *
+ *     scheduler.execute(address -> false);
+ *     scheduler.awaitNextSlice();
+ * }
+ * }</pre>
+ *
+ * @author 0x1C1B
+ * @see ObservableExecution#getRuntimeCounter()
+ */
+
+public class RealTimeScheduler {
+
+    /** Default length of a time slice in nanoseconds. */
+    public static final long DEFAULT_SLICE = TimeUnit.MILLISECONDS.toNanos(1);
+    /** Default lag in nanoseconds before catching up is given up. */
+    public static final long DEFAULT_MAX_LAG = TimeUnit.MILLISECONDS.toNanos(100);
+    /** Consecutive steps without advancing the simulated time before a batch is ended. */
+    private static final int MAX_STALLED_STEPS = 16;
+
+    private final Pic16F84VM simulator;
+    private final ObservableExecution execution;
+    private final LongSupplier clock;
+    private final long slice;
+    private final long maxLag;
+
+    /** Wall-clock time and simulated time of the last synchronization in nanoseconds. */
+    private long wallClockOrigin;
+    private long simulatedOrigin;
+    private long nextSlice;
+
+    private volatile long drift;
+    private volatile long overruns;
+
+    public RealTimeScheduler(Pic16F84VM simulator) {
+
+        this(simulator, DEFAULT_SLICE, DEFAULT_MAX_LAG, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Constructs a new scheduler for the given virtual machine.
+     *
+     * @param simulator The virtual machine that should be paced
+     * @param slice The time between two batches of instructions
+     * @param maxLag The maximum lag that is caught up
+     * @param unit The time unit of slice and maximum lag
+     */
+
+    public RealTimeScheduler(Pic16F84VM simulator, long slice, long maxLag, TimeUnit unit) {
+
+        this(simulator, unit.toNanos(slice), unit.toNanos(maxLag), System::nanoTime);
+    }
+
+    RealTimeScheduler(Pic16F84VM simulator, long slice, long maxLag, LongSupplier clock) {
+
+        this.simulator = simulator;
+        this.execution = simulator.getExecutor();
+        this.clock = clock;
+        this.slice = slice;
+        this.maxLag = maxLag;
+    }
+
+    /**
+     * Aligns the simulated time with the current wall-clock time. This must be done
+     * before executing the first batch and every time the execution was paused.
+     */
+
+    public void synchronize() {
+
+        wallClockOrigin = clock.getAsLong();
+        simulatedOrigin = simulatedTime();
+        nextSlice = wallClockOrigin + slice;
+        drift = 0;
+    }
+
+    /**
+     * Executes all instructions that are due until now. The batch is interrupted as
+     * soon as the halt condition is met, the execution is stopped or several steps in a
+     * row don't advance the simulated time.
+     *
+     * @param halt Condition tested with the address of the next instruction
+     * @return Returns the address of the next instruction or -1 if nothing was due
+     */
+
+    public int execute(IntPredicate halt) {
+
+        long lag = lag(clock.getAsLong());
+
+        // Simulated time went backwards if the execution was restarted meanwhile
+
+        if (maxLag < lag || -maxLag > lag) {
+
+            ++overruns;
+            synchronize();
+            return -1;
+        }
+
+        // Clock is read once per batch, the batch ends as soon as the simulated time is due
+
+        long time = simulatedTime();
+        long due = time + lag;
+        int address = -1;
+        int stalled = 0;
+
+        while (due > time) {
+
+            address = simulator.execute();
+
+            // Entering an interrupt doesn't advance the time for a single step, while
+            // instructions failing over and over would never let the batch end
+
+            long previous = time;
+            time = simulatedTime();
+            stalled = previous == time ? stalled + 1 : 0;
+
+            if (halt.test(address) || !simulator.isRunning() || MAX_STALLED_STEPS <= stalled) {
+
+                break;
+            }
+        }
+
+        drift = lag(clock.getAsLong());
+        return address;
+    }
+
+    /**
+     * Waits until the next time slice begins. If the execution is already late, this
+     * method returns immediately.
+     *
+     * @throws InterruptedException Thrown if the thread is interrupted while waiting
+     */
+
+    public void awaitNextSlice() throws InterruptedException {
+
+        long remaining = nextSlice - clock.getAsLong();
+
+        if (0 < remaining) {
+
+            LockSupport.parkNanos(remaining);
+        }
+
+        nextSlice = Math.max(nextSlice + slice, clock.getAsLong());
+
+        if (Thread.interrupted()) {
+
+            throw new InterruptedException();
+        }
+    }
+
+    /**
+     * Determines how far the simulated time lags behind the wall-clock time, measured
+     * at the end of the last batch. Negative values mean the simulation is ahead.
+     *
+     * @return Returns the drift in nanoseconds
+     */
+
+    public long getDrift() {
+
+        return drift;
+    }
+
+    /**
+     * Determines how often the scheduler gave up catching up, since the lag exceeded
+     * the maximum lag.
+     *
+     * @return Returns the number of overruns
+     */
+
+    public long getOverruns() {
+
+        return overruns;
+    }
+
+    private long lag(long now) {
+
+        return (now - wallClockOrigin) - (simulatedTime() - simulatedOrigin);
+    }
+
+    private long simulatedTime() {
+
+        return (long) (execution.getRuntimeCounter() * 1000.0); // Runtime counter is in μs
+    }
+}
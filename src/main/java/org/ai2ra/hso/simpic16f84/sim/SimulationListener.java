@@ -0,0 +1,74 @@
+package org.ai2ra.hso.simpic16f84.sim;
+
+/**
+ * Callback invoked by the simulation thread for reporting the progress of the execution.
+ * All methods are invoked by the simulation thread itself, so implementations have to
+ * hand over to their own thread, e.g. the JavaFX Application Thread, and shouldn't block.
+ * Listeners not interested in some events can simply ignore them.
+ *
+ * @author 0x1C1B
+ * @see SimulationThread#addListener(SimulationListener)
+ */
+
+public interface SimulationListener {
+
+    /**
+     * Invoked periodically while running, at most once per batch of instructions.
+     *
+     * @param address The address of the next instruction
+     */
+
+    default void executed(int address) {
+
+    }
+
+    /**
+     * Invoked after the execution came to rest, either because a single step was
+     * executed, a breakpoint, watchpoint or stop condition was reached, or the execution
+     * was paused. The simulator stays running and might be continued.
+     *
+     * @param address The address of the next instruction
+     */
+
+    default void halted(int address) {
+
+    }
+
+    /**
+     * Invoked after the simulator was stopped, it's reset when continued.
+     */
+
+    default void stopped() {
+
+    }
+
+    /**
+     * Invoked after a program was loaded into the simulator.
+     */
+
+    default void loaded() {
+
+    }
+
+    /**
+     * Invoked periodically while running in real-time mode.
+     *
+     * @param drift The lag behind the wall-clock time in nanoseconds
+     * @param overruns The number of times catching up was given up
+     * @see RealTimeScheduler
+     */
+
+    default void paced(long drift, long overruns) {
+
+    }
+
+    /**
+     * Invoked if a command or the execution failed. A running execution is halted.
+     *
+     * @param exc The occurred exception
+     */
+
+    default void failed(Exception exc) {
+
+    }
+}
@@ -0,0 +1,555 @@
+package org.ai2ra.hso.simpic16f84.sim;
+
+import org.ai2ra.hso.simpic16f84.sim.debug.BreakpointSet;
+import org.ai2ra.hso.simpic16f84.sim.debug.Stepping;
+import org.ai2ra.hso.simpic16f84.sim.debug.WatchpointSet;
+import org.ai2ra.hso.simpic16f84.sim.vm.DebugInfo;
+
+import java.io.File;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntPredicate;
+
+/**
+ * Long-lived thread owning the execution of a simulator. Every operation changing the
+ * execution flow, like stepping, running, stopping, stimulating a port or loading a
+ * program, is submitted as command to a lock-free queue and executed by this thread in
+ * order. Commands are consumed between two batches of instructions, so a command takes
+ * effect at the latest after the currently executed batch. While there's nothing to do,
+ * the thread is parked.
+ *
+ * <p>
+ *     A running execution continues until a breakpoint of the simulator's
+ *     {@link BreakpointSet}, a data watchpoint of its {@link WatchpointSet} or the
+ *     optional stop condition is reached. By default the execution speed is limited to
+ *     the configured number of instructions per second, instructions are executed in
+ *     batches, one per frame. In real-time mode the execution is paced by a
+ *     {@link RealTimeScheduler} instead, one batch per time slice. Stop conditions, e.g.
+ *     created using {@link Stepping}, are always executed as fast as possible.
+ * </p>
+ *
+ * <p>
+ *     The progress is reported to the registered {@link SimulationListener}s, invoked
+ *     by this thread.
+ * </p>
+ *
+ * @author 0x1C1B
+ * @see Pic16F84VM
+ * @see SimulationListener
+ */
+
+public class SimulationThread {
+
+    /** Speed for executing as many instructions as possible. */
+    public static final double MAX_SPEED = Double.POSITIVE_INFINITY;
+    /** Time budget of a single frame in nanoseconds. */
+    private static final long FRAME_BUDGET = TimeUnit.MILLISECONDS.toNanos(16);
+    /** Stop condition of a plain run, only breakpoints and watchpoints are halting. */
+    private static final IntPredicate NEVER = address -> false;
+
+    private final Pic16F84VM simulator;
+    private final BreakpointSet breakpoints;
+    private final WatchpointSet watchpoints;
+    private final Queue<Command> commands;
+    private final List<SimulationListener> listeners;
+    private final IntPredicate halt;
+
+    private volatile Thread worker;
+    /** Instructions per second, might be changed while executing. */
+    private volatile double speed;
+    private volatile boolean executing;
+
+    // State of the current execution, only accessed by the simulation thread
+
+    private IntPredicate stopCondition;
+    private RealTimeScheduler scheduler;
+    private boolean limited;
+    private boolean halted;
+    private double credit;
+    private long previousFrame;
+    private int address;
+
+    public SimulationThread(Pic16F84VM simulator) {
+
+        this.simulator = simulator;
+        this.breakpoints = simulator.getBreakpoints();
+        this.watchpoints = simulator.getWatchpoints();
+        this.commands = new ConcurrentLinkedQueue<>();
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.halt = this::halts;
+        this.speed = 2.0;
+        this.stopCondition = NEVER;
+    }
+
+    public void addListener(SimulationListener listener) {
+
+        listeners.add(listener);
+    }
+
+    public void removeListener(SimulationListener listener) {
+
+        listeners.remove(listener);
+    }
+
+    public double getSpeed() {
+
+        return speed;
+    }
+
+    /**
+     * Changes the execution speed, this takes effect with the next batch, even while
+     * executing. The speed is ignored in real-time mode.
+     *
+     * @param speed Instructions per second or {@link SimulationThread#MAX_SPEED}
+     * @throws IllegalArgumentException Thrown if the speed isn't positive
+     */
+
+    public void setSpeed(double speed) throws IllegalArgumentException {
+
+        if (0.0 >= speed) {
+
+            throw new IllegalArgumentException("Speed must be positive");
+        }
+
+        this.speed = speed;
+    }
+
+    /**
+     * Determines if the simulation thread is currently running the program. Halted
+     * executions, e.g. by a breakpoint, aren't executing.
+     *
+     * @return Returns true if the program is executed continuously, otherwise false
+     */
+
+    public boolean isExecuting() {
+
+        return executing;
+    }
+
+    /**
+     * Starts the simulation thread. If it's already started, this method has no effect.
+     */
+
+    public synchronized void start() {
+
+        if (null == worker) {
+
+            worker = new Thread(this::run, "Simulation");
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+    /**
+     * Terminates the simulation thread and waits until it terminated. Pending commands
+     * are discarded. If the thread isn't started, this method has no effect.
+     */
+
+    public synchronized void shutdown() {
+
+        Thread thread = worker;
+
+        if (null != thread) {
+
+            worker = null;
+            thread.interrupt();
+
+            try {
+
+                thread.join();
+
+            } catch (InterruptedException exc) {
+
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        commands.clear();
+    }
+
+    /**
+     * Loads a program into the simulator, a running execution is stopped.
+     *
+     * @param file The path to the LST file
+     * @see Pic16F84VM#load(File)
+     */
+
+    public void load(File file) {
+
+        submit(() -> {
+
+            executing = false;
+            simulator.load(file);
+
+            for (SimulationListener listener : listeners) {
+
+                listener.loaded();
+            }
+        });
+    }
+
+    /**
+     * Loads an already parsed program into the simulator, a running execution is stopped.
+     *
+     * @param debugInfo The debug information of the program, including the machine instructions
+     * @see Pic16F84VM#load(DebugInfo)
+     */
+
+    public void load(DebugInfo<Short> debugInfo) {
+
+        submit(() -> {
+
+            executing = false;
+            simulator.load(debugInfo);
+
+            for (SimulationListener listener : listeners) {
+
+                listener.loaded();
+            }
+        });
+    }
+
+    /**
+     * Executes a single instruction. A running execution is halted before. Breakpoint
+     * hits and logpoints of the reached address are counted like while running.
+     */
+
+    public void step() {
+
+        submit(() -> {
+
+            executing = false;
+
+            int next = simulator.execute();
+
+            halts(next); // Always halts, but counts hits and logs logpoints
+            halt(next);
+        });
+    }
+
+    /**
+     * Runs the program until a breakpoint, a watchpoint or the stop condition is
+     * reached. A running execution is continued using the new settings.
+     *
+     * @param stopCondition The temporary stop condition or <code>null</code> if there's none
+     * @param realTime Indicates if the execution is paced at the configured quartz frequency,
+     *                 ignored if there's a stop condition
+     */
+
+    public void run(IntPredicate stopCondition, boolean realTime) {
+
+        submit(() -> {
+
+            this.stopCondition = null == stopCondition ? NEVER : stopCondition;
+            this.limited = null == stopCondition;
+            this.scheduler = realTime && null == stopCondition ? new RealTimeScheduler(simulator) : null;
+
+            executing = false;
+            watchpoints.rearm(); // Writes of previous single steps are outdated
+
+            int next = simulator.execute(); // Starts the execution if not already running
+
+            if (halts(next)) {
+
+                halt(next);
+                return;
+            }
+
+            address = next;
+            credit = 0.0;
+            previousFrame = System.nanoTime();
+
+            if (null != scheduler) {
+
+                scheduler.synchronize();
+            }
+
+            executing = true;
+            fireExecuted();
+        });
+    }
+
+    /**
+     * Halts a running execution, it might be continued afterwards. If the program
+     * isn't executing, this method has no effect.
+     */
+
+    public void pause() {
+
+        submit(() -> {
+
+            if (executing) {
+
+                halt(address);
+            }
+        });
+    }
+
+    /**
+     * Stops the execution flow, it's reset when continued.
+     *
+     * @see Pic16F84VM#stop()
+     */
+
+    public void stop() {
+
+        submit(() -> {
+
+            executing = false;
+            simulator.stop();
+
+            for (SimulationListener listener : listeners) {
+
+                listener.stopped();
+            }
+        });
+    }
+
+    /**
+     * Stimulates a pin of Port A in between two batches, so the execution never
+     * observes a partially stimulated port.
+     *
+     * @param pin Selected pin, range between 0 inclusive and 4 inclusive
+     * @param isSet Value for selected pin, true indicates HIGH and false indicates LOW
+     * @see Pic16F84VM#stimulatePortA(int, boolean)
+     */
+
+    public void stimulatePortA(int pin, boolean isSet) {
+
+        submit(() -> simulator.stimulatePortA(pin, isSet));
+    }
+
+    /**
+     * Stimulates a pin of Port B in between two batches, so the execution never
+     * observes a partially stimulated port.
+     *
+     * @param pin Selected pin, range between 0 inclusive and 7 inclusive
+     * @param isSet Value for selected pin, true indicates HIGH and false indicates LOW
+     * @see Pic16F84VM#stimulatePortB(int, boolean)
+     */
+
+    public void stimulatePortB(int pin, boolean isSet) {
+
+        submit(() -> simulator.stimulatePortB(pin, isSet));
+    }
+
+    /**
+     * Changes the quartz frequency in between two batches, so the frequency is only
+     * accessed by the simulation thread.
+     *
+     * @param frequency The new execution frequency in Hz
+     * @see org.ai2ra.hso.simpic16f84.sim.vm.exec.ObservableExecution#setFrequency(double)
+     */
+
+    public void setFrequency(double frequency) {
+
+        submit(() -> simulator.getExecutor().setFrequency(frequency));
+    }
+
+    private void submit(Command command) {
+
+        commands.offer(command);
+
+        Thread thread = worker;
+
+        if (null != thread) {
+
+            LockSupport.unpark(thread); // Wakes up the thread if idle or waiting for the next batch
+        }
+    }
+
+    private void run() {
+
+        while (!Thread.currentThread().isInterrupted()) {
+
+            Command command;
+
+            while (null != (command = commands.poll())) {
+
+                try {
+
+                    command.execute();
+
+                } catch (Exception exc) {
+
+                    fail(exc);
+                }
+            }
+
+            try {
+
+                if (!executing) {
+
+                    LockSupport.park(this);
+
+                } else if (null != scheduler) {
+
+                    executeSlice();
+
+                } else {
+
+                    executeFrame();
+                }
+
+            } catch (InterruptedException exc) {
+
+                Thread.currentThread().interrupt();
+
+            } catch (Exception exc) {
+
+                executing = false;
+                fail(exc);
+            }
+        }
+    }
+
+    /**
+     * Executes the batch of a single frame, limited by the configured speed.
+     */
+
+    private void executeFrame() {
+
+        long frame = System.nanoTime();
+        long deadline = frame + FRAME_BUDGET;
+        double instructionsPerSecond = limited ? speed : MAX_SPEED;
+        long due;
+
+        if (Double.isInfinite(instructionsPerSecond)) {
+
+            due = Long.MAX_VALUE; // Limited by the frame budget only
+
+        } else {
+
+            // Credit is limited to a single frame for preventing bursts
+
+            credit = Math.min(credit + (frame - previousFrame) * instructionsPerSecond / 1e9,
+                    Math.max(1.0, instructionsPerSecond * FRAME_BUDGET / 1e9));
+
+            due = (long) credit;
+            credit -= due;
+        }
+
+        previousFrame = frame;
+
+        for (long count = 0; count < due; ++count) {
+
+            int next = simulator.execute();
+
+            if (halts(next)) {
+
+                halt(next);
+                return;
+            }
+
+            address = next;
+
+            // Reading the clock isn't for free, the budget is checked periodically
+
+            if (0xFF == (count & 0xFF) && deadline <= System.nanoTime()) {
+
+                break;
+            }
+        }
+
+        if (0 < due) {
+
+            fireExecuted();
+        }
+
+        // Waiting is interrupted as soon as a command is submitted
+
+        long remaining;
+
+        while (commands.isEmpty() && 0 < (remaining = deadline - System.nanoTime())
+                && !Thread.currentThread().isInterrupted()) {
+
+            LockSupport.parkNanos(this, remaining);
+        }
+    }
+
+    /**
+     * Executes the batch of a single time slice in real-time mode.
+     *
+     * @throws InterruptedException Thrown if the thread is interrupted while waiting
+     */
+
+    private void executeSlice() throws InterruptedException {
+
+        int executed = scheduler.execute(halt);
+
+        if (-1 != executed) {
+
+            if (halted) {
+
+                halt(executed);
+                return;
+            }
+
+            address = executed;
+            fireExecuted();
+        }
+
+        for (SimulationListener listener : listeners) {
+
+            listener.paced(scheduler.getDrift(), scheduler.getOverruns());
+        }
+
+        scheduler.awaitNextSlice();
+    }
+
+    /**
+     * Tests if the execution has to halt before the given address. Testing counts
+     * breakpoint hits, so the result is kept instead of testing again.
+     *
+     * @param next The address of the next instruction
+     * @return Returns true if the execution has to halt, otherwise false
+     */
+
+    private boolean halts(int next) {
+
+        return halted = breakpoints.test(next) || watchpoints.test() || stopCondition.test(next);
+    }
+
+    private void halt(int next) {
+
+        executing = false;
+        address = next;
+        stopCondition = NEVER;
+        scheduler = null;
+
+        for (SimulationListener listener : listeners) {
+
+            listener.halted(next);
+        }
+    }
+
+    private void fireExecuted() {
+
+        for (SimulationListener listener : listeners) {
+
+            listener.executed(address);
+        }
+    }
+
+    private void fail(Exception exc) {
+
+        for (SimulationListener listener : listeners) {
+
+            listener.failed(exc);
+        }
+    }
+
+    /**
+     * Operation executed by the simulation thread.
+     */
+
+    @FunctionalInterface
+    private interface Command {
+
+        void execute() throws Exception;
+    }
+}
@@ -0,0 +1,356 @@
+package org.ai2ra.hso.simpic16f84.sim.debug;
+
+import java.util.Collection;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Set of breakpoints indexed by program memory address. Breakpoints are stored as
+ * single bits, so checking an address is a single bit test independent of the number
+ * of breakpoints. Breakpoints might be conditional, the condition is only evaluated if
+ * the executing thread reaches the address of the breakpoint.
+ *
+ * <p>
+ *     Hits of a breakpoint, meaning the address was reached and the condition holds, are
+ *     counted. A breakpoint might halt on a specific hit only. Logpoints are breakpoints
+ *     that never halt, instead a snapshot is appended to the {@link LogBuffer}. All of
+ *     this is evaluated by the executing thread itself.
+ * </p>
+ *
+ * <p>
+ *     The set is designed to be modified by one thread, e.g. the user interface, while
+ *     being checked by the executing thread. Modifications are visible to the executing
+ *     thread immediately, without any locking.
+ * </p>
+ *
+ * @author 0x1C1B
+ */
+
+public class BreakpointSet {
+
+    /** Number of addressable breakpoints, equals the program memory size. */
+    public static final int CAPACITY = 1024;
+
+    private final AtomicLongArray words;
+    /** Conditions indexed by address, <code>null</code> for unconditional breakpoints. */
+    private final AtomicReferenceArray<Expression> conditions;
+    /** Hit halting the execution indexed by address, zero for halting on every hit. */
+    private final AtomicIntegerArray hitTargets;
+    private final AtomicLongArray hitCounts;
+    /** Logpoints indexed by address, <code>null</code> for halting breakpoints. */
+    private final AtomicReferenceArray<Logpoint> logpoints;
+    private final LogBuffer log;
+
+    public BreakpointSet() {
+
+        this.words = new AtomicLongArray(CAPACITY / Long.SIZE);
+        this.conditions = new AtomicReferenceArray<>(CAPACITY);
+        this.hitTargets = new AtomicIntegerArray(CAPACITY);
+        this.hitCounts = new AtomicLongArray(CAPACITY);
+        this.logpoints = new AtomicReferenceArray<>(CAPACITY);
+        this.log = new LogBuffer();
+    }
+
+    /**
+     * Determines if a breakpoint is set at the given address. Addresses outside of the
+     * program memory never contain a breakpoint.
+     *
+     * @param address The program memory address
+     * @return Returns true if a breakpoint is set, otherwise false
+     */
+
+    public boolean contains(int address) {
+
+        return 0 <= address && CAPACITY > address &&
+                0 != (words.get(address >>> 6) & (1L << address));
+    }
+
+    /**
+     * Determines if the execution should break at the given address. That's the case if
+     * a breakpoint is set, its condition, if any, evaluates to true and the hit is the one
+     * to halt on. Logpoints never break, they log a snapshot instead. Conditions are
+     * evaluated only for addresses containing a breakpoint. Intended to be called once
+     * per executed instruction, because every call counts a hit.
+     *
+     * @param address The program memory address
+     * @return Returns true if the execution should break, otherwise false
+     */
+
+    public boolean test(int address) {
+
+        if (!contains(address)) {
+
+            return false;
+        }
+
+        Expression condition = conditions.get(address);
+
+        if (null != condition && 0 == condition.evaluate()) {
+
+            return false;
+        }
+
+        long hits = hitCounts.incrementAndGet(address);
+        Logpoint logpoint = logpoints.get(address);
+
+        if (null != logpoint) {
+
+            log.append(String.format("0x%04X (hit %d): %s", address, hits, logpoint.format()));
+            return false;
+        }
+
+        int target = hitTargets.get(address);
+        return 0 == target || target == hits;
+    }
+
+    /**
+     * Lets the breakpoint at the given address halt on a specific hit only, e.g. on the
+     * tenth time the address is reached. Hits are counted since the last reset.
+     *
+     * @param address The program memory address
+     * @param target The hit to halt on or zero for halting on every hit
+     * @throws IllegalArgumentException Thrown if address is outside of the program memory
+     *                                  or the hit is negative
+     * @see BreakpointSet#resetHitCounts()
+     */
+
+    public void setHitTarget(int address, int target) throws IllegalArgumentException {
+
+        checkAddress(address);
+
+        if (0 > target) {
+
+            throw new IllegalArgumentException("Hit must not be negative");
+        }
+
+        hitTargets.set(address, target);
+    }
+
+    public int getHitTarget(int address) throws IllegalArgumentException {
+
+        checkAddress(address);
+        return hitTargets.get(address);
+    }
+
+    /**
+     * Determines how often the breakpoint at the given address was hit since the last
+     * reset. Hits whose condition didn't hold aren't counted.
+     *
+     * @param address The program memory address
+     * @return Returns the number of hits
+     * @throws IllegalArgumentException Thrown if address is outside of the program memory
+     */
+
+    public long getHitCount(int address) throws IllegalArgumentException {
+
+        checkAddress(address);
+        return hitCounts.get(address);
+    }
+
+    /**
+     * Resets the hit counters of all breakpoints, e.g. if the execution is restarted.
+     */
+
+    public void resetHitCounts() {
+
+        for (int address = 0; address < CAPACITY; ++address) {
+
+            hitCounts.set(address, 0);
+        }
+    }
+
+    /**
+     * Turns the breakpoint at the given address into a logpoint, or back into a halting
+     * breakpoint.
+     *
+     * @param address The program memory address
+     * @param logpoint The logpoint or <code>null</code> for a halting breakpoint
+     * @throws IllegalArgumentException Thrown if address is outside of the program memory
+     */
+
+    public void setLogpoint(int address, Logpoint logpoint) throws IllegalArgumentException {
+
+        checkAddress(address);
+        logpoints.set(address, logpoint);
+    }
+
+    public Logpoint getLogpoint(int address) throws IllegalArgumentException {
+
+        checkAddress(address);
+        return logpoints.get(address);
+    }
+
+    /**
+     * Returns the buffer logpoints are appending their snapshots to.
+     *
+     * @return Returns the log buffer
+     */
+
+    public LogBuffer getLog() {
+
+        return log;
+    }
+
+    /**
+     * Attaches a condition to the breakpoint at the given address. The condition is kept
+     * as long as the breakpoint exists.
+     *
+     * @param address The program memory address
+     * @param condition The condition or <code>null</code> for an unconditional breakpoint
+     * @throws IllegalArgumentException Thrown if address is outside of the program memory
+     */
+
+    public void setCondition(int address, Expression condition) throws IllegalArgumentException {
+
+        checkAddress(address);
+        conditions.set(address, condition);
+    }
+
+    /**
+     * Returns the condition attached to the breakpoint at the given address.
+     *
+     * @param address The program memory address
+     * @return Returns the condition or <code>null</code> if there's no condition
+     * @throws IllegalArgumentException Thrown if address is outside of the program memory
+     */
+
+    public Expression getCondition(int address) throws IllegalArgumentException {
+
+        checkAddress(address);
+        return conditions.get(address);
+    }
+
+    /**
+     * Sets a breakpoint at the given address.
+     *
+     * @param address The program memory address
+     * @throws IllegalArgumentException Thrown if address is outside of the program memory
+     */
+
+    public void add(int address) throws IllegalArgumentException {
+
+        checkAddress(address);
+
+        long word;
+
+        do {
+
+            word = words.get(address >>> 6);
+
+        } while (!words.compareAndSet(address >>> 6, word, word | (1L << address)));
+    }
+
+    /**
+     * Removes the breakpoint at the given address, if any, including its condition, hit
+     * counter and logpoint.
+     *
+     * @param address The program memory address
+     * @throws IllegalArgumentException Thrown if address is outside of the program memory
+     */
+
+    public void remove(int address) throws IllegalArgumentException {
+
+        checkAddress(address);
+
+        long word;
+
+        do {
+
+            word = words.get(address >>> 6);
+
+        } while (!words.compareAndSet(address >>> 6, word, word & ~(1L << address)));
+
+        detach(address);
+    }
+
+    /**
+     * Replaces all breakpoints at once. Breakpoints contained before and after replacing
+     * aren't removed in the meantime, so the executing thread can't miss them. They keep
+     * their conditions, hit counters and logpoints, the ones of removed breakpoints are
+     * dropped.
+     *
+     * @param addresses The program memory addresses of the new breakpoints
+     * @throws IllegalArgumentException Thrown if an address is outside of the program memory
+     */
+
+    public void setAll(Collection<Integer> addresses) throws IllegalArgumentException {
+
+        long[] replaced = new long[words.length()];
+
+        for (int address : addresses) {
+
+            checkAddress(address);
+            replaced[address >>> 6] |= 1L << address;
+        }
+
+        for (int index = 0; index < replaced.length; ++index) {
+
+            words.set(index, replaced[index]);
+        }
+
+        for (int address = 0; address < CAPACITY; ++address) {
+
+            if (0 == (replaced[address >>> 6] & (1L << address))) {
+
+                detach(address);
+            }
+        }
+    }
+
+    /**
+     * Removes all breakpoints including their conditions, hit counters and logpoints.
+     */
+
+    public void clear() {
+
+        for (int index = 0; index < words.length(); ++index) {
+
+            words.set(index, 0L);
+        }
+
+        for (int address = 0; address < CAPACITY; ++address) {
+
+            detach(address);
+        }
+    }
+
+    /**
+     * Returns a snapshot of all breakpoints.
+     *
+     * @return Returns the sorted program memory addresses
+     */
+
+    public SortedSet<Integer> toSet() {
+
+        SortedSet<Integer> addresses = new TreeSet<>();
+
+        for (int address = 0; address < CAPACITY; ++address) {
+
+            if (contains(address)) {
+
+                addresses.add(address);
+            }
+        }
+
+        return addresses;
+    }
+
+    private void detach(int address) {
+
+        conditions.set(address, null);
+        hitTargets.set(address, 0);
+        hitCounts.set(address, 0);
+        logpoints.set(address, null);
+    }
+
+    private static void checkAddress(int address) throws IllegalArgumentException {
+
+        if (0 > address || CAPACITY <= address) {
+
+            throw new IllegalArgumentException("Address is outside of program memory");
+        }
+    }
+}
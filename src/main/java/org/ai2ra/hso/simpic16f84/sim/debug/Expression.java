@@ -0,0 +1,23 @@
+package org.ai2ra.hso.simpic16f84.sim.debug;
+
+/**
+ * Compiled expression evaluated against the current state of a simulator. Expressions
+ * are compiled once by {@link ExpressionCompiler}, evaluating them doesn't involve any
+ * parsing and is free of side effects. Booleans are represented like in C, zero means
+ * false, every other value means true.
+ *
+ * @author 0x1C1B
+ * @see ExpressionCompiler
+ */
+
+@FunctionalInterface
+public interface Expression {
+
+    /**
+     * Evaluates the expression against the current state of the simulator.
+     *
+     * @return Returns the value of the expression
+     */
+
+    long evaluate();
+}
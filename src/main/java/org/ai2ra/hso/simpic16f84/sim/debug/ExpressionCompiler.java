@@ -0,0 +1,415 @@
+package org.ai2ra.hso.simpic16f84.sim.debug;
+
+import org.ai2ra.hso.simpic16f84.sim.Pic16F84VM;
+import org.ai2ra.hso.simpic16f84.sim.mem.ObservableMemory;
+import org.ai2ra.hso.simpic16f84.sim.mem.RamMemory;
+import org.ai2ra.hso.simpic16f84.sim.vm.DebugInfo;
+import org.ai2ra.hso.simpic16f84.sim.vm.exec.ObservableExecution;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compiles expressions over the state of a simulator, e.g. for conditional breakpoints or
+ * watch expressions. The syntax is similar to C, operators and their precedences are:
+ *
+ * <ol>
+ *     <li>Unary <code>! ~ - +</code></li>
+ *     <li><code>* / %</code></li>
+ *     <li><code>+ -</code></li>
+ *     <li><code>&lt;&lt; &gt;&gt;</code></li>
+ *     <li><code>&lt; &lt;= &gt; &gt;=</code></li>
+ *     <li><code>== !=</code></li>
+ *     <li><code>&amp;</code>, <code>^</code>, <code>|</code></li>
+ *     <li><code>&amp;&amp;</code>, <code>||</code></li>
+ * </ol>
+ *
+ * <p>
+ *     Operands are decimal, hexadecimal (<code>0x</code>) or binary (<code>0b</code>)
+ *     literals, the working register <code>W</code>, the program counter <code>PC</code>,
+ *     the consumed instruction cycles <code>CYCLES</code>, Special Function Registers by
+ *     name, e.g. <code>STATUS</code>, as well as single memory cells using
+ *     <code>ram[address]</code> and <code>eeprom[address]</code>. RAM addresses are
+ *     combined, meaning addresses above 0x7F are located in bank 1. Keywords and register
+ *     names are case insensitive. Additionally, symbols of the loaded program are
+ *     resolved to their values.
+ * </p>
+ *
+ * <p>
+ *     The expression is parsed only once. The result is a tree of primitive operations,
+ *     constant sub expressions are folded while compiling. Evaluating never throws,
+ *     dividing by zero results in zero and memory addresses wrap around.
+ * </p>
+ *
+ * @author 0x1C1B
+ * @see Expression
+ */
+
+public class ExpressionCompiler {
+
+    /** Binary operators grouped by precedence, lowest precedence first. */
+    private static final String[][] LEVELS = {
+            {"||"}, {"&&"}, {"|"}, {"^"}, {"&"}, {"==", "!="},
+            {"<=", ">=", "<", ">"}, {"<<", ">>"}, {"+", "-"}, {"*", "/", "%"}
+    };
+    /** Operators consisting of two characters, for rejecting their prefixes. */
+    private static final Set<String> COMPOSED = new HashSet<>(Arrays.asList(
+            "||", "&&", "==", "!=", "<=", ">=", "<<", ">>"));
+
+    private final ObservableExecution executor;
+    private final ObservableMemory<Byte> ram;
+    private final ObservableMemory<Byte> eeprom;
+    private final int eepromSize;
+    private final Map<String, Integer> symbols;
+
+    private String source;
+    private int position;
+
+    /**
+     * Constructs a compiler for expressions over the given simulator. Symbols are taken
+     * from the currently loaded program, expressions have to be recompiled after
+     * loading another program.
+     *
+     * @param simulator The simulator expressions are evaluated against
+     */
+
+    public ExpressionCompiler(Pic16F84VM simulator) {
+
+        DebugInfo<Short> debugInfo = simulator.getDebugInfo();
+
+        this.executor = simulator.getExecutor();
+        this.ram = simulator.getRam();
+        this.eeprom = simulator.getEeprom();
+        this.eepromSize = simulator.getEepromSize();
+        this.symbols = null == debugInfo ? Collections.emptyMap() : debugInfo.getSymbols();
+    }
+
+    /**
+     * Compiles the given expression.
+     *
+     * @param source The expression's source code
+     * @return Returns the compiled expression
+     * @throws IllegalArgumentException Thrown if the expression is malformed
+     */
+
+    public Expression compile(String source) throws IllegalArgumentException {
+
+        this.source = source;
+        this.position = 0;
+
+        Expression expression = parseLevel(0);
+
+        skipWhitespace();
+
+        if (source.length() > position) {
+
+            throw error("Unexpected '" + source.charAt(position) + "'");
+        }
+
+        return expression;
+    }
+
+    private Expression parseLevel(int level) {
+
+        if (LEVELS.length == level) {
+
+            return parseUnary();
+        }
+
+        Expression left = parseLevel(level + 1);
+        String operator;
+
+        while (null != (operator = match(LEVELS[level]))) {
+
+            Expression right = parseLevel(level + 1);
+            left = fold(binary(operator, left, right), left, right);
+        }
+
+        return left;
+    }
+
+    private Expression parseUnary() {
+
+        String operator = match(new String[] {"!", "~", "-", "+"});
+
+        if (null == operator) {
+
+            return parsePrimary();
+        }
+
+        Expression operand = parseUnary();
+
+        switch (operator) {
+
+            case "!": return fold(() -> 0 == operand.evaluate() ? 1 : 0, operand);
+            case "~": return fold(() -> ~operand.evaluate(), operand);
+            case "-": return fold(() -> -operand.evaluate(), operand);
+            default: return operand;
+        }
+    }
+
+    private Expression parsePrimary() {
+
+        skipWhitespace();
+
+        if (source.length() <= position) {
+
+            throw error("Unexpected end of expression");
+        }
+
+        char next = source.charAt(position);
+
+        if ('(' == next) {
+
+            ++position;
+
+            Expression expression = parseLevel(0);
+
+            expect(')');
+            return expression;
+
+        } else if (Character.isDigit(next)) {
+
+            return parseNumber();
+
+        } else if (Character.isLetter(next) || '_' == next) {
+
+            return parseIdentifier();
+        }
+
+        throw error("Unexpected '" + next + "'");
+    }
+
+    private Expression parseNumber() {
+
+        int start = position;
+
+        while (source.length() > position && Character.isLetterOrDigit(source.charAt(position))) {
+
+            ++position;
+        }
+
+        String literal = source.substring(start, position).toLowerCase();
+
+        try {
+
+            long value;
+
+            if (literal.startsWith("0x")) {
+
+                value = Long.parseLong(literal.substring(2), 16);
+
+            } else if (literal.startsWith("0b")) {
+
+                value = Long.parseLong(literal.substring(2), 2);
+
+            } else {
+
+                value = Long.parseLong(literal, 10);
+            }
+
+            return new Constant(value);
+
+        } catch (NumberFormatException exc) {
+
+            position = start;
+            throw error("Malformed number '" + literal + "'");
+        }
+    }
+
+    private Expression parseIdentifier() {
+
+        int start = position;
+
+        while (source.length() > position && (Character.isLetterOrDigit(source.charAt(position))
+                || '_' == source.charAt(position))) {
+
+            ++position;
+        }
+
+        String name = source.substring(start, position);
+
+        switch (name.toUpperCase(Locale.ROOT)) {
+
+            case "W": return () -> executor.getWorkingRegister() & 0xFF;
+            case "PC": return executor::getProgramCounter;
+            case "CYCLES": return executor::getCycleCounter;
+            case "RAM": return parseCell(ram, 2 * RamMemory.BANK_SIZE);
+            case "EEPROM": return parseCell(eeprom, eepromSize);
+        }
+
+        RamMemory.SFR sfr = RamMemory.SFR.forName(name);
+
+        if (null != sfr) {
+
+            return cell(ram, sfr.getBank().ordinal() * RamMemory.BANK_SIZE + sfr.getAddress());
+        }
+
+        if (symbols.containsKey(name)) {
+
+            return new Constant(symbols.get(name));
+        }
+
+        position = start;
+        throw error("Unknown identifier '" + name + "'");
+    }
+
+    private Expression parseCell(ObservableMemory<Byte> memory, int size) {
+
+        expect('[');
+
+        Expression address = parseLevel(0);
+
+        expect(']');
+
+        if (address instanceof Constant) {
+
+            return cell(memory, (int) Math.floorMod(address.evaluate(), (long) size));
+        }
+
+        return () -> {
+
+            Byte value = memory.get((int) Math.floorMod(address.evaluate(), (long) size));
+            return null == value ? 0 : value & 0xFF;
+        };
+    }
+
+    private static Expression cell(ObservableMemory<Byte> memory, int address) {
+
+        return () -> {
+
+            Byte value = memory.get(address);
+            return null == value ? 0 : value & 0xFF;
+        };
+    }
+
+    private static Expression binary(String operator, Expression left, Expression right) {
+
+        switch (operator) {
+
+            case "||": return () -> 0 != left.evaluate() || 0 != right.evaluate() ? 1 : 0;
+            case "&&": return () -> 0 != left.evaluate() && 0 != right.evaluate() ? 1 : 0;
+            case "|": return () -> left.evaluate() | right.evaluate();
+            case "^": return () -> left.evaluate() ^ right.evaluate();
+            case "&": return () -> left.evaluate() & right.evaluate();
+            case "==": return () -> left.evaluate() == right.evaluate() ? 1 : 0;
+            case "!=": return () -> left.evaluate() != right.evaluate() ? 1 : 0;
+            case "<=": return () -> left.evaluate() <= right.evaluate() ? 1 : 0;
+            case ">=": return () -> left.evaluate() >= right.evaluate() ? 1 : 0;
+            case "<": return () -> left.evaluate() < right.evaluate() ? 1 : 0;
+            case ">": return () -> left.evaluate() > right.evaluate() ? 1 : 0;
+            case "<<": return () -> left.evaluate() << right.evaluate();
+            case ">>": return () -> left.evaluate() >> right.evaluate();
+            case "+": return () -> left.evaluate() + right.evaluate();
+            case "-": return () -> left.evaluate() - right.evaluate();
+            case "*": return () -> left.evaluate() * right.evaluate();
+
+            case "/": return () -> {
+
+                long divisor = right.evaluate();
+                return 0 == divisor ? 0 : left.evaluate() / divisor;
+            };
+
+            default: return () -> {
+
+                long divisor = right.evaluate();
+                return 0 == divisor ? 0 : left.evaluate() % divisor;
+            };
+        }
+    }
+
+    /**
+     * Folds an operation into a constant if all of its operands are constant.
+     *
+     * @param operation The operation capturing the operands
+     * @param operands The operands of the operation
+     * @return Returns either the operation itself or the folded constant
+     */
+
+    private static Expression fold(Expression operation, Expression... operands) {
+
+        for (Expression operand : operands) {
+
+            if (!(operand instanceof Constant)) {
+
+                return operation;
+            }
+        }
+
+        return new Constant(operation.evaluate());
+    }
+
+    private String match(String[] operators) {
+
+        skipWhitespace();
+
+        for (String operator : operators) {
+
+            if (source.startsWith(operator, position)) {
+
+                int end = position + operator.length();
+
+                // Prevents matching prefixes of other operators, e.g. '<' of '<<'
+
+                if (source.length() > end && COMPOSED.contains(operator + source.charAt(end))) {
+
+                    continue;
+                }
+
+                position = end;
+                return operator;
+            }
+        }
+
+        return null;
+    }
+
+    private void expect(char expected) {
+
+        skipWhitespace();
+
+        if (source.length() <= position || expected != source.charAt(position)) {
+
+            throw error("Expected '" + expected + "'");
+        }
+
+        ++position;
+    }
+
+    private void skipWhitespace() {
+
+        while (source.length() > position && Character.isWhitespace(source.charAt(position))) {
+
+            ++position;
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+
+        return new IllegalArgumentException(String.format("%s at position %d", message, position));
+    }
+
+    /**
+     * Constant expression, e.g. a literal, a symbol or a folded sub expression.
+     */
+
+    private static final class Constant implements Expression {
+
+        private final long value;
+
+        private Constant(long value) {
+
+            this.value = value;
+        }
+
+        @Override
+        public long evaluate() {
+
+            return value;
+        }
+    }
+}
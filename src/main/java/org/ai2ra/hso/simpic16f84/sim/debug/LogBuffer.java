@@ -0,0 +1,78 @@
+package org.ai2ra.hso.simpic16f84.sim.debug;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded in-memory buffer of log entries, e.g. written by logpoints. The executing
+ * thread appends entries without waiting for the consumer, e.g. the user interface,
+ * which drains the buffer periodically. If the buffer is full, the oldest entries are
+ * dropped and counted.
+ *
+ * @author 0x1C1B
+ */
+
+public class LogBuffer {
+
+    /** Default number of buffered entries. */
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private final BlockingQueue<String> entries;
+    private final AtomicLong dropped;
+
+    public LogBuffer() {
+
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LogBuffer(int capacity) {
+
+        this.entries = new ArrayBlockingQueue<>(capacity);
+        this.dropped = new AtomicLong();
+    }
+
+    /**
+     * Appends an entry, the oldest entry is dropped if the buffer is full.
+     *
+     * @param entry The entry to append
+     */
+
+    public void append(String entry) {
+
+        while (!entries.offer(entry)) {
+
+            if (null != entries.poll()) {
+
+                dropped.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Removes all buffered entries.
+     *
+     * @return Returns the removed entries in the order they were appended
+     */
+
+    public List<String> drain() {
+
+        List<String> drained = new ArrayList<>(entries.size());
+
+        entries.drainTo(drained);
+        return drained;
+    }
+
+    /**
+     * Determines the number of entries dropped because of a full buffer.
+     *
+     * @return Returns the number of dropped entries
+     */
+
+    public long getDropped() {
+
+        return dropped.get();
+    }
+}
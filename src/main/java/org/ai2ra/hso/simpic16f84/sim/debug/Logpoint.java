@@ -0,0 +1,96 @@
+package org.ai2ra.hso.simpic16f84.sim.debug;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Message template of a logpoint. Expressions enclosed in braces are replaced by their
+ * current value, e.g. <code>cnt = {ram[0x0D]}, W = {W:x}</code>. Values are printed in
+ * decimal or, using the <code>:x</code> suffix, in hexadecimal. The template is parsed
+ * and its expressions are compiled once, formatting a snapshot just evaluates them.
+ *
+ * @author 0x1C1B
+ * @see ExpressionCompiler
+ */
+
+public class Logpoint {
+
+    private final String template;
+    private final String[] texts;
+    private final Expression[] expressions;
+    private final boolean[] hexadecimal;
+
+    /**
+     * Compiles a message template.
+     *
+     * @param template The message template
+     * @param compiler The compiler used for the embedded expressions
+     * @throws IllegalArgumentException Thrown if the template or an expression is malformed
+     */
+
+    public Logpoint(String template, ExpressionCompiler compiler) throws IllegalArgumentException {
+
+        List<String> texts = new ArrayList<>();
+        List<Expression> expressions = new ArrayList<>();
+        List<Boolean> hexadecimal = new ArrayList<>();
+        int position = 0;
+        int open;
+
+        while (-1 != (open = template.indexOf('{', position))) {
+
+            int close = template.indexOf('}', open);
+
+            if (-1 == close) {
+
+                throw new IllegalArgumentException(String.format("Unclosed '{' at position %d", open));
+            }
+
+            String source = template.substring(open + 1, close);
+            boolean hex = source.endsWith(":x");
+
+            texts.add(template.substring(position, open));
+            expressions.add(compiler.compile(hex ? source.substring(0, source.length() - 2) : source));
+            hexadecimal.add(hex);
+
+            position = close + 1;
+        }
+
+        texts.add(template.substring(position));
+
+        this.template = template;
+        this.texts = texts.toArray(new String[0]);
+        this.expressions = expressions.toArray(new Expression[0]);
+        this.hexadecimal = new boolean[hexadecimal.size()];
+
+        for (int index = 0; index < this.hexadecimal.length; ++index) {
+
+            this.hexadecimal[index] = hexadecimal.get(index);
+        }
+    }
+
+    public String getTemplate() {
+
+        return template;
+    }
+
+    /**
+     * Formats the message using the current state of the simulator.
+     *
+     * @return Returns the formatted message
+     */
+
+    public String format() {
+
+        StringBuilder message = new StringBuilder(texts[0]);
+
+        for (int index = 0; index < expressions.length; ++index) {
+
+            long value = expressions[index].evaluate();
+
+            message.append(hexadecimal[index] ? String.format("0x%02X", value) : Long.toString(value));
+            message.append(texts[index + 1]);
+        }
+
+        return message.toString();
+    }
+}
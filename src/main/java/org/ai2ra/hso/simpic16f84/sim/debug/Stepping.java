@@ -0,0 +1,76 @@
+package org.ai2ra.hso.simpic16f84.sim.debug;
+
+import org.ai2ra.hso.simpic16f84.sim.Pic16F84VM;
+
+import java.util.function.IntPredicate;
+
+/**
+ * Factory for temporary stop conditions used for stepping through a program. A stop
+ * condition is tested by the executing thread after every instruction with the address
+ * of the next instruction, like a breakpoint. In contrast to single steps, the execution
+ * isn't interrupted between the instructions of a step.
+ *
+ * <p>
+ *     Stop conditions depend on the state of the simulator at the time they're created,
+ *     so they have to be created right before continuing the execution. If the simulator
+ *     isn't running yet, the execution starts with an empty stack.
+ * </p>
+ *
+ * @author 0x1C1B
+ */
+
+public final class Stepping {
+
+    private Stepping() {
+
+    }
+
+    /**
+     * Creates a condition stopping as soon as the given address is reached.
+     *
+     * @param target The program memory address to run to
+     * @return Returns the stop condition
+     */
+
+    public static IntPredicate runTo(int target) {
+
+        return address -> target == address;
+    }
+
+    /**
+     * Creates a condition stopping after the next instruction. If the instruction calls a
+     * subroutine, the execution stops not until the subroutine returned, meaning the stack
+     * depth dropped back to the current one. The same applies to interrupts occurring
+     * meanwhile.
+     *
+     * @param simulator The simulator that is stepped through
+     * @return Returns the stop condition
+     */
+
+    public static IntPredicate stepOver(Pic16F84VM simulator) {
+
+        int depth = depthOf(simulator);
+        return address -> depth >= simulator.getStackDepth();
+    }
+
+    /**
+     * Creates a condition stopping as soon as the current subroutine returned, meaning
+     * the stack depth dropped below the current one.
+     *
+     * @param simulator The simulator that is stepped through
+     * @return Returns the stop condition
+     */
+
+    public static IntPredicate stepOut(Pic16F84VM simulator) {
+
+        int depth = depthOf(simulator);
+        return address -> depth > simulator.getStackDepth();
+    }
+
+    private static int depthOf(Pic16F84VM simulator) {
+
+        // Starting the execution resets the stack, the current content is outdated
+
+        return simulator.isRunning() ? simulator.getStackDepth() : 0;
+    }
+}
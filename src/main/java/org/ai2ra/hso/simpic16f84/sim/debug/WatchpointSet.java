@@ -0,0 +1,221 @@
+package org.ai2ra.hso.simpic16f84.sim.debug;
+
+import org.ai2ra.hso.simpic16f84.sim.mem.EepromMemory;
+import org.ai2ra.hso.simpic16f84.sim.mem.RamMemory;
+import org.apache.log4j.Logger;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Set of data watchpoints halting the execution if a RAM or EEPROM location is written.
+ * Watched locations are flagged inside of the memory itself, the write path only checks
+ * the flag of the written location and latches the hit. Writing other locations isn't
+ * slowed down by watching a location, unless no location is watched at all, the flag
+ * isn't even looked up.
+ *
+ * <p>
+ *     Every watchpoint might have a condition, e.g. comparing the written location with a
+ *     value. Conditions are evaluated after the writing instruction was executed, so they
+ *     see the written value. RAM addresses are given in the combined address space of both
+ *     banks, mapped locations are the same watchpoint in both banks. Indirect writes using
+ *     <code>INDF</code> are caught at the location addressed by <code>FSR</code>.
+ * </p>
+ *
+ * @author 0x1C1B
+ * @see RamMemory#setWatched(int, boolean)
+ * @see EepromMemory#setWatched(int, boolean)
+ */
+
+public class WatchpointSet {
+
+    private static final Logger LOGGER;
+
+    private final RamMemory<?> ram;
+    private final EepromMemory<?> eeprom;
+    /** Conditions indexed by physical location, <code>null</code> for unconditional watchpoints. */
+    private final AtomicReferenceArray<Expression> ramConditions;
+    private final AtomicReferenceArray<Expression> eepromConditions;
+    /** Indicates that a watchpoint was triggered since the last rearm. */
+    private boolean triggered;
+
+    static {
+
+        LOGGER = Logger.getLogger(WatchpointSet.class);
+    }
+
+    public WatchpointSet(RamMemory<?> ram, EepromMemory<?> eeprom) {
+
+        this.ram = ram;
+        this.eeprom = eeprom;
+        this.ramConditions = new AtomicReferenceArray<>(2 * RamMemory.BANK_SIZE);
+        this.eepromConditions = new AtomicReferenceArray<>(eeprom.getSize());
+    }
+
+    /**
+     * Watches a RAM location. Watching an already watched location replaces its condition.
+     *
+     * @param address The address in the combined address space of both banks
+     * @param condition The condition or <code>null</code> for an unconditional watchpoint
+     * @throws IllegalArgumentException Thrown if the address is outside of the RAM or is
+     *                                  the not physically implemented <code>INDF</code>
+     */
+
+    public void watchRam(int address, Expression condition) throws IllegalArgumentException {
+
+        int location = checkRamAddress(address);
+
+        // Condition is attached before watching, so the first hit can't miss it
+
+        ramConditions.set(location, condition);
+        ram.setWatched(location, true);
+    }
+
+    /**
+     * Removes the watchpoint of a RAM location, if any.
+     *
+     * @param address The address in the combined address space of both banks
+     * @throws IllegalArgumentException Thrown if the address is outside of the RAM
+     */
+
+    public void unwatchRam(int address) throws IllegalArgumentException {
+
+        int location = checkRamAddress(address);
+
+        ram.setWatched(location, false);
+        ramConditions.set(location, null);
+    }
+
+    /**
+     * Watches an EEPROM location. Watching an already watched location replaces its condition.
+     *
+     * @param address The EEPROM address
+     * @param condition The condition or <code>null</code> for an unconditional watchpoint
+     * @throws IllegalArgumentException Thrown if the address is outside of the EEPROM
+     */
+
+    public void watchEeprom(int address, Expression condition) throws IllegalArgumentException {
+
+        checkEepromAddress(address);
+
+        eepromConditions.set(address, condition);
+        eeprom.setWatched(address, true);
+    }
+
+    /**
+     * Removes the watchpoint of an EEPROM location, if any.
+     *
+     * @param address The EEPROM address
+     * @throws IllegalArgumentException Thrown if the address is outside of the EEPROM
+     */
+
+    public void unwatchEeprom(int address) throws IllegalArgumentException {
+
+        checkEepromAddress(address);
+
+        eeprom.setWatched(address, false);
+        eepromConditions.set(address, null);
+    }
+
+    /**
+     * Removes all watchpoints.
+     */
+
+    public void clear() {
+
+        for (int location = 0; location < ramConditions.length(); ++location) {
+
+            ram.setWatched(location, false);
+            ramConditions.set(location, null);
+        }
+
+        for (int address = 0; address < eepromConditions.length(); ++address) {
+
+            eeprom.setWatched(address, false);
+            eepromConditions.set(address, null);
+        }
+
+        rearm();
+    }
+
+    /**
+     * Determines if the execution should halt because of a watchpoint. That's the case if
+     * a watched location was written and its condition, if any, is true. Once triggered,
+     * the watchpoints stay triggered until rearmed. Intended to be called by the executing
+     * thread after every instruction, checking is cheap as long as no watched location
+     * was written.
+     *
+     * @return Returns true if a watchpoint was triggered, otherwise false
+     */
+
+    public boolean test() {
+
+        int location;
+
+        while (-1 != (location = ram.pollWatchHit())) {
+
+            if (holds(ramConditions.get(location))) {
+
+                trigger(String.format("RAM 0x%02X", location));
+            }
+        }
+
+        while (-1 != (location = eeprom.pollWatchHit())) {
+
+            if (holds(eepromConditions.get(location))) {
+
+                trigger(String.format("EEPROM 0x%02X", location));
+            }
+        }
+
+        return triggered;
+    }
+
+    /**
+     * Discards the triggered state as well as writes that weren't checked yet, e.g. while
+     * executing single steps. Should be called before continuing the execution.
+     */
+
+    public void rearm() {
+
+        while (-1 != ram.pollWatchHit()) ;
+        while (-1 != eeprom.pollWatchHit()) ;
+
+        triggered = false;
+    }
+
+    private void trigger(String location) {
+
+        LOGGER.info(String.format("Watchpoint of %s triggered", location));
+        triggered = true;
+    }
+
+    private static boolean holds(Expression condition) {
+
+        return null == condition || 0 != condition.evaluate();
+    }
+
+    private static int checkRamAddress(int address) throws IllegalArgumentException {
+
+        if (0 > address || 2 * RamMemory.BANK_SIZE <= address) {
+
+            throw new IllegalArgumentException("Address is outside of RAM");
+        }
+
+        int location = RamMemory.physicalAddress(address);
+
+        if (RamMemory.SFR.INDF.getAddress() == location) {
+
+            throw new IllegalArgumentException("INDF isn't physically implemented");
+        }
+
+        return location;
+    }
+
+    private void checkEepromAddress(int address) throws IllegalArgumentException {
+
+        if (0 > address || eepromConditions.length() <= address) {
+
+            throw new IllegalArgumentException("Address is outside of EEPROM");
+        }
+    }
+}
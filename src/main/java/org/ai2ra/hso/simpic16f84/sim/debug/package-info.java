@@ -0,0 +1,6 @@
+/**
+ * Debugging utilities of the Pic16F84 simulator. These are evaluated by the executing
+ * thread for every instruction, so they're designed for constant time checks.
+ */
+
+package org.ai2ra.hso.simpic16f84.sim.debug;
@@ -21,11 +21,23 @@ public class EepromMemory<T> implements ObservableMemory<T> {
     private T[] memory;
     private PropertyChangeSupport changes;
     private ReadWriteLock lock;
+    private long[] reads;
+    private long[] writes;
+    private boolean counting;
+    /** Watched locations and the ones written since the last poll. */
+    private boolean[] watched;
+    private boolean[] watchHits;
+    private boolean watching;
+    private volatile boolean watchHit;
 
     @SuppressWarnings("unchecked")
     public EepromMemory(int size) {
 
         this.memory = (T[]) new Object[size];
+        this.reads = new long[size];
+        this.writes = new long[size];
+        this.watched = new boolean[size];
+        this.watchHits = new boolean[size];
         changes = new PropertyChangeSupport(this);
         lock = new ReentrantReadWriteLock();
 
@@ -65,6 +77,16 @@ public class EepromMemory<T> implements ObservableMemory<T> {
 
     }
 
+    /**
+     * Returns the stored value at the given address without counting the read, so
+     * observers can read concurrently without affecting the access counters.
+     *
+     * @param address The memory address
+     * @return The value stored at the given address
+     * @throws MemoryIndexOutOfBoundsException Thrown if address is outside of memory range
+     * @see EepromMemory#read(int)
+     */
+
     @Override
     public T get(int address) throws MemoryIndexOutOfBoundsException {
 
@@ -72,7 +94,7 @@ public class EepromMemory<T> implements ObservableMemory<T> {
 
         try {
 
-            if (memory.length == 0 || address > memory.length || address < 0) {
+            if (memory.length == 0 || address >= memory.length || address < 0) {
 
                 throw new MemoryIndexOutOfBoundsException();
             }
@@ -86,21 +108,71 @@ public class EepromMemory<T> implements ObservableMemory<T> {
         }
     }
 
+    /**
+     * Reads the stored value at the given address. If access counting is enabled, the
+     * read is counted. Intended for the execution unit only, counted reads are
+     * serialized with the writes.
+     *
+     * @param address The memory address
+     * @return The value stored at the given address
+     * @throws MemoryIndexOutOfBoundsException Thrown if address is outside of memory range
+     * @see EepromMemory#setAccessCounting(boolean)
+     */
+
+    public T read(int address) throws MemoryIndexOutOfBoundsException {
+
+        lock.writeLock().lock();
+
+        try {
+
+            if (memory.length == 0 || address >= memory.length || address < 0) {
+
+                throw new MemoryIndexOutOfBoundsException();
+            }
+
+            if (counting) {
+
+                ++reads[address];
+            }
+
+            return memory[address];
+
+        }finally {
+
+            lock.writeLock().unlock();
+
+        }
+    }
+
     public void set(int address, T toSet) {
 
         lock.writeLock().lock();
 
         try {
 
-            if (memory.length == 0 || address > memory.length || address < 0) {
+            if (memory.length == 0 || address >= memory.length || address < 0) {
 
                 throw new MemoryIndexOutOfBoundsException();
 
             } else {
+                if (counting) {
+
+                    ++writes[address];
+                }
+
+                if (watching && watched[address]) {
+
+                    watchHits[address] = true;
+                    watchHit = true;
+                }
+
                 T beforeSet = memory[address];
                 this.memory[address] = toSet;
-                changes.fireIndexedPropertyChange("memory",
-                        address, beforeSet, toSet);
+                if (changes.hasListeners(null)) {
+
+                    changes.fireIndexedPropertyChange("memory",
+                            address, beforeSet, toSet);
+                }
 
             }
         }finally {
@@ -109,6 +181,182 @@ public class EepromMemory<T> implements ObservableMemory<T> {
 
         }
     }
-}
 
+    /**
+     * Enables or disables counting the reads and writes per location. Counting is
+     * disabled by default, the counters keep their values while disabled.
+     *
+     * @param counting True for enabling access counting, otherwise false
+     */
+
+    public void setAccessCounting(boolean counting) {
+
+        lock.writeLock().lock();
+
+        try {
+
+            this.counting = counting;
+
+        } finally {
+
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isAccessCounting() {
+
+        lock.readLock().lock();
+
+        try {
+
+            return counting;
+
+        } finally {
+
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long getReadCount(int address) throws MemoryIndexOutOfBoundsException {
+
+        if (0 > address || reads.length <= address) {
+
+            throw new MemoryIndexOutOfBoundsException();
+        }
+
+        return reads[address];
+    }
+
+    @Override
+    public long getWriteCount(int address) throws MemoryIndexOutOfBoundsException {
 
+        if (0 > address || writes.length <= address) {
+
+            throw new MemoryIndexOutOfBoundsException();
+        }
+
+        return writes[address];
+    }
+
+    /**
+     * Clears the read and write counters of all locations.
+     */
+
+    public void resetAccessCounts() {
+
+        lock.writeLock().lock();
+
+        try {
+
+            Arrays.fill(reads, 0);
+            Arrays.fill(writes, 0);
+
+        } finally {
+
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Determines the number of locations.
+     *
+     * @return Returns the size of the memory
+     */
+
+    public int getSize() {
+
+        return memory.length;
+    }
+
+    /**
+     * Watches or unwatches a single location. Writing a watched location is latched until
+     * it's polled using {@link EepromMemory#pollWatchHit()}, independent of the written value.
+     *
+     * @param address The memory address
+     * @param watched True for watching the location, otherwise false
+     * @throws MemoryIndexOutOfBoundsException Thrown if address is outside of memory range
+     */
+
+    public void setWatched(int address, boolean watched) throws MemoryIndexOutOfBoundsException {
+
+        lock.writeLock().lock();
+
+        try {
+
+            if (0 > address || memory.length <= address) {
+
+                throw new MemoryIndexOutOfBoundsException();
+            }
+
+            this.watched[address] = watched;
+            this.watchHits[address] = false;
+
+            watching = false;
+
+            for (boolean flag : this.watched) {
+
+                watching |= flag;
+            }
+
+        } finally {
+
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isWatched(int address) throws MemoryIndexOutOfBoundsException {
+
+        lock.readLock().lock();
+
+        try {
+
+            if (0 > address || memory.length <= address) {
+
+                throw new MemoryIndexOutOfBoundsException();
+            }
+
+            return watched[address];
+
+        } finally {
+
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Polls a watched location that was written since the last poll. Polling is cheap
+     * as long as no watched location was written.
+     *
+     * @return Returns the address of the written location or -1 if there's none
+     */
+
+    public int pollWatchHit() {
+
+        if (!watchHit) {
+
+            return -1;
+        }
+
+        lock.writeLock().lock();
+
+        try {
+
+            for (int address = 0; address < watchHits.length; ++address) {
+
+                if (watchHits[address]) {
+
+                    watchHits[address] = false;
+                    return address;
+                }
+            }
+
+            watchHit = false;
+            return -1;
+
+        } finally {
+
+            lock.writeLock().unlock();
+        }
+    }
+}
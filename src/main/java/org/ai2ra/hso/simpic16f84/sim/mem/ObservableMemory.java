@@ -19,7 +19,9 @@ public interface ObservableMemory<T> {
 
     /**
      * Returns the stored value inside of memory at a given address. If address
-     * doesn't exist, meaning is out of bounds, an exception is thrown.
+     * doesn't exist, meaning is out of bounds, an exception is thrown. Reads through
+     * this interface are never counted as accesses, observers don't affect the
+     * access counters.
      *
      * @param address The memory address
      * @return Returns the stored value at the given address
@@ -27,4 +29,32 @@ public interface ObservableMemory<T> {
      */
 
     T get(int address) throws MemoryIndexOutOfBoundsException;
+
+    /**
+     * Determines how often the location at the given address was read. Memory blocks
+     * without access counting always return zero.
+     *
+     * @param address The memory address
+     * @return Returns the number of counted reads
+     * @throws MemoryIndexOutOfBoundsException Thrown if address doesn't exists
+     */
+
+    default long getReadCount(int address) throws MemoryIndexOutOfBoundsException {
+
+        return 0;
+    }
+
+    /**
+     * Determines how often the location at the given address was written. Memory blocks
+     * without access counting always return zero.
+     *
+     * @param address The memory address
+     * @return Returns the number of counted writes
+     * @throws MemoryIndexOutOfBoundsException Thrown if address doesn't exists
+     */
+
+    default long getWriteCount(int address) throws MemoryIndexOutOfBoundsException {
+
+        return 0;
+    }
 }
@@ -68,7 +68,7 @@ public class ProgramMemory <T> implements ObservableMemory<T> {
 
         try {
 
-            if (memory.length == 0 || address > memory.length || address < 0) {
+            if (memory.length == 0 || address >= memory.length || address < 0) {
 
                 throw new MemoryIndexOutOfBoundsException();
 
@@ -89,15 +89,18 @@ public class ProgramMemory <T> implements ObservableMemory<T> {
 
         try {
 
-            if (memory.length == 0 || address > memory.length || address < 0) {
+            if (memory.length == 0 || address >= memory.length || address < 0) {
 
                 throw new MemoryIndexOutOfBoundsException();
 
             } else {
                 T beforeSet = memory[address];
                 this.memory[address] = toSet;
-                changes.fireIndexedPropertyChange("memory",
-                        address, beforeSet, toSet);
+                if (changes.hasListeners(null)) {
+
+                    changes.fireIndexedPropertyChange("memory",
+                            address, beforeSet, toSet);
+                }
             }
 
         }finally {
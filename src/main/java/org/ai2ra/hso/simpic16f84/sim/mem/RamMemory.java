@@ -3,6 +3,9 @@ package org.ai2ra.hso.simpic16f84.sim.mem;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -45,10 +48,41 @@ public class RamMemory<T> implements ObservableMemory<T> {
         EECON1(Bank.BANK_1, 0x08, false),
         EECON2(Bank.BANK_1, 0x09, false);
 
+        /** Registers indexed by bank and address, mapped registers are contained in both banks. */
+        private static final SFR[][] LOOKUP;
+        /** Registers indexed by their upper case name. */
+        private static final Map<String, SFR> NAMES;
+
         private Bank bank;
         private int address;
         private boolean mapped;
 
+        static {
+
+            int size = 0;
+
+            for (SFR sfr : values()) {
+
+                size = Math.max(size, sfr.address + 1);
+            }
+
+            LOOKUP = new SFR[Bank.values().length][size];
+            NAMES = new HashMap<>();
+
+            for (SFR sfr : values()) {
+
+                for (Bank bank : Bank.values()) {
+
+                    if (sfr.mapped || sfr.bank.equals(bank)) {
+
+                        LOOKUP[bank.ordinal()][sfr.address] = sfr;
+                    }
+                }
+
+                NAMES.put(sfr.name(), sfr);
+            }
+        }
+
         SFR(Bank bank, int address, boolean mapped) {
 
             this.bank = bank;
@@ -71,28 +105,59 @@ public class RamMemory<T> implements ObservableMemory<T> {
             return mapped;
         }
 
-        public static SFR valueOf(Bank bank, int address) {
+        /**
+         * Determines the register located at an address, in constant time. The bank of
+         * mapped registers doesn't matter.
+         *
+         * @param bank The selected bank
+         * @param address The address inside of the bank
+         * @return Returns the register at the given location
+         * @throws IllegalArgumentException Thrown if there's no register at the given location
+         */
 
-            for (SFR sfr : values()) {
-
-                if (sfr.isMapped() && address == sfr.address) {
+        public static SFR valueOf(Bank bank, int address) throws IllegalArgumentException {
 
-                    return sfr; // Selected bank doesn't matter
+            SFR[] registers = LOOKUP[bank.ordinal()];
+            SFR sfr = 0 <= address && registers.length > address ? registers[address] : null;
 
-                } else if (sfr.bank.equals(bank) && address == sfr.address) {
+            if (null == sfr) {
 
-                    return sfr;
-                }
+                throw new IllegalArgumentException("No such address found");
             }
 
-            throw new IllegalArgumentException("No such address found");
+            return sfr;
+        }
+
+        /**
+         * Determines the register with the given name, ignoring the case.
+         *
+         * @param name The name of the register, e.g. <code>status</code>
+         * @return Returns the register or null if there's no such register
+         */
+
+        public static SFR forName(String name) {
+
+            return NAMES.get(name.toUpperCase(Locale.ROOT));
         }
     }
 
     public static final int BANK_SIZE;
+    /** Banks indexed by their ordinal, shared since {@link Bank#values()} copies the array. */
+    private static final Bank[] BANKS;
 
     private T[] bank0;
     private T[] bank1;
+    /** Registered write traps, indexed by the bank's ordinal times bank size plus address. */
+    private WriteTrap<T>[][] traps;
+    /** Access counters per physical location, mapped locations are counted at bank 0. */
+    private long[] reads;
+    private long[] writes;
+    private boolean counting;
+    /** Watched physical locations and the ones written since the last poll. */
+    private boolean[] watched;
+    private boolean[] watchHits;
+    private boolean watching;
+    private volatile boolean watchHit;
 
     private PropertyChangeSupport changes;
     private ReadWriteLock lock;
@@ -100,6 +165,7 @@ public class RamMemory<T> implements ObservableMemory<T> {
     static {
 
         BANK_SIZE = 128;
+        BANKS = Bank.values();
     }
 
     @SuppressWarnings("unchecked")
@@ -107,6 +173,11 @@ public class RamMemory<T> implements ObservableMemory<T> {
 
         this.bank0 = (T[]) new Object[BANK_SIZE];
         this.bank1 = (T[]) new Object[BANK_SIZE];
+        this.traps = (WriteTrap<T>[][]) new WriteTrap<?>[2 * BANK_SIZE][];
+        this.reads = new long[2 * BANK_SIZE];
+        this.writes = new long[2 * BANK_SIZE];
+        this.watched = new boolean[2 * BANK_SIZE];
+        this.watchHits = new boolean[2 * BANK_SIZE];
         this.changes = new PropertyChangeSupport(this);
         this.lock = new ReentrantReadWriteLock();
     }
@@ -171,7 +242,7 @@ public class RamMemory<T> implements ObservableMemory<T> {
 
             } else {
 
-                return bank1[address];
+                return bank1[address - bank0.length];
             }
 
         } finally {
@@ -180,7 +251,23 @@ public class RamMemory<T> implements ObservableMemory<T> {
         }
     }
 
-    public T get(Bank bank, int address) {
+    /**
+     * Reads a single location of the given bank. If access counting is enabled, the
+     * read is counted for the physical location.
+     *
+     * @param bank The selected bank
+     * @param address The address inside of the bank
+     * @return The value stored at the given location
+     * @throws MemoryIndexOutOfBoundsException Thrown if address is outside of memory range
+     * @see RamMemory#setAccessCounting(boolean)
+     */
+
+    public T get(Bank bank, int address) throws MemoryIndexOutOfBoundsException {
+
+        return get(bank, address, true);
+    }
+
+    private T get(Bank bank, int address, boolean counted) {
 
         lock.readLock().lock();
 
@@ -192,6 +279,11 @@ public class RamMemory<T> implements ObservableMemory<T> {
 
             }
 
+            if(counted && counting) {
+
+                ++reads[physical(bank, address)];
+            }
+
             if(bank.equals(Bank.BANK_0)) {
 
                 return bank0[address];
@@ -207,7 +299,23 @@ public class RamMemory<T> implements ObservableMemory<T> {
         }
     }
 
-    public void set(Bank bank, int address, T value) {
+    /**
+     * Writes a single location of the given bank, mapped locations are written in both
+     * banks. If access counting is enabled, the write is counted for the physical location.
+     *
+     * @param bank The selected bank
+     * @param address The address inside of the bank
+     * @param value The value that should be written
+     * @throws MemoryIndexOutOfBoundsException Thrown if address is outside of memory range
+     * @see RamMemory#setAccessCounting(boolean)
+     */
+
+    public void set(Bank bank, int address, T value) throws MemoryIndexOutOfBoundsException {
+
+        set(bank, address, value, true);
+    }
+
+    private void set(Bank bank, int address, T value, boolean counted) {
 
         lock.writeLock().lock();
 
@@ -216,8 +324,20 @@ public class RamMemory<T> implements ObservableMemory<T> {
             if(0 > address || BANK_SIZE <= address) {
 
                 throw new MemoryIndexOutOfBoundsException("Address isn't implemented");
+            }
+
+            if(counted && counting) {
 
-            } else if(0x0C > address) {
+                ++writes[physical(bank, address)];
+            }
+
+            if(watching && watched[physical(bank, address)]) {
+
+                watchHits[physical(bank, address)] = true;
+                watchHit = true;
+            }
+
+            if(0x0C > address) {
 
                 // Fill Special Function Registers and map them if required
 
@@ -240,11 +360,8 @@ public class RamMemory<T> implements ObservableMemory<T> {
                         bank0[address] = value;
                         bank1[address] = value;
 
-                        changes.fireIndexedPropertyChange("bank0",
-                                address, oldValue, value);
-
-                        changes.fireIndexedPropertyChange("bank1",
-                                address, oldValue, value);
+                        written(Bank.BANK_0, address, oldValue, value);
+                        written(Bank.BANK_1, address, oldValue, value);
 
                         break;
                     }
@@ -257,16 +374,14 @@ public class RamMemory<T> implements ObservableMemory<T> {
                             T oldValue = bank0[address];
                             bank0[address] = value;
 
-                            changes.fireIndexedPropertyChange("bank0",
-                                    address, oldValue, value);
+                            written(Bank.BANK_0, address, oldValue, value);
 
                         } else {
 
                             T oldValue = bank1[address];
                             bank1[address] = value;
 
-                            changes.fireIndexedPropertyChange("bank1",
-                                    address, oldValue, value);
+                            written(Bank.BANK_1, address, oldValue, value);
                         }
                         break;
                     }
@@ -289,11 +404,92 @@ public class RamMemory<T> implements ObservableMemory<T> {
                     bank0[address] = value; // Mapped to second bank
                 }
 
-                changes.fireIndexedPropertyChange("bank0",
-                        address, oldValue, value);
+                written(Bank.BANK_0, address, oldValue, value);
+                written(Bank.BANK_1, address, oldValue, value);
+            }
+
+        } finally {
+
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Registers a trap for a single location. The trap is invoked synchronously every
+     * time the location is written, even if the written value equals the previous one.
+     * For mapped registers, the trap is invoked independent of the selected bank. More
+     * than one trap per location is supported.
+     *
+     * @param bank The bank of the trapped location
+     * @param address The address of the trapped location inside of the bank
+     * @param trap The trap that should be registered
+     * @throws MemoryIndexOutOfBoundsException Thrown if address is outside of memory range
+     */
+
+    @SuppressWarnings("unchecked")
+    public void addWriteTrap(Bank bank, int address, WriteTrap<T> trap) throws MemoryIndexOutOfBoundsException {
+
+        lock.writeLock().lock();
+
+        try {
+
+            if(0 > address || BANK_SIZE <= address) {
+
+                throw new MemoryIndexOutOfBoundsException("Address isn't implemented");
+            }
+
+            int index = bank.ordinal() * BANK_SIZE + address;
+
+            // Registered traps are copied on write, this keeps writing the memory allocation free
+
+            if(null == traps[index]) {
+
+                traps[index] = (WriteTrap<T>[]) new WriteTrap<?>[]{trap};
+
+            } else {
+
+                WriteTrap<T>[] registered = Arrays.copyOf(traps[index], traps[index].length + 1);
+                registered[registered.length - 1] = trap;
+
+                traps[index] = registered;
+            }
+
+        } finally {
+
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a previously registered trap from a single location.
+     *
+     * @param bank The bank of the trapped location
+     * @param address The address of the trapped location inside of the bank
+     * @param trap The trap that should be removed
+     * @throws MemoryIndexOutOfBoundsException Thrown if address is outside of memory range
+     */
+
+    @SuppressWarnings("unchecked")
+    public void removeWriteTrap(Bank bank, int address, WriteTrap<T> trap) throws MemoryIndexOutOfBoundsException {
+
+        lock.writeLock().lock();
+
+        try {
+
+            if(0 > address || BANK_SIZE <= address) {
+
+                throw new MemoryIndexOutOfBoundsException("Address isn't implemented");
+            }
+
+            int index = bank.ordinal() * BANK_SIZE + address;
 
-                changes.fireIndexedPropertyChange("bank1",
-                        address, oldValue, value);
+            if(null != traps[index]) {
+
+                WriteTrap<T>[] remaining = (WriteTrap<T>[]) Arrays.stream(traps[index])
+                        .filter(registered -> registered != trap)
+                        .toArray(WriteTrap<?>[]::new);
+
+                traps[index] = 0 == remaining.length ? null : remaining;
             }
 
         } finally {
@@ -302,13 +498,297 @@ public class RamMemory<T> implements ObservableMemory<T> {
         }
     }
 
+    /**
+     * Notifies the registered listeners and traps about a written location. Events are
+     * only created if at least one listener is registered, this keeps the unobserved
+     * execution flow allocation free.
+     *
+     * @param bank The bank of the written location
+     * @param address The address of the written location inside of the bank
+     * @param oldValue The value before writing the location
+     * @param newValue The written value
+     */
+
+    private void written(Bank bank, int address, T oldValue, T newValue) {
+
+        if(changes.hasListeners(null)) {
+
+            changes.fireIndexedPropertyChange(Bank.BANK_0.equals(bank) ? "bank0" : "bank1",
+                    address, oldValue, newValue);
+        }
+
+        WriteTrap<T>[] registered = traps[bank.ordinal() * BANK_SIZE + address];
+
+        if(null != registered) {
+
+            for(WriteTrap<T> trap : registered) {
+
+                trap.written(bank, address, oldValue, newValue);
+            }
+        }
+    }
+
+    /**
+     * Writes a Special Function Register. This is intended for the hardware emulation,
+     * e.g. updating status flags, so the write isn't counted as access.
+     *
+     * @param sfr The written register
+     * @param value The value that should be written
+     */
+
     public void set(SFR sfr, T value) {
 
-        set(sfr.getBank(), sfr.getAddress(), value);
+        set(sfr.getBank(), sfr.getAddress(), value, false);
     }
 
+    /**
+     * Reads a Special Function Register. This is intended for the hardware emulation,
+     * e.g. checking interrupt flags, so the read isn't counted as access.
+     *
+     * @param sfr The read register
+     * @return The value of the register
+     */
+
     public T get(SFR sfr) {
 
-        return get(sfr.getBank(), sfr.getAddress());
+        return get(sfr.getBank(), sfr.getAddress(), false);
+    }
+
+    /**
+     * Enables or disables counting the reads and writes per physical location. Only
+     * accesses addressing a bank explicitly, as done by the executed instructions, are
+     * counted. Accesses of the hardware emulation through {@link SFR} aren't counted.
+     * Counting is disabled by default, the counters keep their values while disabled.
+     *
+     * @param counting True for enabling access counting, otherwise false
+     */
+
+    public void setAccessCounting(boolean counting) {
+
+        lock.writeLock().lock();
+
+        try {
+
+            this.counting = counting;
+
+        } finally {
+
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isAccessCounting() {
+
+        lock.readLock().lock();
+
+        try {
+
+            return counting;
+
+        } finally {
+
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Determines how often a location was read. The counters are written without
+     * synchronization by the executing thread, concurrently read values might be slightly
+     * outdated. Like with {@link RamMemory#get(int)} the address space of both banks is
+     * combined, mapped locations return the same counter in both banks.
+     *
+     * @param address The memory address
+     * @return Returns the number of counted reads
+     * @throws MemoryIndexOutOfBoundsException Thrown if address is outside of memory range
+     */
+
+    @Override
+    public long getReadCount(int address) throws MemoryIndexOutOfBoundsException {
+
+        if(0 > address || 2 * BANK_SIZE <= address) {
+
+            throw new MemoryIndexOutOfBoundsException("Address isn't implemented");
+        }
+
+        return reads[physical(BANKS[address / BANK_SIZE], address % BANK_SIZE)];
+    }
+
+    /**
+     * Determines how often a location was written. Like with {@link RamMemory#get(int)}
+     * the address space of both banks is combined, mapped locations return the same
+     * counter in both banks.
+     *
+     * @param address The memory address
+     * @return Returns the number of counted writes
+     * @throws MemoryIndexOutOfBoundsException Thrown if address is outside of memory range
+     * @see RamMemory#getReadCount(int)
+     */
+
+    @Override
+    public long getWriteCount(int address) throws MemoryIndexOutOfBoundsException {
+
+        if(0 > address || 2 * BANK_SIZE <= address) {
+
+            throw new MemoryIndexOutOfBoundsException("Address isn't implemented");
+        }
+
+        return writes[physical(BANKS[address / BANK_SIZE], address % BANK_SIZE)];
+    }
+
+    /**
+     * Clears the read and write counters of all locations.
+     */
+
+    public void resetAccessCounts() {
+
+        lock.writeLock().lock();
+
+        try {
+
+            Arrays.fill(reads, 0);
+            Arrays.fill(writes, 0);
+
+        } finally {
+
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Watches or unwatches a single location. Writing a watched location is latched until
+     * it's polled using {@link RamMemory#pollWatchHit()}, independent of the written value
+     * and the writing instruction, this includes indirect writes. Like with
+     * {@link RamMemory#get(int)} the address space of both banks is combined, mapped
+     * locations are watched in both banks.
+     *
+     * @param address The memory address
+     * @param watched True for watching the location, otherwise false
+     * @throws MemoryIndexOutOfBoundsException Thrown if address is outside of memory range
+     */
+
+    public void setWatched(int address, boolean watched) throws MemoryIndexOutOfBoundsException {
+
+        lock.writeLock().lock();
+
+        try {
+
+            int location = physicalAddress(address);
+
+            this.watched[location] = watched;
+            this.watchHits[location] = false;
+
+            // Unwatched memory doesn't even lookup the written location
+
+            watching = false;
+
+            for(boolean flag : this.watched) {
+
+                watching |= flag;
+            }
+
+        } finally {
+
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isWatched(int address) throws MemoryIndexOutOfBoundsException {
+
+        lock.readLock().lock();
+
+        try {
+
+            return watched[physicalAddress(address)];
+
+        } finally {
+
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Polls a watched location that was written since the last poll. Polling is cheap
+     * as long as no watched location was written.
+     *
+     * @return Returns the physical address of the written location or -1 if there's none
+     * @see RamMemory#physicalAddress(int)
+     */
+
+    public int pollWatchHit() {
+
+        if(!watchHit) {
+
+            return -1;
+        }
+
+        lock.writeLock().lock();
+
+        try {
+
+            for(int location = 0; location < watchHits.length; ++location) {
+
+                if(watchHits[location]) {
+
+                    watchHits[location] = false;
+                    return location;
+                }
+            }
+
+            watchHit = false;
+            return -1;
+
+        } finally {
+
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Determines the physical location of an address in the combined address space.
+     * General Purpose Registers and mapped Special Function Registers exist only once
+     * physically, they're located at bank 0.
+     *
+     * @param address The memory address
+     * @return Returns the physical address, again in the combined address space
+     * @throws MemoryIndexOutOfBoundsException Thrown if address is outside of memory range
+     */
+
+    public static int physicalAddress(int address) throws MemoryIndexOutOfBoundsException {
+
+        if(0 > address || 2 * BANK_SIZE <= address) {
+
+            throw new MemoryIndexOutOfBoundsException("Address isn't implemented");
+        }
+
+        return physical(BANKS[address / BANK_SIZE], address % BANK_SIZE);
+    }
+
+    /**
+     * Determines the counter index of a location. General Purpose Registers and mapped
+     * Special Function Registers exist only once physically, they're counted at bank 0.
+     *
+     * @param bank The bank of the location
+     * @param address The address of the location inside of the bank
+     * @return Returns the index of the physical location
+     */
+
+    private static int physical(Bank bank, int address) {
+
+        switch(address) {
+
+            case 0x00: // INDF
+            case 0x02: // PCL
+            case 0x03: // STATUS
+            case 0x04: // FSR
+            case 0x0A: // PCLATH
+            case 0x0B: { // INTCON
+
+                return address;
+            }
+            default: {
+
+                return 0x0C > address ? bank.ordinal() * BANK_SIZE + address : address;
+            }
+        }
     }
 }
@@ -108,8 +108,13 @@ public class StackMemory<T> implements ObservableMemory<T> {
 
             memory[++pointer] = value;
 
-            changes.fireIndexedPropertyChange("memory",
-                    pointer, null, value);
+            // Events are only created if observed, this keeps pushing allocation free
+
+            if(changes.hasListeners(null)) {
+
+                changes.fireIndexedPropertyChange("memory",
+                        pointer, null, value);
+            }
 
         } finally {
 
@@ -137,8 +142,11 @@ public class StackMemory<T> implements ObservableMemory<T> {
                 throw new MemoryIndexOutOfBoundsException("Stack underflow detected, stack is empty");
             }
 
-            changes.fireIndexedPropertyChange("memory",
-                    pointer, memory[pointer], null);
+            if(changes.hasListeners(null)) {
+
+                changes.fireIndexedPropertyChange("memory",
+                        pointer, memory[pointer], null);
+            }
 
             return memory[pointer--];
 
@@ -175,6 +183,50 @@ public class StackMemory<T> implements ObservableMemory<T> {
         }
     }
 
+    /**
+     * Copies the current content of the stack, from bottom to top, into the given array.
+     * This allows a consistent view of the stack from a different thread.
+     *
+     * @param destination The array the elements are copied into, must be at least as large as the stack
+     * @return Returns the number of copied elements, implicitly the current stack depth
+     */
+
+    public int snapshot(T[] destination) {
+
+        lock.readLock().lock();
+
+        try {
+
+            System.arraycopy(memory, 0, destination, 0, pointer + 1);
+            return pointer + 1;
+
+        } finally {
+
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Determines the number of stored elements, implicitly the current nesting depth of
+     * calls and interrupts.
+     *
+     * @return Returns the number of stored elements
+     */
+
+    public int getDepth() {
+
+        lock.readLock().lock();
+
+        try {
+
+            return pointer + 1;
+
+        } finally {
+
+            lock.readLock().unlock();
+        }
+    }
+
     /**
      * Determines if the limited stack is full. For preventing a stack overflow
      * this method could be used for checking the bounds.
@@ -0,0 +1,28 @@
+package org.ai2ra.hso.simpic16f84.sim.mem;
+
+/**
+ * Callback invoked synchronously whenever a trapped RAM location is written. In
+ * contrast to a property change listener, a trap is registered for a single location
+ * and is even invoked if the written value doesn't differ from the previous one. This
+ * allows emulating hardware side effects, e.g. starting an EEPROM access by writing
+ * the EECON1 register, without observing the whole memory.
+ *
+ * @author 0x1C1B
+ * @param <T> Type of data that is stored inside of the memory
+ * @see RamMemory#addWriteTrap(RamMemory.Bank, int, WriteTrap)
+ */
+
+@FunctionalInterface
+public interface WriteTrap<T> {
+
+    /**
+     * Invoked after the trapped location was written.
+     *
+     * @param bank The bank of the written location
+     * @param address The address of the written location inside of the bank
+     * @param oldValue The value before writing the location
+     * @param newValue The written value
+     */
+
+    void written(RamMemory.Bank bank, int address, T oldValue, T newValue);
+}
@@ -0,0 +1,143 @@
+package org.ai2ra.hso.simpic16f84.sim.prof;
+
+import org.ai2ra.hso.simpic16f84.sim.vm.Instruction;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Profiler that records per program memory address how often the instruction
+ * was executed and how many cycles it consumed. The counters are stored inside of
+ * primitive arrays indexed by the address, so recording an instruction is
+ * nothing more than two array increments.
+ *
+ * <p>
+ *     The counters are written by the executing thread without synchronization.
+ *     Reading them concurrently, e.g. for visualization, is fine but may return
+ *     slightly outdated values.
+ * </p>
+ *
+ * @author 0x1C1B
+ * @see ExecutionProfiler
+ */
+
+public class AddressProfiler implements ExecutionProfiler {
+
+    /** Size of the addressable program memory (13-bit address space). */
+    public static final int ADDRESS_SPACE = 1 << 13;
+
+    private final long[] hits;
+    private final long[] cycles;
+
+    public AddressProfiler() {
+
+        this.hits = new long[ADDRESS_SPACE];
+        this.cycles = new long[ADDRESS_SPACE];
+    }
+
+    @Override
+    public void executed(int address, Instruction instruction, int cycles) {
+
+        record(address, cycles);
+    }
+
+    /**
+     * Records a single hit of the given address.
+     *
+     * @param address The program memory address
+     * @param cycles The number of cycles attributed to the hit
+     */
+
+    public void record(int address, long cycles) {
+
+        int index = address & (ADDRESS_SPACE - 1);
+
+        ++this.hits[index];
+        this.cycles[index] += cycles;
+    }
+
+    /**
+     * Determines how often the instruction at the given address was executed.
+     *
+     * @param address The program memory address
+     * @return Returns the number of executions
+     */
+
+    public long getHits(int address) {
+
+        return hits[address & (ADDRESS_SPACE - 1)];
+    }
+
+    /**
+     * Determines how many cycles the instruction at the given address consumed in total.
+     *
+     * @param address The program memory address
+     * @return Returns the number of consumed cycles
+     */
+
+    public long getCycles(int address) {
+
+        return cycles[address & (ADDRESS_SPACE - 1)];
+    }
+
+    /**
+     * Returns a snapshot of the consumed cycles of all addresses.
+     *
+     * @return Returns a copy of the cycle counters, indexed by address
+     */
+
+    public long[] getCycles() {
+
+        return Arrays.copyOf(cycles, cycles.length);
+    }
+
+    /**
+     * Sums up the consumed cycles of all addresses.
+     *
+     * @return Returns the total number of recorded cycles
+     */
+
+    public long getTotalCycles() {
+
+        return Arrays.stream(cycles).sum();
+    }
+
+    /**
+     * Clears all recorded counters.
+     */
+
+    public void reset() {
+
+        Arrays.fill(hits, 0);
+        Arrays.fill(cycles, 0);
+    }
+
+    /**
+     * Exports the recorded counters in CSV format. Each executed address is written
+     * as one row containing the address, the number of executions, the consumed cycles
+     * and the cycles share in percent. Addresses that were never executed are omitted.
+     *
+     * @param writer The writer the profile is written to
+     * @throws IOException Thrown if writing fails
+     */
+
+    public void export(Writer writer) throws IOException {
+
+        long total = getTotalCycles();
+
+        writer.write("address,hits,cycles,share\n");
+
+        for (int address = 0; address < ADDRESS_SPACE; ++address) {
+
+            if (0 < hits[address]) {
+
+                writer.write(String.format(Locale.ROOT, "0x%04X,%d,%d,%.2f\n", address, hits[address],
+                        cycles[address], 100.0 * cycles[address] / total));
+            }
+        }
+
+        writer.flush();
+    }
+}
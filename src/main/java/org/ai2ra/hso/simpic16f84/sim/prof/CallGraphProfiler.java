@@ -0,0 +1,219 @@
+package org.ai2ra.hso.simpic16f84.sim.prof;
+
+import org.ai2ra.hso.simpic16f84.sim.vm.Instruction;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.SortedSet;
+
+/**
+ * Subroutine level profiler that attributes consumed cycles to the called routines.
+ * The profiler follows the execution flow using a shadow call tree, every
+ * <code>CALL</code> and every interrupt descends into the called routine while
+ * <code>RETURN</code>, <code>RETLW</code> and <code>RETFIE</code> ascend to the caller.
+ * The root of the tree is the program entry at the reset vector.
+ *
+ * <p>
+ *     Cycles are recorded exclusively, for the routine currently executing. Inclusive
+ *     cycles, including the called routines, are derived from the call tree on demand.
+ *     Routines are identified by their entry address, if labels are provided they are
+ *     used as routine names.
+ * </p>
+ *
+ * <pre>{@code
+ * CallGraphProfiler profiler = new CallGraphProfiler();
+ * profiler.setLabels(simulator.getLabels());
+ * simulator.addProfiler(profiler);
+ * ...
+ * profiler.export(writer); // Writes flame graph compatible folded stacks
+ * }</pre>
+ *
+ * @author 0x1C1B
+ * @see ExecutionProfiler
+ */
+
+public class CallGraphProfiler implements ExecutionProfiler {
+
+    private final CallTree tree;
+    /** The frame of the currently executing routine. */
+    private CallTree.Frame current;
+    /** Indicates that the last instruction was a call, the next one is the routine's entry. */
+    private boolean calling;
+
+    public CallGraphProfiler() {
+
+        this.tree = new CallTree();
+        this.current = tree.getRoot();
+    }
+
+    /**
+     * Sets the labels used for naming the routines. Routines without label are named
+     * by their entry address.
+     *
+     * @param labels The labels indexed by address
+     */
+
+    public void setLabels(Map<Integer, String> labels) {
+
+        tree.setLabels(labels);
+    }
+
+    @Override
+    public void executed(int address, Instruction instruction, int cycles) {
+
+        if (calling) {
+
+            current = current.enter(address);
+            calling = false;
+        }
+
+        current.cycles += cycles;
+
+        switch (instruction.getOpc()) {
+
+            case CALL: {
+
+                calling = true; // Descend as soon as the target is executed
+                break;
+            }
+            case RETURN:
+            case RETLW:
+            case RETFIE: {
+
+                // Unbalanced returns, e.g. after manipulating the stack, stay at the root
+
+                if (null != current.parent) {
+
+                    current = current.parent;
+                }
+                break;
+            }
+            default: {
+
+                break;
+            }
+        }
+    }
+
+    @Override
+    public void interrupted(int returnAddress, int isr) {
+
+        // The interrupt might occur right after a call, before the routine's entry is executed
+
+        if (calling) {
+
+            current = current.enter(returnAddress);
+            calling = false;
+        }
+
+        current = current.enter(isr);
+    }
+
+    @Override
+    public void restarted() {
+
+        current = tree.getRoot();
+        calling = false;
+    }
+
+    /**
+     * Clears the recorded call tree.
+     */
+
+    public void reset() {
+
+        tree.clear();
+
+        current = tree.getRoot();
+        calling = false;
+    }
+
+    /**
+     * Sums up the cycles recorded for all routines.
+     *
+     * @return Returns the total number of recorded cycles
+     */
+
+    public long getTotalCycles() {
+
+        return tree.getTotalCycles();
+    }
+
+    /**
+     * Determines the entry addresses of all recorded routines, including the
+     * program entry and Interrupt Service Routines.
+     *
+     * @return Returns the sorted entry addresses
+     */
+
+    public SortedSet<Integer> getRoutines() {
+
+        return tree.getRoutines();
+    }
+
+    /**
+     * Determines the cycles consumed by the given routine itself, excluding the
+     * cycles of the routines called by it.
+     *
+     * @param routine The entry address of the routine
+     * @return Returns the exclusive cycles
+     */
+
+    public long getExclusiveCycles(int routine) {
+
+        return tree.getExclusiveCycles(routine);
+    }
+
+    /**
+     * Determines the cycles consumed by the given routine including the cycles of the
+     * routines called by it. Recursive calls are counted only once.
+     *
+     * @param routine The entry address of the routine
+     * @return Returns the inclusive cycles
+     */
+
+    public long getInclusiveCycles(int routine) {
+
+        return tree.getInclusiveCycles(routine);
+    }
+
+    /**
+     * Determines the name of a routine. This is the label of the entry address if
+     * available, otherwise the entry address itself.
+     *
+     * @param routine The entry address of the routine
+     * @return Returns the name of the routine
+     */
+
+    public String getName(int routine) {
+
+        return tree.getName(routine);
+    }
+
+    /**
+     * Exports the recorded call tree as folded stacks, compatible with common flame graph
+     * tools. Each line contains the semicolon separated call stack followed by the
+     * exclusive cycles of the innermost routine.
+     *
+     * @param writer The writer the call tree is written to
+     * @throws IOException Thrown if writing fails
+     */
+
+    public void export(Writer writer) throws IOException {
+
+        tree.exportFolded(writer);
+    }
+
+    /**
+     * Exports the inclusive and exclusive cycles per routine in CSV format.
+     *
+     * @param writer The writer the routines are written to
+     * @throws IOException Thrown if writing fails
+     */
+
+    public void exportRoutines(Writer writer) throws IOException {
+
+        tree.exportRoutines(writer);
+    }
+}
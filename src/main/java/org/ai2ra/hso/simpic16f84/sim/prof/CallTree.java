@@ -0,0 +1,237 @@
+package org.ai2ra.hso.simpic16f84.sim.prof;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Tree of routine calls used for attributing cycles to routines. Every node
+ * represents a routine called through a distinct call stack, the root is the program
+ * entry at the reset vector. Cycles are stored exclusively per node, inclusive
+ * cycles are derived on demand.
+ *
+ * <p>
+ *     The tree is written by a single thread. Reading it concurrently is supported,
+ *     the returned values might be slightly outdated.
+ * </p>
+ *
+ * @author 0x1C1B
+ * @see CallGraphProfiler
+ * @see SamplingProfiler
+ */
+
+class CallTree {
+
+    private final Frame root;
+    private Map<Integer, String> labels;
+
+    CallTree() {
+
+        this.root = new Frame(null, 0x0000);
+        this.labels = Collections.emptyMap();
+    }
+
+    Frame getRoot() {
+
+        return root;
+    }
+
+    void setLabels(Map<Integer, String> labels) {
+
+        this.labels = null == labels ? Collections.emptyMap() : new HashMap<>(labels);
+    }
+
+    /**
+     * Removes all recorded frames except of the root.
+     */
+
+    void clear() {
+
+        root.children = new Frame[0];
+        root.cycles = 0;
+    }
+
+    long getTotalCycles() {
+
+        return root.total();
+    }
+
+    SortedSet<Integer> getRoutines() {
+
+        SortedSet<Integer> routines = new TreeSet<>();
+        collectRoutines(root, routines);
+
+        return routines;
+    }
+
+    long getExclusiveCycles(int routine) {
+
+        return exclusiveCycles(root, routine);
+    }
+
+    long getInclusiveCycles(int routine) {
+
+        return inclusiveCycles(root, routine);
+    }
+
+    String getName(int routine) {
+
+        String label = labels.get(routine);
+        return null != label ? label : String.format("0x%04X", routine);
+    }
+
+    /**
+     * Writes the tree as folded stacks. Each line contains the semicolon separated
+     * call stack followed by the exclusive cycles of the innermost routine.
+     *
+     * @param writer The writer the tree is written to
+     * @throws IOException Thrown if writing fails
+     */
+
+    void exportFolded(Writer writer) throws IOException {
+
+        exportFrame(writer, root, getName(root.address));
+        writer.flush();
+    }
+
+    /**
+     * Writes the inclusive and exclusive cycles per routine in CSV format.
+     *
+     * @param writer The writer the routines are written to
+     * @throws IOException Thrown if writing fails
+     */
+
+    void exportRoutines(Writer writer) throws IOException {
+
+        writer.write("routine,address,inclusive,exclusive\n");
+
+        for (int routine : getRoutines()) {
+
+            writer.write(String.format(Locale.ROOT, "%s,0x%04X,%d,%d\n", getName(routine), routine,
+                    getInclusiveCycles(routine), getExclusiveCycles(routine)));
+        }
+
+        writer.flush();
+    }
+
+    private void exportFrame(Writer writer, Frame frame, String stack) throws IOException {
+
+        if (0 < frame.cycles) {
+
+            writer.write(String.format(Locale.ROOT, "%s %d\n", stack, frame.cycles));
+        }
+
+        for (Frame child : frame.children) {
+
+            exportFrame(writer, child, stack + ";" + getName(child.address));
+        }
+    }
+
+    private void collectRoutines(Frame frame, SortedSet<Integer> routines) {
+
+        routines.add(frame.address);
+
+        for (Frame child : frame.children) {
+
+            collectRoutines(child, routines);
+        }
+    }
+
+    private long exclusiveCycles(Frame frame, int routine) {
+
+        long cycles = routine == frame.address ? frame.cycles : 0;
+
+        for (Frame child : frame.children) {
+
+            cycles += exclusiveCycles(child, routine);
+        }
+
+        return cycles;
+    }
+
+    private long inclusiveCycles(Frame frame, int routine) {
+
+        // Outermost frame of the routine already includes all nested ones
+
+        if (routine == frame.address) {
+
+            return frame.total();
+        }
+
+        long cycles = 0;
+
+        for (Frame child : frame.children) {
+
+            cycles += inclusiveCycles(child, routine);
+        }
+
+        return cycles;
+    }
+
+    /**
+     * Single node of the call tree, representing a routine called through a
+     * distinct call stack.
+     */
+
+    static class Frame {
+
+        final Frame parent;
+        final int address;
+        /** Called routines, copied on write for allowing concurrent reads. */
+        Frame[] children;
+        /** Exclusively consumed cycles. */
+        long cycles;
+
+        private Frame(Frame parent, int address) {
+
+            this.parent = parent;
+            this.address = address;
+            this.children = new Frame[0];
+        }
+
+        /**
+         * Descends into the called routine, the frame is created if it's called
+         * the first time through this call stack.
+         *
+         * @param address The entry address of the called routine
+         * @return Returns the frame of the called routine
+         */
+
+        Frame enter(int address) {
+
+            for (Frame child : children) {
+
+                if (address == child.address) {
+
+                    return child;
+                }
+            }
+
+            Frame child = new Frame(this, address);
+
+            Frame[] extended = Arrays.copyOf(children, children.length + 1);
+            extended[extended.length - 1] = child;
+            children = extended;
+
+            return child;
+        }
+
+        private long total() {
+
+            long total = cycles;
+
+            for (Frame child : children) {
+
+                total += child.total();
+            }
+
+            return total;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package org.ai2ra.hso.simpic16f84.sim.prof;
+
+import org.ai2ra.hso.simpic16f84.sim.vm.Instruction;
+import org.ai2ra.hso.simpic16f84.sim.vm.exec.InstructionExecutor;
+
+/**
+ * Callback invoked synchronously by the execution unit after every executed
+ * instruction. Because it's part of the execution flow, implementations should
+ * neither block nor allocate memory. Besides executed instructions, interrupts
+ * and resets of the execution unit are reported, profilers not interested in
+ * these events can simply ignore them.
+ *
+ * @author 0x1C1B
+ * @see InstructionExecutor#addProfiler(ExecutionProfiler)
+ */
+
+@FunctionalInterface
+public interface ExecutionProfiler {
+
+    /**
+     * Invoked after an instruction was executed.
+     *
+     * @param address The program memory address of the executed instruction
+     * @param instruction The decoded instruction
+     * @param cycles The number of consumed instruction cycles, including skipped ones
+     */
+
+    void executed(int address, Instruction instruction, int cycles);
+
+    /**
+     * Invoked when an interrupt occurred, right before the Interrupt Service Routine
+     * (ISR) is called. Calling the ISR isn't reported as executed instruction.
+     *
+     * @param returnAddress The address of the next instruction, pushed onto the stack
+     * @param isr The address of the called Interrupt Service Routine
+     */
+
+    default void interrupted(int returnAddress, int isr) {
+
+    }
+
+    /**
+     * Invoked after the execution unit was reset to the power-on state. The program is
+     * restarted from the reset vector afterwards.
+     */
+
+    default void restarted() {
+
+    }
+}
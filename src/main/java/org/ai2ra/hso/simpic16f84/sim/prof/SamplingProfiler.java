@@ -0,0 +1,375 @@
+package org.ai2ra.hso.simpic16f84.sim.prof;
+
+import org.ai2ra.hso.simpic16f84.sim.Pic16F84VM;
+import org.ai2ra.hso.simpic16f84.sim.mem.MemoryIndexOutOfBoundsException;
+import org.ai2ra.hso.simpic16f84.sim.mem.ObservableMemory;
+import org.ai2ra.hso.simpic16f84.sim.mem.StackMemory;
+import org.ai2ra.hso.simpic16f84.sim.vm.exec.ObservableExecution;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Profiler that periodically samples the execution flow from a background thread
+ * instead of being notified about every executed instruction. Therefor it doesn't
+ * need to be attached to the execution unit at all, it just reads the execution
+ * sample published by the execution unit and the stack memory. This makes it
+ * suitable for profiling at full execution speed.
+ *
+ * <p>
+ *     The cycles elapsed since the previous sample are attributed to the sampled
+ *     address and to the sampled call stack. Routines of the call stack are determined
+ *     using the routine entries of the program, each address belongs to the nearest
+ *     preceding entry. Samples taken while the execution is paused are discarded.
+ *     Return addresses pushed by interrupts are told apart from the ones pushed by
+ *     calls using the instruction preceding the return address.
+ *     The results are provided in the same formats as with full profiling, see
+ *     {@link AddressProfiler} and {@link CallGraphProfiler}.
+ * </p>
+ *
+ * <pre>{@code
+ * SamplingProfiler profiler = new SamplingProfiler(simulator);
+ * profiler.setRoutines(simulator.getRoutines());
+ * profiler.start();
+ * ...
+ * profiler.stop();
+ * profiler.getProfile().export(writer);
+ * }</pre>
+ *
+ * @author 0x1C1B
+ * @see ObservableExecution#getExecutionSample()
+ */
+
+public class SamplingProfiler {
+
+    /** Default time between two samples in microseconds. */
+    public static final long DEFAULT_INTERVAL = 100;
+    /** Hardware stack depth of the Pic16F84. */
+    private static final int STACK_DEPTH = 8;
+
+    private final ObservableExecution execution;
+    private final ObservableMemory<Short> programMemory;
+    private final StackMemory<Integer> stack;
+    private final long interval;
+
+    private final AddressProfiler profile;
+    private final CallTree tree;
+    /** Routine entry of every address, indexed by address. */
+    private final int[] routines;
+
+    private final Integer[] returnAddresses;
+    private long lastCycles;
+    private volatile Thread sampler;
+
+    public SamplingProfiler(Pic16F84VM simulator) {
+
+        this(simulator, DEFAULT_INTERVAL, TimeUnit.MICROSECONDS);
+    }
+
+    /**
+     * Constructs a new sampling profiler for the given virtual machine. The profiler
+     * doesn't start sampling until {@link SamplingProfiler#start()} is called.
+     *
+     * @param simulator The virtual machine that should be sampled
+     * @param interval The time between two samples
+     * @param unit The time unit of the interval
+     */
+
+    @SuppressWarnings("unchecked")
+    public SamplingProfiler(Pic16F84VM simulator, long interval, TimeUnit unit) {
+
+        this.execution = simulator.getExecutor();
+        this.programMemory = simulator.getProgramMemory();
+        // Bypasses the pseudo read-only access for taking a consistent snapshot
+        this.stack = (StackMemory<Integer>) simulator.getStack();
+        this.interval = unit.toNanos(interval);
+
+        this.profile = new AddressProfiler();
+        this.tree = new CallTree();
+        this.routines = new int[AddressProfiler.ADDRESS_SPACE];
+        this.returnAddresses = new Integer[STACK_DEPTH];
+    }
+
+    /**
+     * Sets the routine entries of the profiled program. Every address is attributed to
+     * the nearest preceding entry.
+     *
+     * @param entries The entry addresses of the routines
+     * @see Pic16F84VM#getRoutines()
+     */
+
+    public void setRoutines(Collection<Integer> entries) {
+
+        int routine = 0x0000;
+
+        for (int address = 0; address < routines.length; ++address) {
+
+            if (entries.contains(address)) {
+
+                routine = address;
+            }
+
+            routines[address] = routine;
+        }
+    }
+
+    /**
+     * Sets the labels used for naming the routines. Routines without label are named
+     * by their entry address.
+     *
+     * @param labels The labels indexed by address
+     */
+
+    public void setLabels(Map<Integer, String> labels) {
+
+        tree.setLabels(labels);
+    }
+
+    /**
+     * Starts sampling in a background thread. If the profiler is already
+     * running, this method has no effect.
+     */
+
+    public synchronized void start() {
+
+        if (null == sampler) {
+
+            lastCycles = execution.getExecutionSample() >>> 13;
+
+            sampler = new Thread(this::run, "Sampling Profiler");
+            sampler.setDaemon(true);
+            sampler.start();
+        }
+    }
+
+    /**
+     * Stops sampling and waits until the background thread terminated. If the
+     * profiler isn't running, this method has no effect.
+     */
+
+    public synchronized void stop() {
+
+        Thread thread = sampler;
+
+        if (null != thread) {
+
+            sampler = null;
+            thread.interrupt();
+
+            try {
+
+                thread.join();
+
+            } catch (InterruptedException exc) {
+
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Determines if the profiler is currently sampling.
+     *
+     * @return Returns true if the background thread is running, otherwise false
+     */
+
+    public boolean isRunning() {
+
+        return null != sampler;
+    }
+
+    private void run() {
+
+        while (!Thread.currentThread().isInterrupted()) {
+
+            sample();
+            LockSupport.parkNanos(interval);
+        }
+    }
+
+    /**
+     * Takes a single sample of the execution flow. Stack and execution sample aren't
+     * read atomically, so a sample taken exactly while calling or returning might be
+     * attributed to the wrong call stack.
+     */
+
+    void sample() {
+
+        long sample = execution.getExecutionSample();
+        long cycles = sample >>> 13;
+        long elapsed = cycles - lastCycles;
+
+        lastCycles = cycles;
+
+        if (0 >= elapsed) {
+
+            return; // Execution is paused or was restarted in the meantime
+        }
+
+        int address = (int) (sample & (AddressProfiler.ADDRESS_SPACE - 1));
+        int depth = stack.snapshot(returnAddresses);
+
+        profile.record(address, elapsed);
+
+        // Outermost return address belongs to the program entry, the root of the tree
+
+        CallTree.Frame frame = tree.getRoot();
+
+        for (int level = 1; level < depth; ++level) {
+
+            frame = frame.enter(caller(returnAddresses[level]));
+        }
+
+        if (0 < depth) {
+
+            frame = frame.enter(routines[address]);
+        }
+
+        frame.cycles += elapsed;
+    }
+
+    /**
+     * Determines the routine a stack frame returns to. A call pushes the address
+     * following the call site, whereas an interrupt pushes the address of the
+     * interrupted instruction itself, which might be the entry of the routine just
+     * called. Therefor the return address only refers to the call site, if it's preceded
+     * by a <code>CALL</code> instruction.
+     *
+     * <p>
+     *     An interrupt returning to an address preceded by a <code>CALL</code>, e.g. right
+     *     after returning from a subroutine, is attributed the same way as a call. This
+     *     only differs if the interrupted instruction is the entry of a routine.
+     * </p>
+     *
+     * @param returnAddress The return address of the stack frame
+     * @return Returns the entry of the routine containing the call site or the
+     *         interrupted instruction
+     */
+
+    private int caller(int returnAddress) {
+
+        int address = returnAddress & (AddressProfiler.ADDRESS_SPACE - 1);
+
+        if (0 < address) {
+
+            try {
+
+                Short code = programMemory.get(address - 1);
+
+                // CALL instructions are encoded as 10 0kkk kkkk kkkk
+
+                if (null != code && 0x2000 == (code & 0x3800)) {
+
+                    return routines[address - 1];
+                }
+
+            } catch (MemoryIndexOutOfBoundsException exc) {
+
+                // Not implemented, can't be a call site
+            }
+        }
+
+        return routines[address];
+    }
+
+    /**
+     * Clears all recorded samples. If the profiler is running, sampling is stopped
+     * while clearing and restarted afterwards, since samples are recorded without
+     * synchronization.
+     */
+
+    public synchronized void reset() {
+
+        boolean running = isRunning();
+
+        stop();
+
+        profile.reset();
+        tree.clear();
+
+        if (running) {
+
+            start();
+        }
+    }
+
+    /**
+     * Returns the sampled profile per address. The number of hits corresponds to the
+     * number of samples while the cycles are the ones attributed to the address.
+     *
+     * @return Returns the sampled profile
+     */
+
+    public AddressProfiler getProfile() {
+
+        return profile;
+    }
+
+    /**
+     * Determines the entry addresses of all sampled routines.
+     *
+     * @return Returns the sorted entry addresses
+     */
+
+    public SortedSet<Integer> getRoutines() {
+
+        return tree.getRoutines();
+    }
+
+    /**
+     * Determines the cycles attributed to the given routine itself, excluding the
+     * cycles of the routines called by it.
+     *
+     * @param routine The entry address of the routine
+     * @return Returns the exclusive cycles
+     */
+
+    public long getExclusiveCycles(int routine) {
+
+        return tree.getExclusiveCycles(routine);
+    }
+
+    /**
+     * Determines the cycles attributed to the given routine including the cycles of the
+     * routines called by it.
+     *
+     * @param routine The entry address of the routine
+     * @return Returns the inclusive cycles
+     */
+
+    public long getInclusiveCycles(int routine) {
+
+        return tree.getInclusiveCycles(routine);
+    }
+
+    /**
+     * Exports the sampled call stacks as folded stacks, the same format as
+     * {@link CallGraphProfiler#export(Writer)}.
+     *
+     * @param writer The writer the call stacks are written to
+     * @throws IOException Thrown if writing fails
+     */
+
+    public void export(Writer writer) throws IOException {
+
+        tree.exportFolded(writer);
+    }
+
+    /**
+     * Exports the inclusive and exclusive cycles per routine in CSV format, the same
+     * format as {@link CallGraphProfiler#exportRoutines(Writer)}.
+     *
+     * @param writer The writer the routines are written to
+     * @throws IOException Thrown if writing fails
+     */
+
+    public void exportRoutines(Writer writer) throws IOException {
+
+        tree.exportRoutines(writer);
+    }
+}
@@ -0,0 +1,6 @@
+/**
+ * Profiling utilities of the Pic16F84 simulator. Profilers are attached to the
+ * execution unit and record where the executed program spends its cycles.
+ */
+
+package org.ai2ra.hso.simpic16f84.sim.prof;
@@ -4,7 +4,10 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Utility class for parsing a LST file. Basically it extracts the machine instructions
@@ -17,10 +20,16 @@ import java.util.ArrayList;
 
 public class AIRALstParser implements LstParser<Short> {
 
+	/** Column of the LST file containing the label of a line. */
+	private static final int LABEL_COLUMN = 27;
+	/** Column of the LST file the source code starts, behind the line number. */
+	private static final int SOURCE_COLUMN = 25;
+
     /**
      * Parses the machine instructions from a given LST file. Important to note is, that
      * this parser <b>only</b> works for a specific LST file syntax. For more details
-     * see testing LST files or method implementation.
+     * see testing LST files or method implementation. Instructions are placed at their
+     * real addresses, gaps are filled with <code>null</code>.
      *
      * @param file The LST file path
      * @return Returns the machine instructions as array of integers
@@ -30,37 +39,229 @@ public class AIRALstParser implements LstParser<Short> {
 
 	@Override
     public Short[] parse(File file) throws IOException {
-		
-		FileReader input = new FileReader(file);
-		BufferedReader inputFile = new BufferedReader(input);
-		ArrayList<String> converter = new ArrayList<>();
+
+		return parseDebugInfo(file).getWords();
+	}
+
+    /**
+     * Parses the labels from a given LST file. Labels are located at column 27, either in
+     * front of a machine instruction or standalone in a line without any instruction. The
+     * latter ones are pointing to the next machine instruction.
+     *
+     * @param file The LST file path
+     * @return Returns the label names indexed by the address they're pointing to
+     * @throws IOException           Thrown if the given file couldn't be opened
+     * @throws NumberFormatException Thrown if the LST file is malformed, address couldn't be parsed
+     */
+
+	@Override
+	public Map<Integer, String> parseLabels(File file) throws IOException {
+
+		return parseDebugInfo(file).getLabels();
+	}
+
+    /**
+     * Parses the debug information from a given LST file in a single pass. Lines starting
+     * with the address and the machine instruction, both in hexadecimal format, are
+     * containing code. All other lines are ignored, except they define a label or a symbol
+     * using <code>equ</code>.
+     *
+     * @param file The LST file path
+     * @return Returns the debug information of the LST file
+     * @throws IOException           Thrown if the given file couldn't be opened
+     * @throws NumberFormatException Thrown if the LST file is malformed, instruction couldn't be parsed
+     */
+
+	@Override
+	public DebugInfo<Short> parseDebugInfo(File file) throws IOException {
+
+		try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+
+			return parseDebugInfo(reader, line -> {});
+		}
+	}
+
+    /**
+     * Parses the debug information from the lines of a LST file in a single pass, passing
+     * every read line to the consumer before it's parsed.
+     *
+     * @param reader The reader of the LST file
+     * @param lines The consumer of every read line, without line terminator
+     * @return Returns the debug information of the LST file
+     * @throws IOException           Thrown if the LST file couldn't be read
+     * @throws NumberFormatException Thrown if the LST file is malformed, instruction couldn't be parsed
+     * @see AIRALstParser#parseDebugInfo(File)
+     */
+
+	@Override
+	public DebugInfo<Short> parseDebugInfo(BufferedReader reader, Consumer<? super String> lines) throws IOException {
+
+		Short[] words = new Short[0];
+		int[] addressToLine = new int[0];
+		int[] lineToAddress = new int[64];
+		Map<Integer, String> labels = new HashMap<>();
+		Map<String, Integer> symbols = new HashMap<>();
+
+		String pending = null; // Standalone label waiting for the next machine instruction
+		int line = 0;
+
 		String testLine;
-		
-		/* loop that checks every line of a given LST file for machine language 
-		 * and saves it into an ArrayList as a String. 
-		*/
-		while ((testLine = inputFile.readLine()) != null) {
-			
-			if( testLine.startsWith(" ")) {
+
+		for (; (testLine = reader.readLine()) != null; ++line) {
+
+			lines.accept(testLine);
+
+			if (lineToAddress.length == line) {
+
+				lineToAddress = Arrays.copyOf(lineToAddress, 2 * line);
+			}
+
+			lineToAddress[line] = -1;
+
+			String label = parseLabel(testLine);
+
+			if (testLine.startsWith(" ")) {
+
+				parseSymbol(testLine, symbols);
+
+				pending = null != label ? label : pending;
 				continue;
 			}
-				
-			converter.add(testLine.substring(5, 9));
+
+			int address = Integer.parseInt(testLine.substring(0, 4), 16);
+
+			// Tables grow with the highest address, ORG directives might leave gaps
+
+			if (words.length <= address) {
+
+				int size = Math.max(address + 1, 2 * words.length);
+				int previous = addressToLine.length;
+
+				words = Arrays.copyOf(words, size);
+				addressToLine = Arrays.copyOf(addressToLine, size);
+				Arrays.fill(addressToLine, previous, size, -1);
+			}
+
+			words[address] = Short.decode("0x" + testLine.substring(5, 9));
+			addressToLine[address] = line;
+			lineToAddress[line] = address;
+
+			if (null != pending) {
+
+				labels.put(address, pending);
+				pending = null;
+			}
+
+			if (null != label) {
+
+				labels.put(address, label);
+			}
 		}
-		inputFile.close();
-		
-		/* Array that will output the machine code 
-		 */
-        Short[] output = new Short[converter.size()];
-		
-		/* Loop that decodes the Strings of the Arraylist into an int and saves it into the output Array.
-		 * The input string is decoded from Hex to int.
-		 * The index of the output Array corresponds to the index of the machine code.
-		*/
-		for (int i = 0; i < converter.size(); i++) {
-            output[i] = Short.decode("0x" + converter.get(i));
+
+		// Trim tables to the highest address and the number of lines
+
+		int size = words.length;
+
+		while (0 < size && null == words[size - 1]) {
+
+			--size;
+		}
+
+		return new DebugInfo<>(Arrays.copyOf(words, size), Arrays.copyOf(addressToLine, size),
+				Arrays.copyOf(lineToAddress, line), labels, symbols);
+	}
+
+	/**
+	 * Extracts the label of a line, if any. Standalone labels, in lines without machine
+	 * instruction, must not be followed by anything else than a comment. This excludes
+	 * symbol definitions.
+	 *
+	 * @param testLine The line of the LST file
+	 * @return Returns the label or null if the line doesn't contain a label
+	 */
+
+	private static String parseLabel(String testLine) {
+
+		if (LABEL_COLUMN < testLine.length() && !Character.isWhitespace(testLine.charAt(LABEL_COLUMN))
+				&& ';' != testLine.charAt(LABEL_COLUMN)) {
+
+			String[] tokens = testLine.substring(LABEL_COLUMN).trim().split("\\s+", 2);
+
+			if (!testLine.startsWith(" ") || 1 == tokens.length || tokens[1].startsWith(";")) {
+
+				return tokens[0];
+			}
 		}
-		
-		return output;
+
+		return null;
+	}
+
+	/**
+	 * Extracts a symbol defined using <code>equ</code>. Symbols with values that couldn't
+	 * be parsed, e.g. expressions, are ignored.
+	 *
+	 * @param testLine The line of the LST file
+	 * @param symbols The symbols the extracted symbol is added to
+	 */
+
+	private static void parseSymbol(String testLine, Map<String, Integer> symbols) {
+
+		if (SOURCE_COLUMN >= testLine.length()) {
+
+			return;
+		}
+
+		String source = testLine.substring(SOURCE_COLUMN);
+		int comment = source.indexOf(';');
+
+		String[] tokens = (0 <= comment ? source.substring(0, comment) : source).trim().split("\\s+");
+
+		if (3 == tokens.length && "equ".equalsIgnoreCase(tokens[1])) {
+
+			try {
+
+				symbols.put(tokens[0], parseNumber(tokens[2]));
+
+			} catch (NumberFormatException exc) {
+
+				// Expressions aren't supported, the symbol is just omitted
+			}
+		}
+	}
+
+	/**
+	 * Parses a numeric literal in assembler syntax. Supported are hexadecimal
+	 * (<code>0Ch</code>, <code>0x0C</code>, <code>h'0C'</code>), decimal
+	 * (<code>d'12'</code>, <code>.12</code>) and binary (<code>b'1100'</code>) literals.
+	 * Literals without radix are hexadecimal, the assembler's default radix.
+	 *
+	 * @param literal The literal to parse
+	 * @return Returns the value of the literal
+	 * @throws NumberFormatException Thrown if the literal is malformed
+	 */
+
+	static int parseNumber(String literal) throws NumberFormatException {
+
+		String lower = literal.toLowerCase();
+
+		if (lower.matches("[hdb]'.+'")) {
+
+			int radix = 'h' == lower.charAt(0) ? 16 : 'd' == lower.charAt(0) ? 10 : 2;
+			return Integer.parseInt(lower.substring(2, lower.length() - 1), radix);
+
+		} else if (lower.startsWith("0x")) {
+
+			return Integer.parseInt(lower.substring(2), 16);
+
+		} else if (lower.startsWith(".")) {
+
+			return Integer.parseInt(lower.substring(1), 10);
+
+		} else if (lower.endsWith("h")) {
+
+			return Integer.parseInt(lower.substring(0, lower.length() - 1), 16);
+		}
+
+		return Integer.parseInt(lower, 16);
 	}
 }
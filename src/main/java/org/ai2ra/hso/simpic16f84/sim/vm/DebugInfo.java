@@ -0,0 +1,131 @@
+package org.ai2ra.hso.simpic16f84.sim.vm;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Debug information of a parsed LST file. It contains the machine instructions placed
+ * at their real addresses, as well as the mappings between addresses and lines of the
+ * LST file. Both mappings are stored as tables, so every lookup is done in constant time.
+ * Lines are counted zero based, exactly like the lines of the file itself.
+ *
+ * <p>
+ *     Addresses without machine instruction, e.g. gaps caused by an <code>ORG</code>
+ *     directive, are filled with <code>null</code>. The debug information is immutable.
+ * </p>
+ *
+ * @author 0x1C1B
+ * @param <T> Type of instruction, implicitly width of a single instruction
+ * @see LstParser#parseDebugInfo(java.io.File)
+ */
+
+public class DebugInfo<T> {
+
+    private final T[] words;
+    private final int[] addressToLine;
+    private final int[] lineToAddress;
+    private final Map<Integer, String> labels;
+    private final Map<String, Integer> symbols;
+
+    /**
+     * Constructs new debug information. The tables are taken over without copying.
+     *
+     * @param words The machine instructions indexed by address
+     * @param addressToLine The line of every address or -1 if there's no instruction
+     * @param lineToAddress The address of every line or -1 if there's no instruction
+     * @param labels The labels indexed by the address they're pointing to
+     * @param symbols The values of symbols, e.g. defined using <code>equ</code>, indexed by name
+     */
+
+    public DebugInfo(T[] words, int[] addressToLine, int[] lineToAddress,
+                     Map<Integer, String> labels, Map<String, Integer> symbols) {
+
+        this.words = words;
+        this.addressToLine = addressToLine;
+        this.lineToAddress = lineToAddress;
+        this.labels = Collections.unmodifiableMap(new HashMap<>(labels));
+        this.symbols = Collections.unmodifiableMap(new HashMap<>(symbols));
+    }
+
+    /**
+     * Returns the machine instructions indexed by address. Gaps are filled
+     * with <code>null</code>.
+     *
+     * @return Returns a copy of the machine instructions
+     */
+
+    public T[] getWords() {
+
+        return Arrays.copyOf(words, words.length);
+    }
+
+    /**
+     * Determines the number of addresses up to the last machine instruction, including gaps.
+     *
+     * @return Returns the highest address plus one
+     */
+
+    public int getSize() {
+
+        return words.length;
+    }
+
+    /**
+     * Determines the number of lines of the LST file.
+     *
+     * @return Returns the number of lines
+     */
+
+    public int getLineCount() {
+
+        return lineToAddress.length;
+    }
+
+    /**
+     * Determines the line containing the machine instruction of the given address.
+     *
+     * @param address The program memory address
+     * @return Returns the zero based line or -1 if there's no such instruction
+     */
+
+    public int getLine(int address) {
+
+        return 0 <= address && addressToLine.length > address ? addressToLine[address] : -1;
+    }
+
+    /**
+     * Determines the address of the machine instruction contained inside of a line.
+     *
+     * @param line The zero based line
+     * @return Returns the address or -1 if the line doesn't contain a machine instruction
+     */
+
+    public int getAddress(int line) {
+
+        return 0 <= line && lineToAddress.length > line ? lineToAddress[line] : -1;
+    }
+
+    /**
+     * Returns the labels of machine instructions.
+     *
+     * @return Returns the label names indexed by the address they're pointing to
+     */
+
+    public Map<Integer, String> getLabels() {
+
+        return labels;
+    }
+
+    /**
+     * Returns the symbols defined inside of the LST file, e.g. using <code>equ</code>.
+     *
+     * @return Returns the symbol values indexed by name
+     */
+
+    public Map<String, Integer> getSymbols() {
+
+        return symbols;
+    }
+}
@@ -39,9 +39,9 @@ public class Instruction {
     /**
      * The operation code which indicates the type of operation
      */
-    private OperationCode opc;
+    private final OperationCode opc;
     /** Optional arguments depending to the {@link Instruction#opc OPC} */
-    private int[] arguments;
+    private final int[] arguments;
 
     /**
      * Constructs a new instruction consisting out of OPC and optional integer
@@ -71,7 +71,8 @@ public class Instruction {
 
     /**
      * Optional arguments of the instruction. Existence and amount depends to the
-     * kind of operation.
+     * kind of operation. Because decoded instructions are shared, the returned array
+     * <b>must not</b> be modified.
      *
      * @return Returns the optional numeric arguments
      */
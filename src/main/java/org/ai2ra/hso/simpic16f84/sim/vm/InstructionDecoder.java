@@ -11,6 +11,12 @@ package org.ai2ra.hso.simpic16f84.sim.vm;
 
 public class InstructionDecoder {
 
+    /**
+     * Already decoded instructions indexed by their 14-bit instruction code. Because
+     * instructions are immutable, the same instance is shared for every occurrence.
+     */
+    private static final Instruction[] DECODED_INSTRUCTIONS;
+
     /**
      * Mask for the general operation group. There exists basically four groups.
      */
@@ -48,6 +54,8 @@ public class InstructionDecoder {
 
     static {
 
+        DECODED_INSTRUCTIONS = new Instruction[1 << 14];
+
         OPERATION_TYPE_MASK = 0b11_0000_0000_0000; // Mask for detecting operation type
         OPERATION_TYPE_OFFSET = 12; // Offset for shifting/extracting operation type
 
@@ -77,6 +85,11 @@ public class InstructionDecoder {
      * version is returned in form of an {@link Instruction Instruction Object}.
      * Dependent to the kind of OPC, this instruction also contains optional arguments.
      *
+     * <p>
+     *     Every instruction code is decoded only once, afterwards the cached instance
+     *     is returned. This means decoding doesn't allocate during the execution flow.
+     * </p>
+     *
      * @param code The instruction code that should be decoded
      * @return Returns an instruction object containing the OPC and optional arguments
      * @throws IllegalArgumentException Thrown if instruction couldn't be decoded
@@ -85,6 +98,38 @@ public class InstructionDecoder {
 
     public static Instruction decode(int code) throws IllegalArgumentException {
 
+        if (0 > code || DECODED_INSTRUCTIONS.length <= code) {
+
+            return decodeInstruction(code); // Not a valid 14-bit code, isn't cached
+        }
+
+        Instruction instruction = DECODED_INSTRUCTIONS[code];
+
+        if (null == instruction) {
+
+            /*
+            Racing threads could decode the same code twice, that's harmless because
+            instructions are immutable and equivalent.
+             */
+
+            instruction = decodeInstruction(code);
+            DECODED_INSTRUCTIONS[code] = instruction;
+        }
+
+        return instruction;
+    }
+
+    /**
+     * Decodes a given instruction without using the cache of already decoded
+     * instructions.
+     *
+     * @param code The instruction code that should be decoded
+     * @return Returns an instruction object containing the OPC and optional arguments
+     * @throws IllegalArgumentException Thrown if instruction couldn't be decoded
+     */
+
+    private static Instruction decodeInstruction(int code) throws IllegalArgumentException {
+
         switch ((code & OPERATION_TYPE_MASK) >> OPERATION_TYPE_OFFSET) {
 
             case 0b00: { // Byte-Oriented + Control Operations
@@ -1,7 +1,10 @@
 package org.ai2ra.hso.simpic16f84.sim.vm;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Utility class for parsing a LST file. Basically it extracts the machine instructions
@@ -25,4 +28,43 @@ public interface LstParser<T> {
      */
 
     T[] parse(File file) throws IOException;
+
+    /**
+     * Parses the labels from a given LST file. Only labels of machine instructions are
+     * extracted, labels defining constants (e.g. using <code>equ</code>) are ignored.
+     *
+     * @param file The LST file path
+     * @return Returns the label names indexed by the address they're pointing to
+     * @throws IOException           Thrown if the given file couldn't be opened
+     * @throws NumberFormatException Thrown if the LST file is malformed, address couldn't be parsed
+     */
+
+    Map<Integer, String> parseLabels(File file) throws IOException;
+
+    /**
+     * Parses the debug information from a given LST file. This includes the machine
+     * instructions placed at their real addresses, the mappings between addresses and
+     * lines, the labels and the defined symbols.
+     *
+     * @param file The LST file path
+     * @return Returns the debug information of the LST file
+     * @throws IOException           Thrown if the given file couldn't be opened
+     * @throws NumberFormatException Thrown if the LST file is malformed, instruction couldn't be parsed
+     */
+
+    DebugInfo<T> parseDebugInfo(File file) throws IOException;
+
+    /**
+     * Parses the debug information from the lines of a LST file in a single pass. Every
+     * read line is passed to the given consumer, so the LST file doesn't have to be read
+     * again, e.g. for displaying it. The reader isn't closed.
+     *
+     * @param reader The reader of the LST file
+     * @param lines The consumer of every read line, without line terminator
+     * @return Returns the debug information of the LST file
+     * @throws IOException           Thrown if the LST file couldn't be read
+     * @throws NumberFormatException Thrown if the LST file is malformed, instruction couldn't be parsed
+     */
+
+    DebugInfo<T> parseDebugInfo(BufferedReader reader, Consumer<? super String> lines) throws IOException;
 }
@@ -0,0 +1,352 @@
+package org.ai2ra.hso.simpic16f84.sim.vm;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Parser for the same LST file format as the {@link AIRALstParser}, intended for parsing
+ * many or large LST files. The file is memory-mapped and scanned byte by byte, addresses
+ * and instructions are decoded straight from their hexadecimal columns. Lines never
+ * become strings, only labels and symbols are allocated.
+ *
+ * <p>
+ *     The LST file has to be encoded ASCII compatible, because columns are counted in
+ *     bytes. Lines are terminated the same way as for {@link BufferedReader#readLine()}.
+ * </p>
+ *
+ * @author 0x1C1B
+ * @see AIRALstParser
+ */
+
+public class MappedLstParser implements LstParser<Short> {
+
+    /** Column of the LST file containing the label of a line. */
+    private static final int LABEL_COLUMN = 27;
+    /** Column of the LST file the source code starts, behind the line number. */
+    private static final int SOURCE_COLUMN = 25;
+    /** Column of the LST file containing the machine instruction. */
+    private static final int INSTRUCTION_COLUMN = 5;
+
+    @Override
+    public Short[] parse(File file) throws IOException {
+
+        return parseDebugInfo(file).getWords();
+    }
+
+    @Override
+    public Map<Integer, String> parseLabels(File file) throws IOException {
+
+        return parseDebugInfo(file).getLabels();
+    }
+
+    /**
+     * Parses the debug information from a given LST file in a single pass over the
+     * memory-mapped file.
+     *
+     * @param file The LST file path
+     * @return Returns the debug information of the LST file
+     * @throws IOException           Thrown if the given file couldn't be opened or mapped
+     * @throws NumberFormatException Thrown if the LST file is malformed, instruction couldn't be parsed
+     */
+
+    @Override
+    public DebugInfo<Short> parseDebugInfo(File file) throws IOException {
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+
+            return parse(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Parses the debug information from the lines of a LST file. A reader can't be mapped,
+     * therefore the lines are parsed by the {@link AIRALstParser} instead.
+     *
+     * @param reader The reader of the LST file
+     * @param lines The consumer of every read line, without line terminator
+     * @return Returns the debug information of the LST file
+     * @throws IOException           Thrown if the LST file couldn't be read
+     * @throws NumberFormatException Thrown if the LST file is malformed, instruction couldn't be parsed
+     */
+
+    @Override
+    public DebugInfo<Short> parseDebugInfo(BufferedReader reader, Consumer<? super String> lines) throws IOException {
+
+        return new AIRALstParser().parseDebugInfo(reader, lines);
+    }
+
+    private static DebugInfo<Short> parse(ByteBuffer buffer) throws NumberFormatException {
+
+        int[] words = new int[0]; // Gaps are filled with -1 instead of null
+        int[] addressToLine = new int[0];
+        int[] lineToAddress = new int[64];
+        Map<Integer, String> labels = new HashMap<>();
+        Map<String, Integer> symbols = new HashMap<>();
+
+        String pending = null; // Standalone label waiting for the next machine instruction
+        int line = 0;
+        int start = 0;
+
+        for (; start < buffer.limit(); ++line) {
+
+            int end = start;
+
+            while (end < buffer.limit() && '\n' != buffer.get(end) && '\r' != buffer.get(end)) {
+
+                ++end;
+            }
+
+            if (lineToAddress.length == line) {
+
+                lineToAddress = Arrays.copyOf(lineToAddress, 2 * line);
+            }
+
+            lineToAddress[line] = -1;
+
+            String label = parseLabel(buffer, start, end);
+
+            if (start < end && ' ' == buffer.get(start)) {
+
+                parseSymbol(buffer, start, end, symbols);
+                pending = null != label ? label : pending;
+
+            } else {
+
+                int address = parseHex(buffer, start, end);
+                int word = parseHex(buffer, start + INSTRUCTION_COLUMN, end);
+
+                if (Short.MAX_VALUE < word) {
+
+                    throw new NumberFormatException("Instruction is out of range");
+                }
+
+                // Tables grow with the highest address, ORG directives might leave gaps
+
+                if (words.length <= address) {
+
+                    int size = Math.max(address + 1, 2 * words.length);
+                    int previous = words.length;
+
+                    words = Arrays.copyOf(words, size);
+                    addressToLine = Arrays.copyOf(addressToLine, size);
+                    Arrays.fill(words, previous, size, -1);
+                    Arrays.fill(addressToLine, previous, size, -1);
+                }
+
+                words[address] = word;
+                addressToLine[address] = line;
+                lineToAddress[line] = address;
+
+                if (null != pending) {
+
+                    labels.put(address, pending);
+                    pending = null;
+                }
+
+                if (null != label) {
+
+                    labels.put(address, label);
+                }
+            }
+
+            // A carriage return followed by a line feed terminates just a single line
+
+            if (end + 1 < buffer.limit() && '\r' == buffer.get(end) && '\n' == buffer.get(end + 1)) {
+
+                ++end;
+            }
+
+            start = end + 1;
+        }
+
+        // Trim tables to the highest address and the number of lines
+
+        int size = words.length;
+
+        while (0 < size && 0 > words[size - 1]) {
+
+            --size;
+        }
+
+        Short[] instructions = new Short[size];
+
+        for (int address = 0; address < size; ++address) {
+
+            instructions[address] = 0 > words[address] ? null : (short) words[address];
+        }
+
+        return new DebugInfo<>(instructions, Arrays.copyOf(addressToLine, size),
+                Arrays.copyOf(lineToAddress, line), labels, symbols);
+    }
+
+    /**
+     * Decodes a four digit hexadecimal number, e.g. the address or the machine
+     * instruction of a line.
+     *
+     * @param buffer The mapped LST file
+     * @param start The position of the first digit
+     * @param end The end of the line
+     * @return Returns the decoded number
+     * @throws NumberFormatException Thrown if the number is malformed
+     */
+
+    private static int parseHex(ByteBuffer buffer, int start, int end) throws NumberFormatException {
+
+        if (start + 4 > end) {
+
+            throw new NumberFormatException("Line is too short for a machine instruction");
+        }
+
+        int value = 0;
+
+        for (int index = start; index < start + 4; ++index) {
+
+            int ch = buffer.get(index);
+            int digit = '0' <= ch && '9' >= ch ? ch - '0' :
+                    'a' <= ch && 'f' >= ch ? ch - 'a' + 10 :
+                    'A' <= ch && 'F' >= ch ? ch - 'A' + 10 : -1;
+
+            if (0 > digit) {
+
+                throw new NumberFormatException("Invalid hexadecimal digit at position " + index);
+            }
+
+            value = value << 4 | digit;
+        }
+
+        return value;
+    }
+
+    /**
+     * Extracts the label of a line, if any. Same rules apply as for the
+     * {@link AIRALstParser}, standalone labels must not be followed by anything else
+     * than a comment.
+     *
+     * @param buffer The mapped LST file
+     * @param start The start of the line
+     * @param end The end of the line
+     * @return Returns the label or null if the line doesn't contain a label
+     */
+
+    private static String parseLabel(ByteBuffer buffer, int start, int end) {
+
+        int from = start + LABEL_COLUMN;
+
+        if (from >= end || isWhitespace(buffer.get(from)) || ';' == buffer.get(from)) {
+
+            return null;
+        }
+
+        int to = skip(buffer, from, end, false);
+        int next = skip(buffer, to, end, true);
+
+        if (' ' != buffer.get(start) || next == end || ';' == buffer.get(next)) {
+
+            return decode(buffer, from, to);
+        }
+
+        return null;
+    }
+
+    /**
+     * Extracts a symbol defined using <code>equ</code>. Symbols with values that couldn't
+     * be parsed, e.g. expressions, are ignored. Strings are only allocated if the line
+     * defines a symbol.
+     *
+     * @param buffer The mapped LST file
+     * @param start The start of the line
+     * @param end The end of the line
+     * @param symbols The symbols the extracted symbol is added to
+     */
+
+    private static void parseSymbol(ByteBuffer buffer, int start, int end, Map<String, Integer> symbols) {
+
+        int from = start + SOURCE_COLUMN;
+
+        if (from >= end) {
+
+            return;
+        }
+
+        int to = from;
+
+        while (to < end && ';' != buffer.get(to)) {
+
+            ++to;
+        }
+
+        // Expects exactly three tokens, the name, the directive and the value
+
+        int nameStart = skip(buffer, from, to, true);
+        int nameEnd = skip(buffer, nameStart, to, false);
+        int directiveStart = skip(buffer, nameEnd, to, true);
+        int directiveEnd = skip(buffer, directiveStart, to, false);
+        int valueStart = skip(buffer, directiveEnd, to, true);
+        int valueEnd = skip(buffer, valueStart, to, false);
+
+        if (nameStart == nameEnd || valueStart == valueEnd || to != skip(buffer, valueEnd, to, true) ||
+                3 != directiveEnd - directiveStart ||
+                'e' != (buffer.get(directiveStart) | 0x20) ||
+                'q' != (buffer.get(directiveStart + 1) | 0x20) ||
+                'u' != (buffer.get(directiveStart + 2) | 0x20)) {
+
+            return;
+        }
+
+        try {
+
+            int value = AIRALstParser.parseNumber(decode(buffer, valueStart, valueEnd));
+            symbols.put(decode(buffer, nameStart, nameEnd), value);
+
+        } catch (NumberFormatException exc) {
+
+            // Expressions aren't supported, the symbol is just omitted
+        }
+    }
+
+    /**
+     * Skips either whitespaces or a token.
+     *
+     * @param buffer The mapped LST file
+     * @param from The position to start at
+     * @param to The position to stop at the latest
+     * @param whitespace True if whitespaces are skipped, false if a token is skipped
+     * @return Returns the position of the first byte not skipped
+     */
+
+    private static int skip(ByteBuffer buffer, int from, int to, boolean whitespace) {
+
+        while (from < to && whitespace == isWhitespace(buffer.get(from))) {
+
+            ++from;
+        }
+
+        return from;
+    }
+
+    private static boolean isWhitespace(byte ch) {
+
+        return 0 <= ch && ' ' >= ch;
+    }
+
+    private static String decode(ByteBuffer buffer, int from, int to) {
+
+        byte[] bytes = new byte[to - from];
+
+        for (int index = from; index < to; ++index) {
+
+            bytes[index - from] = buffer.get(index);
+        }
+
+        return new String(bytes, Charset.defaultCharset());
+    }
+}
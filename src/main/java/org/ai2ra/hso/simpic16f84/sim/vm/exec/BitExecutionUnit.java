@@ -43,7 +43,10 @@ class BitExecutionUnit
         int address = executor.getFileAddress(instruction);
         RamMemory.Bank bank = executor.getSelectedBank(instruction);
 
-        LOGGER.debug(String.format("BCF: Clears bit %d of value at address 0x%02X in %s", instruction.getArguments()[0], address, bank));
+        if (LOGGER.isDebugEnabled()) {
+
+            LOGGER.debug(String.format("BCF: Clears bit %d of value at address 0x%02X in %s", instruction.getArguments()[0], address, bank));
+        }
 
         byte value = executor.ram.get(bank, address); // Fetch value from given file register
         byte mask = (byte) (0x01 << instruction.getArguments()[0]);
@@ -64,7 +67,10 @@ class BitExecutionUnit
         int address = executor.getFileAddress(instruction);
         RamMemory.Bank bank = executor.getSelectedBank(instruction);
 
-        LOGGER.debug(String.format("BSF: Sets bit %d of value at address 0x%02X in %s", instruction.getArguments()[0], address, bank));
+        if (LOGGER.isDebugEnabled()) {
+
+            LOGGER.debug(String.format("BSF: Sets bit %d of value at address 0x%02X in %s", instruction.getArguments()[0], address, bank));
+        }
 
         byte value = executor.ram.get(bank, address); // Fetch value from given file register
         byte mask = (byte) (0x01 << instruction.getArguments()[0]);
@@ -86,7 +92,10 @@ class BitExecutionUnit
         int address = executor.getFileAddress(instruction);
         RamMemory.Bank bank = executor.getSelectedBank(instruction);
 
-        LOGGER.debug(String.format("BTFSC: Test if bit %d of value at address 0x%02X in %s is clear", instruction.getArguments()[0], address, bank));
+        if (LOGGER.isDebugEnabled()) {
+
+            LOGGER.debug(String.format("BTFSC: Test if bit %d of value at address 0x%02X in %s is clear", instruction.getArguments()[0], address, bank));
+        }
 
         byte value = executor.ram.get(bank, address); // Fetch value from given file register
         byte bit = (byte) (0x01 << instruction.getArguments()[0]);
@@ -115,7 +124,10 @@ class BitExecutionUnit
         int address = executor.getFileAddress(instruction);
         RamMemory.Bank bank = executor.getSelectedBank(instruction);
 
-        LOGGER.debug(String.format("BTFSS: Test if bit %d of value at address 0x%02X in %s is set", instruction.getArguments()[0], address, bank));
+        if (LOGGER.isDebugEnabled()) {
+
+            LOGGER.debug(String.format("BTFSS: Test if bit %d of value at address 0x%02X in %s is set", instruction.getArguments()[0], address, bank));
+        }
 
         byte value = executor.ram.get(bank, address); // Fetch value from given file register
         byte bit = (byte) (0x01 << instruction.getArguments()[0]);
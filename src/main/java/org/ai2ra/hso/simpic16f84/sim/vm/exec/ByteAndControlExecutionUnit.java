@@ -42,7 +42,10 @@ class ByteAndControlExecutionUnit {
         int address = executor.getFileAddress(instruction);
         RamMemory.Bank bank = executor.getSelectedBank(instruction);
 
-        LOGGER.debug(String.format("ADDWF: Adds content at address 0x%02X in %s with working register", address, bank));
+        if (LOGGER.isDebugEnabled()) {
+
+            LOGGER.debug(String.format("ADDWF: Adds content at address 0x%02X in %s with working register", address, bank));
+        }
 
         /*
         Arithmetic operation is processed with unsigned integers for allow
@@ -81,7 +84,10 @@ class ByteAndControlExecutionUnit {
         int address = executor.getFileAddress(instruction);
         RamMemory.Bank bank = executor.getSelectedBank(instruction);
 
-        LOGGER.debug(String.format("ANDWF: Conjuncts content at address 0x%02X in %s with working register", address, bank));
+        if (LOGGER.isDebugEnabled()) {
+
+            LOGGER.debug(String.format("ANDWF: Conjuncts content at address 0x%02X in %s with working register", address, bank));
+        }
 
         byte value = executor.ram.get(bank, address); // Fetch value from given file register
         int result = value & executor.getWorkingRegister();
@@ -113,7 +119,10 @@ class ByteAndControlExecutionUnit {
         int address = executor.getFileAddress(instruction);
         RamMemory.Bank bank = executor.getSelectedBank(instruction);
 
-        LOGGER.debug(String.format("XORWF: Exclusive disjunction of content at address 0x%02X in %s with working register", address, bank));
+        if (LOGGER.isDebugEnabled()) {
+
+            LOGGER.debug(String.format("XORWF: Exclusive disjunction of content at address 0x%02X in %s with working register", address, bank));
+        }
 
         byte value = executor.ram.get(bank, address); // Fetch value from given file register
         int result = value ^ executor.getWorkingRegister();
@@ -145,7 +154,10 @@ class ByteAndControlExecutionUnit {
         int address = executor.getFileAddress(instruction);
         RamMemory.Bank bank = executor.getSelectedBank(instruction);
 
-        LOGGER.debug(String.format("SUBLW: Subtracts content at address 0x%02X in %s from working register", address, bank));
+        if (LOGGER.isDebugEnabled()) {
+
+            LOGGER.debug(String.format("SUBLW: Subtracts content at address 0x%02X in %s from working register", address, bank));
+        }
 
         /*
         Arithmetic operation is processed with unsigned integers for allow
@@ -196,7 +208,10 @@ class ByteAndControlExecutionUnit {
 
         executor.setProgramCounter(executor.stack.pop());
 
-        LOGGER.debug(String.format("RETURN: Return from subroutine to 0x%04X", executor.getProgramCounter()));
+        if (LOGGER.isDebugEnabled()) {
+
+            LOGGER.debug(String.format("RETURN: Return from subroutine to 0x%04X", executor.getProgramCounter()));
+        }
     }
 
     /**
@@ -209,7 +224,10 @@ class ByteAndControlExecutionUnit {
         int address = executor.getFileAddress(instruction);
         RamMemory.Bank bank = executor.getSelectedBank(instruction);
 
-        LOGGER.debug(String.format("MOVWF: Moves data from working register to address 0x%02X in %s", address, bank));
+        if (LOGGER.isDebugEnabled()) {
+
+            LOGGER.debug(String.format("MOVWF: Moves data from working register to address 0x%02X in %s", address, bank));
+        }
 
         // Moving data from W register to 'f' register
         executor.ram.set(bank, address, executor.getWorkingRegister());
@@ -227,7 +245,10 @@ class ByteAndControlExecutionUnit {
         int address = executor.getFileAddress(instruction);
         RamMemory.Bank bank = executor.getSelectedBank(instruction);
 
-        LOGGER.debug(String.format("CLRF: Clears data from register at address 0x%02X in %s", address, bank));
+        if (LOGGER.isDebugEnabled()) {
+
+            LOGGER.debug(String.format("CLRF: Clears data from register at address 0x%02X in %s", address, bank));
+        }
 
         // Moving data from W register to 'f' register
         executor.ram.set(bank, address, (byte) 0x00);
@@ -249,7 +270,10 @@ class ByteAndControlExecutionUnit {
         int address = executor.getFileAddress(instruction);
         RamMemory.Bank bank = executor.getSelectedBank(instruction);
 
-        LOGGER.debug(String.format("COMF: Complementing data from register at address 0x%02X in %s", address, bank));
+        if (LOGGER.isDebugEnabled()) {
+
+            LOGGER.debug(String.format("COMF: Complementing data from register at address 0x%02X in %s", address, bank));
+        }
 
         byte value = executor.ram.get(bank, address); // Fetch value from given file register
         int result = ~value;
@@ -281,7 +305,10 @@ class ByteAndControlExecutionUnit {
         int address = executor.getFileAddress(instruction);
         RamMemory.Bank bank = executor.getSelectedBank(instruction);
 
-        LOGGER.debug(String.format("DECF: Decrements data from register at address 0x%02X in %s", address, bank));
+        if (LOGGER.isDebugEnabled()) {
+
+            LOGGER.debug(String.format("DECF: Decrements data from register at address 0x%02X in %s", address, bank));
+        }
 
         byte value = executor.ram.get(bank, address); // Fetch value from given file register
         int result = value - 1;
@@ -313,7 +340,10 @@ class ByteAndControlExecutionUnit {
         int address = executor.getFileAddress(instruction);
         RamMemory.Bank bank = executor.getSelectedBank(instruction);
 
-        LOGGER.debug(String.format("INCF: Increments data from register at address 0x%02X in %s", address, bank));
+        if (LOGGER.isDebugEnabled()) {
+
+            LOGGER.debug(String.format("INCF: Increments data from register at address 0x%02X in %s", address, bank));
+        }
 
         byte value = executor.ram.get(bank, address); // Fetch value from given file register
         int result = value + 1;
@@ -347,7 +377,10 @@ class ByteAndControlExecutionUnit {
         int address = executor.getFileAddress(instruction);
         RamMemory.Bank bank = executor.getSelectedBank(instruction);
 
-        LOGGER.debug(String.format("MOVF: Moves data from register at address 0x%02X in %s to Working register or itself", address, bank));
+        if (LOGGER.isDebugEnabled()) {
+
+            LOGGER.debug(String.format("MOVF: Moves data from register at address 0x%02X in %s to Working register or itself", address, bank));
+        }
 
         byte value = executor.ram.get(bank, address); // Fetch value from given file register
 
@@ -378,7 +411,10 @@ class ByteAndControlExecutionUnit {
         int address = executor.getFileAddress(instruction);
         RamMemory.Bank bank = executor.getSelectedBank(instruction);
 
-        LOGGER.debug(String.format("IORWF: Inclusive disjunction of content at address 0x%02X in %s with working register", address, bank));
+        if (LOGGER.isDebugEnabled()) {
+
+            LOGGER.debug(String.format("IORWF: Inclusive disjunction of content at address 0x%02X in %s with working register", address, bank));
+        }
 
         byte value = executor.ram.get(bank, address); // Fetch value from given file register
 
@@ -411,7 +447,10 @@ class ByteAndControlExecutionUnit {
         int address = executor.getFileAddress(instruction);
         RamMemory.Bank bank = executor.getSelectedBank(instruction);
 
-        LOGGER.debug(String.format("DECFSZ: Decrements data from register at address 0x%02X in %s", address, bank));
+        if (LOGGER.isDebugEnabled()) {
+
+            LOGGER.debug(String.format("DECFSZ: Decrements data from register at address 0x%02X in %s", address, bank));
+        }
 
         byte value = executor.ram.get(bank, address); // Fetch value from given file register
         int result = value - 1;
@@ -453,7 +492,10 @@ class ByteAndControlExecutionUnit {
          int address = executor.getFileAddress(instruction);
          RamMemory.Bank bank = executor.getSelectedBank(instruction);
 
-         LOGGER.debug(String.format("INCFSZ: Increments data from register at address 0x%02X in %s", address, bank));
+         if (LOGGER.isDebugEnabled()) {
+
+             LOGGER.debug(String.format("INCFSZ: Increments data from register at address 0x%02X in %s", address, bank));
+         }
 
          byte value = executor.ram.get(bank, address); // Fetch value from given file register
          int result = value + 1;
@@ -497,7 +539,10 @@ class ByteAndControlExecutionUnit {
          int address = executor.getFileAddress(instruction);
          RamMemory.Bank bank = executor.getSelectedBank(instruction);
 
-         LOGGER.debug(String.format("RLF: The contents of the register at 0x%02X in %s are rotated one bit to the left through the Carry Flag.", address, bank));
+         if (LOGGER.isDebugEnabled()) {
+
+             LOGGER.debug(String.format("RLF: The contents of the register at 0x%02X in %s are rotated one bit to the left through the Carry Flag.", address, bank));
+         }
 
          byte value = executor.ram.get(bank, address); // Fetch value from given file register
          int newCarryFlag = (value & 0b1000_0000) >> 7;
@@ -551,7 +596,10 @@ class ByteAndControlExecutionUnit {
          int address = executor.getFileAddress(instruction);
          RamMemory.Bank bank = executor.getSelectedBank(instruction);
 
-         LOGGER.debug(String.format("RRF: The contents of the register at 0x%02X in %s are rotated one bit to the right through the Carry Flag.", address, bank));
+         if (LOGGER.isDebugEnabled()) {
+
+             LOGGER.debug(String.format("RRF: The contents of the register at 0x%02X in %s are rotated one bit to the right through the Carry Flag.", address, bank));
+         }
 
          byte value = executor.ram.get(bank, address); // Fetch value from given file register
          int newCarryFlag = value & 0b0000_0001;
@@ -610,7 +658,10 @@ class ByteAndControlExecutionUnit {
         int address = executor.getFileAddress(instruction);
         RamMemory.Bank bank = executor.getSelectedBank(instruction);
 
-        LOGGER.debug(String.format("SWAPF: Exchanges the upper and lower nibbles of register at 0x%02X in %s.", address, bank));
+        if (LOGGER.isDebugEnabled()) {
+
+            LOGGER.debug(String.format("SWAPF: Exchanges the upper and lower nibbles of register at 0x%02X in %s.", address, bank));
+        }
 
         byte value = executor.ram.get(bank, address); // Fetch value from given file register
 
@@ -646,7 +697,10 @@ class ByteAndControlExecutionUnit {
 
         executor.setProgramCounter(executor.stack.pop());
 
-        LOGGER.debug(String.format("RETFIE: Return from Interrupt Service Handler to 0x%04X", executor.getProgramCounter()));
+        if (LOGGER.isDebugEnabled()) {
+
+            LOGGER.debug(String.format("RETFIE: Return from Interrupt Service Handler to 0x%04X", executor.getProgramCounter()));
+        }
     }
 }
 
@@ -1,14 +1,15 @@
 package org.ai2ra.hso.simpic16f84.sim.vm.exec;
 
 import org.ai2ra.hso.simpic16f84.sim.mem.*;
+import org.ai2ra.hso.simpic16f84.sim.prof.ExecutionProfiler;
 import org.ai2ra.hso.simpic16f84.sim.vm.Instruction;
 import org.ai2ra.hso.simpic16f84.sim.vm.InstructionDecoder;
 import org.apache.log4j.Logger;
 
-import java.beans.IndexedPropertyChangeEvent;
-import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
@@ -50,21 +51,33 @@ import java.util.concurrent.locks.ReentrantLock;
 public class InstructionExecutor implements ObservableExecution {
 
     private static final Logger LOGGER;
+    /**
+     * Pre-boxed program memory addresses (13-bit), used for pushing return addresses
+     * onto the stack memory without allocating.
+     */
+    private static final Integer[] ADDRESSES;
 
     // Additional registers and counters
 
     /**
      * Working register used as accumulator.
      */
-    private Byte workingRegister;
+    private byte workingRegister;
     /** Contains the next instruction before it's execution. */
-    private Short instructionRegister;
+    private short instructionRegister;
     /** The instruction pointer that points to the next instruction in program memory. */
-    private Integer programCounter;
+    private int programCounter;
     /** Runtime counter indicates execution time. */
-    private Double runtimeCounter;
+    private double runtimeCounter;
     /** Current quartz frequency, indirectly the execution speed. */
-    private Double frequency;
+    private double frequency;
+    /** Total number of consumed instruction cycles since the last reset. */
+    private long cycleCounter;
+    /**
+     * Address of the last executed instruction (lower 13 bits) combined with the cycle
+     * counter (upper bits), published for being sampled by other threads.
+     */
+    private final AtomicLong sample = new AtomicLong();
 
     // Memory RAM + FLASH + EEPROM (intentionally package-private)
 
@@ -84,6 +97,9 @@ public class InstructionExecutor implements ObservableExecution {
     /** Part of ALU that is responsible for bit operations. */
     private BitExecutionUnit bitExecutionUnit;
 
+    /** Attached profilers notified about the execution flow, null if there isn't one. */
+    private ExecutionProfiler[] profilers;
+
     /** Used for synchronizing the execution flow. */
     private ReentrantLock lock;
     /** Used for supporting property changes of the internal state. */
@@ -92,6 +108,12 @@ public class InstructionExecutor implements ObservableExecution {
     static {
 
         LOGGER = Logger.getLogger(InstructionExecutor.class);
+        ADDRESSES = new Integer[1 << 13];
+
+        for (int address = 0; address < ADDRESSES.length; ++address) {
+
+            ADDRESSES[address] = address;
+        }
     }
 
     /**
@@ -125,8 +147,9 @@ public class InstructionExecutor implements ObservableExecution {
         this.frequency = 4_000_000.0; // 4MHz
         this.runtimeCounter = 0.0;
 
-        // Observe RAM memory for detecting reading/writing the EEPROM
-        this.ram.addPropertyChangeListener(new EepromInteractionListener());
+        // Trap writing the EECON1 register for detecting reading/writing the EEPROM
+        this.ram.addWriteTrap(RamMemory.SFR.EECON1.getBank(), RamMemory.SFR.EECON1.getAddress(),
+                new EepromInteractionTrap());
     }
 
     /**
@@ -175,16 +198,23 @@ public class InstructionExecutor implements ObservableExecution {
                 return programCounter; // Return cycle after ISR is called
             }
 
-            LOGGER.info(String.format("Load OPC from 0x%04X into instruction register (IR)", programCounter));
+            if (LOGGER.isInfoEnabled()) {
+
+                LOGGER.info(String.format("Load OPC from 0x%04X into instruction register (IR)", programCounter));
+            }
 
             // Setters are used to notify observers automatically.
 
-            setInstructionRegister(programMemory.get(programCounter));
+            int address = programCounter;
+            int cycles;
+            Short code = programMemory.get(address);
+
+            setInstructionRegister(null == code ? (short) 0 : code);
             setProgramCounter(programCounter + 1);
 
             // Decode current instruction
 
-            Instruction instruction = InstructionDecoder.decode(null == instructionRegister ? 0 : instructionRegister);
+            Instruction instruction = InstructionDecoder.decode(instructionRegister);
 
             switch (instruction.getOpc()) {
 
@@ -193,43 +223,43 @@ public class InstructionExecutor implements ObservableExecution {
                 case ADDLW: {
 
                     literalExecutionUnit.executeADDLW(instruction);
-                    updateRuntimeCounter(1);
+                    cycles = 1;
                     break;
                 }
                 case ANDLW: {
 
                     literalExecutionUnit.executeANDLW(instruction);
-                    updateRuntimeCounter(1);
+                    cycles = 1;
                     break;
                 }
                 case MOVLW: {
 
                     literalExecutionUnit.executeMOVLW(instruction);
-                    updateRuntimeCounter(1);
+                    cycles = 1;
                     break;
                 }
                 case SUBLW: {
 
                     literalExecutionUnit.executeSUBLW(instruction);
-                    updateRuntimeCounter(1);
+                    cycles = 1;
                     break;
                 }
                 case IORLW: {
 
                     literalExecutionUnit.executeIORLW(instruction);
-                    updateRuntimeCounter(1);
+                    cycles = 1;
                     break;
                 }
                 case XORLW: {
 
                     literalExecutionUnit.executeXORLW(instruction);
-                    updateRuntimeCounter(1);
+                    cycles = 1;
                     break;
                 }
                 case RETLW: {
 
                     literalExecutionUnit.executeRETLW(instruction);
-                    updateRuntimeCounter(2);
+                    cycles = 2;
                     break;
                 }
 
@@ -238,13 +268,13 @@ public class InstructionExecutor implements ObservableExecution {
                 case CALL: {
 
                     jumpExecutionUnit.executeCALL(instruction);
-                    updateRuntimeCounter(2);
+                    cycles = 2;
                     break;
                 }
                 case GOTO: {
 
                     jumpExecutionUnit.executeGOTO(instruction);
-                    updateRuntimeCounter(2);
+                    cycles = 2;
                     break;
                 }
 
@@ -253,121 +283,121 @@ public class InstructionExecutor implements ObservableExecution {
                 case ADDWF: {
 
                     byteAndControlExecutionUnit.executeADDWF(instruction);
-                    updateRuntimeCounter(1);
+                    cycles = 1;
                     break;
                 }
                 case CLRW: {
 
                     byteAndControlExecutionUnit.executeCLRW();
-                    updateRuntimeCounter(1);
+                    cycles = 1;
                     break;
                 }
                 case ANDWF: {
 
                     byteAndControlExecutionUnit.executeANDWF(instruction);
-                    updateRuntimeCounter(1);
+                    cycles = 1;
                     break;
                 }
                 case XORWF: {
 
                     byteAndControlExecutionUnit.executeXORWF(instruction);
-                    updateRuntimeCounter(1);
+                    cycles = 1;
                     break;
                 }
                 case SUBWF: {
 
                     byteAndControlExecutionUnit.executeSUBWF(instruction);
-                    updateRuntimeCounter(1);
+                    cycles = 1;
                     break;
                 }
                 case RETURN: {
 
                     byteAndControlExecutionUnit.executeRETURN();
-                    updateRuntimeCounter(2);
+                    cycles = 2;
                     break;
                 }
                 case MOVWF: {
 
                     byteAndControlExecutionUnit.executeMOVWF(instruction);
-                    updateRuntimeCounter(1);
+                    cycles = 1;
                     break;
                 }
                 case CLRF: {
 
                     byteAndControlExecutionUnit.executeCLRF(instruction);
-                    updateRuntimeCounter(1);
+                    cycles = 1;
                     break;
                 }
                 case COMF: {
 
                     byteAndControlExecutionUnit.executeCOMF(instruction);
-                    updateRuntimeCounter(1);
+                    cycles = 1;
                     break;
                 }
                 case DECF: {
 
                     byteAndControlExecutionUnit.executeDECF(instruction);
-                    updateRuntimeCounter(1);
+                    cycles = 1;
                     break;
                 }
                 case DECFSZ: {
 
                     byteAndControlExecutionUnit.executeDECFSZ(instruction);
-                    updateRuntimeCounter(2);
+                    cycles = address + 1 == programCounter ? 1 : 2; // Two cycles if skipped
                     break;
                 }
                 case INCF: {
 
                     byteAndControlExecutionUnit.executeINCF(instruction);
-                    updateRuntimeCounter(1);
+                    cycles = 1;
                     break;
                 }
                 case INCFSZ: {
 
                     byteAndControlExecutionUnit.executeINCFSZ(instruction);
-                    updateRuntimeCounter(2);
+                    cycles = address + 1 == programCounter ? 1 : 2; // Two cycles if skipped
                     break;
                 }
                 case MOVF: {
 
                     byteAndControlExecutionUnit.executeMOVF(instruction);
-                    updateRuntimeCounter(1);
+                    cycles = 1;
                     break;
                 }
                 case IORWF: {
 
                     byteAndControlExecutionUnit.executeIORWF(instruction);
-                    updateRuntimeCounter(1);
+                    cycles = 1;
                     break;
                 }
                 case RRF: {
 
                     byteAndControlExecutionUnit.executeRRF(instruction);
-                    updateRuntimeCounter(1);
+                    cycles = 1;
                     break;
                 }
                 case RLF: {
 
                     byteAndControlExecutionUnit.executeRLF(instruction);
-                    updateRuntimeCounter(1);
+                    cycles = 1;
                     break;
                 }
                 case NOP: {
 
                     byteAndControlExecutionUnit.executeNOP();
-                    updateRuntimeCounter(1);
+                    cycles = 1;
                     break;
                 }
                 case SWAPF: {
 
                     byteAndControlExecutionUnit.executeSWAPF(instruction);
-                    updateRuntimeCounter(1);
+                    cycles = 1;
                     break;
                 }
                 case RETFIE: {
 
                     byteAndControlExecutionUnit.executeRETFIE(instruction);
-                    updateRuntimeCounter(2);
+                    cycles = 2;
                     break;
                 }
 
@@ -376,25 +406,25 @@ public class InstructionExecutor implements ObservableExecution {
                 case BCF: {
 
                     bitExecutionUnit.executeBCF(instruction);
-                    updateRuntimeCounter(1);
+                    cycles = 1;
                     break;
                 }
                 case BSF: {
 
                     bitExecutionUnit.executeBSF(instruction);
-                    updateRuntimeCounter(1);
+                    cycles = 1;
                     break;
                 }
                 case BTFSC: {
 
                     bitExecutionUnit.executeBTFSC(instruction);
-                    updateRuntimeCounter(2);
+                    cycles = address + 1 == programCounter ? 1 : 2; // Two cycles if skipped
                     break;
                 }
                 case BTFSS: {
 
                     bitExecutionUnit.executeBTFSS(instruction);
-                    updateRuntimeCounter(2);
+                    cycles = address + 1 == programCounter ? 1 : 2; // Two cycles if skipped
                     break;
                 }
                 default: {
@@ -403,6 +433,21 @@ public class InstructionExecutor implements ObservableExecution {
                 }
             }
 
+            updateRuntimeCounter(cycles);
+
+            // Ordered store is sufficient for samplers, avoids a full memory fence per instruction
+
+            cycleCounter += cycles;
+            sample.lazySet(cycleCounter << 13 | address);
+
+            if (null != profilers) {
+
+                for (ExecutionProfiler profiler : profilers) {
+
+                    profiler.executed(address, instruction, cycles);
+                }
+            }
+
         } catch (MemoryIndexOutOfBoundsException exc) {
 
             LOGGER.error("Unimplemented address accessed", exc);
@@ -439,6 +484,17 @@ public class InstructionExecutor implements ObservableExecution {
         setRuntimeCounter(0x00);
         setFrequency(4_000_000.0 /* 4MHz */);
 
+        cycleCounter = 0;
+        sample.set(0);
+
+        if (null != profilers) {
+
+            for (ExecutionProfiler profiler : profilers) {
+
+                profiler.restarted();
+            }
+        }
+
         // Initialize the special function registers
 
         ram.set(RamMemory.SFR.INDF, (byte) 0x00);
@@ -484,6 +540,67 @@ public class InstructionExecutor implements ObservableExecution {
         changes.removePropertyChangeListener(listener);
     }
 
+    /**
+     * Attaches a profiler that is notified about the execution flow. The profiler is
+     * invoked synchronously by the executing thread, so it should be as lightweight as
+     * possible. More than one profiler can be attached at the same time.
+     *
+     * @param profiler The profiler that should be attached
+     */
+
+    public void addProfiler(ExecutionProfiler profiler) {
+
+        lock.lock();
+
+        try {
+
+            // Attached profilers are copied on write, this keeps the execution flow allocation free
+
+            if (null == profilers) {
+
+                profilers = new ExecutionProfiler[]{profiler};
+
+            } else {
+
+                ExecutionProfiler[] attached = Arrays.copyOf(profilers, profilers.length + 1);
+                attached[attached.length - 1] = profiler;
+
+                profilers = attached;
+            }
+
+        } finally {
+
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Detaches a previously attached profiler.
+     *
+     * @param profiler The profiler that should be detached
+     */
+
+    public void removeProfiler(ExecutionProfiler profiler) {
+
+        lock.lock();
+
+        try {
+
+            if (null != profilers) {
+
+                ExecutionProfiler[] remaining = Arrays.stream(profilers)
+                        .filter(attached -> attached != profiler)
+                        .toArray(ExecutionProfiler[]::new);
+
+                profilers = 0 == remaining.length ? null : remaining;
+            }
+
+        } finally {
+
+            lock.unlock();
+        }
+    }
+
     /**
      * Used for changing content of working register. Moreover this method allows
      * notifying all observers.
@@ -491,9 +608,15 @@ public class InstructionExecutor implements ObservableExecution {
      * @param value The value that should be written to working register
      */
 
-    void setWorkingRegister(Byte value) {
+    void setWorkingRegister(byte value) {
+
+        // Events are only created if observed, this keeps the execution flow allocation free
+
+        if (changes.hasListeners(null)) {
+
+            changes.firePropertyChange("workingRegister", Byte.valueOf(workingRegister), Byte.valueOf(value));
+        }
 
-        changes.firePropertyChange("workingRegister", workingRegister, value);
         workingRegister = value;
     }
 
@@ -504,7 +627,7 @@ public class InstructionExecutor implements ObservableExecution {
      */
 
     @Override
-    public Byte getWorkingRegister() {
+    public byte getWorkingRegister() {
 
         return workingRegister;
     }
@@ -517,7 +640,11 @@ public class InstructionExecutor implements ObservableExecution {
 
     private void setRuntimeCounter(double counter) {
 
-        changes.firePropertyChange("runtimeCounter", runtimeCounter, counter);
+        if (changes.hasListeners(null)) {
+
+            changes.firePropertyChange("runtimeCounter", Double.valueOf(runtimeCounter), Double.valueOf(counter));
+        }
+
         runtimeCounter = counter;
     }
 
@@ -533,7 +660,39 @@ public class InstructionExecutor implements ObservableExecution {
         double oldRuntimeCounter = runtimeCounter;
 
         runtimeCounter = runtimeCounter + (timePerCycle * cycles);
-        changes.firePropertyChange("runtimeCounter", oldRuntimeCounter, runtimeCounter);
+
+        if (changes.hasListeners(null)) {
+
+            changes.firePropertyChange("runtimeCounter", Double.valueOf(oldRuntimeCounter),
+                    Double.valueOf(runtimeCounter));
+        }
+    }
+
+    /**
+     * Returns the most recently published execution sample. The lower 13 bits contain
+     * the address of the last executed instruction while the upper bits contain the
+     * number of consumed cycles since the last reset. In contrast to the other getters,
+     * this method is intended to be called from any thread.
+     *
+     * @return Returns the published execution sample
+     */
+
+    @Override
+    public long getExecutionSample() {
+
+        return sample.get();
+    }
+
+    /**
+     * Determines the number of instruction cycles consumed since the last reset.
+     *
+     * @return Returns the number of consumed cycles
+     */
+
+    @Override
+    public long getCycleCounter() {
+
+        return cycleCounter;
     }
 
     /**
@@ -543,7 +702,7 @@ public class InstructionExecutor implements ObservableExecution {
      */
 
     @Override
-    public Double getRuntimeCounter() {
+    public double getRuntimeCounter() {
 
         return runtimeCounter;
     }
@@ -555,7 +714,7 @@ public class InstructionExecutor implements ObservableExecution {
      */
 
     @Override
-    public Double getFrequency() {
+    public double getFrequency() {
 
         return frequency;
     }
@@ -569,7 +728,7 @@ public class InstructionExecutor implements ObservableExecution {
      */
 
     @Override
-    public void setFrequency(Double frequency) throws IllegalArgumentException {
+    public void setFrequency(double frequency) throws IllegalArgumentException {
 
         if (32_000 > frequency || 20_000_000 < frequency) {
 
@@ -586,12 +745,29 @@ public class InstructionExecutor implements ObservableExecution {
      * @param value The value that should be written to program counter
      */
 
-    void setProgramCounter(Integer value) {
+    void setProgramCounter(int value) {
+
+        if (changes.hasListeners(null)) {
+
+            changes.firePropertyChange("programCounter", Integer.valueOf(programCounter), Integer.valueOf(value));
+        }
 
-        changes.firePropertyChange("programCounter", programCounter, value);
         programCounter = value;
     }
 
+    /**
+     * Returns a pre-boxed instance of the given program memory address. This allows
+     * pushing return addresses onto the stack memory without allocating.
+     *
+     * @param address The program memory address, only the lower 13 bits are used
+     * @return Returns the boxed address
+     */
+
+    static Integer boxAddress(int address) {
+
+        return ADDRESSES[address & (ADDRESSES.length - 1)];
+    }
+
     /**
      * Used for fetching the content of the program counter.
      *
@@ -599,7 +775,7 @@ public class InstructionExecutor implements ObservableExecution {
      */
 
     @Override
-    public Integer getProgramCounter() {
+    public int getProgramCounter() {
 
         return programCounter;
     }
@@ -611,9 +787,14 @@ public class InstructionExecutor implements ObservableExecution {
      * @param value The value that should be written to instruction register
      */
 
-    private void setInstructionRegister(Short value) {
+    private void setInstructionRegister(short value) {
+
+        if (changes.hasListeners(null)) {
+
+            changes.firePropertyChange("instructionRegister", Short.valueOf(instructionRegister),
+                    Short.valueOf(value));
+        }
 
-        changes.firePropertyChange("instructionRegister", instructionRegister, value);
         instructionRegister = value;
     }
 
@@ -624,7 +805,7 @@ public class InstructionExecutor implements ObservableExecution {
      */
 
     @Override
-    public Short getInstructionRegister() {
+    public short getInstructionRegister() {
 
         return instructionRegister;
     }
@@ -636,7 +817,11 @@ public class InstructionExecutor implements ObservableExecution {
     @SuppressWarnings("WeakerAccess")
     void setDigitCarryFlag() {
 
-        LOGGER.info("Set 'Digit Carry' (DC) flag inside of STATUS register");
+        if (LOGGER.isInfoEnabled()) {
+
+            LOGGER.info("Set 'Digit Carry' (DC) flag inside of STATUS register");
+        }
+
         ram.set(RamMemory.SFR.STATUS, (byte) (ram.get(RamMemory.SFR.STATUS) | 0b00000010));
     }
 
@@ -647,7 +832,11 @@ public class InstructionExecutor implements ObservableExecution {
     @SuppressWarnings("WeakerAccess")
     void clearDigitCarryFlag() {
 
-        LOGGER.info("Clear 'Digit Carry' (DC) flag inside of STATUS register");
+        if (LOGGER.isInfoEnabled()) {
+
+            LOGGER.info("Clear 'Digit Carry' (DC) flag inside of STATUS register");
+        }
+
         ram.set(RamMemory.SFR.STATUS, (byte) (ram.get(RamMemory.SFR.STATUS) & 0b11111101));
     }
 
@@ -657,7 +846,11 @@ public class InstructionExecutor implements ObservableExecution {
 
     void setCarryFlag() {
 
-        LOGGER.info("Set 'Carry' (C) flag inside of STATUS register");
+        if (LOGGER.isInfoEnabled()) {
+
+            LOGGER.info("Set 'Carry' (C) flag inside of STATUS register");
+        }
+
         ram.set(RamMemory.SFR.STATUS, (byte) (ram.get(RamMemory.SFR.STATUS) | 0b00000001));
     }
 
@@ -667,7 +860,11 @@ public class InstructionExecutor implements ObservableExecution {
 
     void clearCarryFlag() {
 
-        LOGGER.info("Clear 'Carry' (C) flag inside of STATUS register");
+        if (LOGGER.isInfoEnabled()) {
+
+            LOGGER.info("Clear 'Carry' (C) flag inside of STATUS register");
+        }
+
         ram.set(RamMemory.SFR.STATUS, (byte) (ram.get(RamMemory.SFR.STATUS) & 0b11111110));
     }
 
@@ -688,7 +885,11 @@ public class InstructionExecutor implements ObservableExecution {
 
     void setZeroFlag() {
 
-        LOGGER.info("Set 'Zero' (Z) flag inside of STATUS register");
+        if (LOGGER.isInfoEnabled()) {
+
+            LOGGER.info("Set 'Zero' (Z) flag inside of STATUS register");
+        }
+
         ram.set(RamMemory.SFR.STATUS, (byte) (ram.get(RamMemory.SFR.STATUS) | 0b00000100));
     }
 
@@ -699,7 +900,11 @@ public class InstructionExecutor implements ObservableExecution {
     @SuppressWarnings("WeakerAccess")
     void clearZeroFlag() {
 
-        LOGGER.info("Clear 'Zero' (Z) flag inside of STATUS register");
+        if (LOGGER.isInfoEnabled()) {
+
+            LOGGER.info("Clear 'Zero' (Z) flag inside of STATUS register");
+        }
+
         ram.set(RamMemory.SFR.STATUS, (byte) (ram.get(RamMemory.SFR.STATUS) & 0b11111011));
     }
 
@@ -971,9 +1176,12 @@ public class InstructionExecutor implements ObservableExecution {
 
         ram.set(RamMemory.SFR.INTCON, (byte) (ram.get(RamMemory.SFR.INTCON) & 0b0111_1111));
 
-        stack.push(getProgramCounter()); // Save address of next instruction to stack memory
+        stack.push(boxAddress(programCounter)); // Save address of next instruction to stack memory
+
+        if (LOGGER.isInfoEnabled()) {
 
-        LOGGER.info(String.format("Stores return address 0x%04X and calls ISR at 0x%04X", stack.top(), address));
+            LOGGER.info(String.format("Stores return address 0x%04X and calls ISR at 0x%04X", stack.top(), address));
+        }
 
         /*
         Consists out of the opcode/address given as argument and the upper bits
@@ -985,6 +1193,14 @@ public class InstructionExecutor implements ObservableExecution {
         address &= 0b00111_1111_1111; // Clear upper two bits
         address |= pclathBits; // Adding PCLATH
 
+        if (null != profilers) {
+
+            for (ExecutionProfiler profiler : profilers) {
+
+                profiler.interrupted(programCounter, address);
+            }
+        }
+
         setProgramCounter(address);
     }
 
@@ -1027,45 +1243,39 @@ public class InstructionExecutor implements ObservableExecution {
     }
 
     /**
-     * Change listener observing the EECON1 register at first bank for detecting
-     * reading/writing the EEPROM memory.
+     * Write trap of the EECON1 register at first bank for detecting reading/writing
+     * the EEPROM memory.
      */
 
-    private class EepromInteractionListener implements PropertyChangeListener {
+    private class EepromInteractionTrap implements WriteTrap<Byte> {
 
         @Override
-        public void propertyChange(PropertyChangeEvent event) {
+        public void written(RamMemory.Bank bank, int address, Byte oldValue, Byte newValue) {
 
-            if (event instanceof IndexedPropertyChangeEvent) {
+            // Please note: For now WRERR bit is ignored/unused
 
-                int address = ((IndexedPropertyChangeEvent) event).getIndex();
-                RamMemory.Bank bank = "bank0".equals(event.getPropertyName()) ?
-                        RamMemory.Bank.BANK_0 :
-                        RamMemory.Bank.BANK_1;
+            Byte eeaddr = ram.get(RamMemory.SFR.EEADR);
+            eeaddr = null == eeaddr ? 0x00 : eeaddr;
 
-                if (RamMemory.Bank.BANK_1.equals(bank) &&
-                        RamMemory.SFR.EECON1.getAddress() == address) {
+            if (isEepromWritable() && !isEepromWritingFinished()) {
 
-                    // Please note: For now WRERR bit is ignored/unused
+                byte data = ram.get(RamMemory.SFR.EEDATA);
+                eeprom.set(eeaddr, data);
+                writingEepromFinished();
 
-                    Byte eeaddr = ram.get(RamMemory.SFR.EEADR);
-                    eeaddr = null == eeaddr ? 0x00 : eeaddr;
+                if (LOGGER.isInfoEnabled()) {
 
-                    if (isEepromWritable() && !isEepromWritingFinished()) {
-
-                        byte data = ram.get(RamMemory.SFR.EEDATA);
-                        eeprom.set(eeaddr, data);
-                        writingEepromFinished();
+                    LOGGER.info(String.format("Write 0x%02X into EEPROM at 0x%02X", data, eeaddr));
+                }
 
-                        LOGGER.info(String.format("Write 0x%02X into EEPROM at 0x%02X", data, eeaddr));
+            } else if (isEepromReadable()) {
 
-                    } else if (isEepromReadable()) {
+                byte data = eeprom.read(eeaddr);
+                ram.set(RamMemory.SFR.EEDATA, data);
 
-                        byte data = eeprom.get(eeaddr);
-                        ram.set(RamMemory.SFR.EEDATA, data);
+                if (LOGGER.isInfoEnabled()) {
 
-                        LOGGER.info(String.format("Read 0x%02X from EEPROM at 0x%02X", data, eeaddr));
-                    }
+                    LOGGER.info(String.format("Read 0x%02X from EEPROM at 0x%02X", data, eeaddr));
                 }
             }
         }
@@ -44,7 +44,7 @@ class JumpExecutionUnit {
         Save address of next instruction to stack memory
          */
 
-        executor.stack.push(executor.getProgramCounter());
+        executor.stack.push(InstructionExecutor.boxAddress(executor.getProgramCounter()));
 
         /*
         Consists out of the opcode/address given as argument and the upper bits
@@ -59,7 +59,10 @@ class JumpExecutionUnit {
 
         executor.setProgramCounter(address);
 
-        LOGGER.debug(String.format("CALL: Stores return address 0x%04X and calls subroutine at 0x%04X", executor.stack.top(), executor.getProgramCounter()));
+        if (LOGGER.isDebugEnabled()) {
+
+            LOGGER.debug(String.format("CALL: Stores return address 0x%04X and calls subroutine at 0x%04X", executor.stack.top(), executor.getProgramCounter()));
+        }
     }
 
     /**
@@ -83,6 +86,9 @@ class JumpExecutionUnit {
 
         executor.setProgramCounter(address);
 
-        LOGGER.debug(String.format("GOTO: Goes to instruction at 0x%04X", executor.getProgramCounter()));
+        if (LOGGER.isDebugEnabled()) {
+
+            LOGGER.debug(String.format("GOTO: Goes to instruction at 0x%04X", executor.getProgramCounter()));
+        }
     }
 }
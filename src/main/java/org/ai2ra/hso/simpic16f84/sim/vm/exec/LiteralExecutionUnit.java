@@ -41,7 +41,10 @@ class LiteralExecutionUnit {
 
     void executeADDLW(Instruction instruction) {
 
-        LOGGER.debug(String.format("ADDLW: Adds literal 0x%02X to working register", instruction.getArguments()[0]));
+        if (LOGGER.isDebugEnabled()) {
+
+            LOGGER.debug(String.format("ADDLW: Adds literal 0x%02X to working register", instruction.getArguments()[0]));
+        }
 
         executor.checkDigitCarryFlag(0xF < (instruction.getArguments()[0] & 0xF) + (executor.getWorkingRegister() & 0xF));
 
@@ -68,7 +71,10 @@ class LiteralExecutionUnit {
 
     void executeSUBLW(Instruction instruction) {
 
-        LOGGER.debug(String.format("SUBLW: Subtracts literal 0x%02X from working register", instruction.getArguments()[0]));
+        if (LOGGER.isDebugEnabled()) {
+
+            LOGGER.debug(String.format("SUBLW: Subtracts literal 0x%02X from working register", instruction.getArguments()[0]));
+        }
 
         executor.checkDigitCarryFlag(0xF < (instruction.getArguments()[0] & 0xF) + ((~executor.getWorkingRegister() + 1) & 0xF));
 
@@ -93,7 +99,10 @@ class LiteralExecutionUnit {
 
     void executeANDLW(Instruction instruction) {
 
-        LOGGER.debug(String.format("ANDLW: Conjuncts literal 0x%02X with working register", instruction.getArguments()[0]));
+        if (LOGGER.isDebugEnabled()) {
+
+            LOGGER.debug(String.format("ANDLW: Conjuncts literal 0x%02X with working register", instruction.getArguments()[0]));
+        }
 
         int result = instruction.getArguments()[0] & executor.getWorkingRegister();
 
@@ -110,7 +119,10 @@ class LiteralExecutionUnit {
 
     void executeMOVLW(Instruction instruction) {
 
-        LOGGER.debug(String.format("MOVLW: Moves literal 0x%02X into working register", instruction.getArguments()[0]));
+        if (LOGGER.isDebugEnabled()) {
+
+            LOGGER.debug(String.format("MOVLW: Moves literal 0x%02X into working register", instruction.getArguments()[0]));
+        }
 
         executor.setWorkingRegister((byte) instruction.getArguments()[0]);
     }
@@ -124,7 +136,10 @@ class LiteralExecutionUnit {
 
     void executeIORLW(Instruction instruction) {
 
-        LOGGER.debug(String.format("IORLW: Inclusive disjunction of literal 0x%02X with working register", instruction.getArguments()[0]));
+        if (LOGGER.isDebugEnabled()) {
+
+            LOGGER.debug(String.format("IORLW: Inclusive disjunction of literal 0x%02X with working register", instruction.getArguments()[0]));
+        }
 
         int result = instruction.getArguments()[0] | executor.getWorkingRegister();
 
@@ -141,7 +156,10 @@ class LiteralExecutionUnit {
 
     void executeXORLW(Instruction instruction) {
 
-        LOGGER.debug(String.format("XORLW: Exclusive disjunction of literal 0x%02X with working register", instruction.getArguments()[0]));
+        if (LOGGER.isDebugEnabled()) {
+
+            LOGGER.debug(String.format("XORLW: Exclusive disjunction of literal 0x%02X with working register", instruction.getArguments()[0]));
+        }
 
         int result = instruction.getArguments()[0] ^ executor.getWorkingRegister();
 
@@ -163,6 +181,9 @@ class LiteralExecutionUnit {
         executor.setProgramCounter(executor.stack.pop());
         executor.setWorkingRegister((byte) instruction.getArguments()[0]); // Stores return value
 
-        LOGGER.debug(String.format("RETLW: Return from subroutine to 0x%04X with value 0x%02X", executor.getProgramCounter(), instruction.getArguments()[0]));
+        if (LOGGER.isDebugEnabled()) {
+
+            LOGGER.debug(String.format("RETLW: Return from subroutine to 0x%04X with value 0x%02X", executor.getProgramCounter(), instruction.getArguments()[0]));
+        }
     }
 }
@@ -17,7 +17,7 @@ public interface ObservableExecution {
      * @return Returns the current content of the working register
      */
 
-    Byte getWorkingRegister();
+    byte getWorkingRegister();
 
     /**
      * The instruction register contains the next executable instruction before it's
@@ -26,7 +26,7 @@ public interface ObservableExecution {
      * @return Returns the content of the insrtuction register
      */
 
-    Short getInstructionRegister();
+    short getInstructionRegister();
 
     /**
      * Allows read-only access to the program counter (instruction pointer).
@@ -34,7 +34,7 @@ public interface ObservableExecution {
      * @return Returns the current address the instruction pointer is pointing to
      */
 
-    Integer getProgramCounter();
+    int getProgramCounter();
 
     /**
      * Allows fetching the current state of the runtime counter in micro seconds.
@@ -42,7 +42,25 @@ public interface ObservableExecution {
      * @return Returns the current state
      */
 
-    Double getRuntimeCounter();
+    double getRuntimeCounter();
+
+    /**
+     * Fetches the most recently published execution sample, safe to call from any
+     * thread. The lower 13 bits contain the address of the last executed instruction
+     * while the upper bits contain the number of consumed cycles since the last reset.
+     *
+     * @return Returns the published execution sample
+     */
+
+    long getExecutionSample();
+
+    /**
+     * Determines the number of instruction cycles consumed since the last reset.
+     *
+     * @return Returns the number of consumed cycles
+     */
+
+    long getCycleCounter();
 
     /**
      * Determines the current quartz frequency, implicitly the current execution speed.
@@ -50,7 +68,7 @@ public interface ObservableExecution {
      * @return Returns the current quartz frequency
      */
 
-    Double getFrequency();
+    double getFrequency();
 
     /**
      * First and only setter inside a non-invasive observer interface. This allows
@@ -60,7 +78,7 @@ public interface ObservableExecution {
      * @throws IllegalArgumentException Thrown if invalid frequency is provided
      */
 
-    void setFrequency(Double frequency) throws IllegalArgumentException;
+    void setFrequency(double frequency) throws IllegalArgumentException;
 
     /**
      * Adds a change listener <b>only</b> for observing the executor's state. This pattern
@@ -0,0 +1,218 @@
+package org.ai2ra.hso.simpic16f84.ui.component;
+
+import javafx.animation.AnimationTimer;
+import javafx.collections.FXCollections;
+import javafx.collections.transformation.FilteredList;
+import javafx.css.PseudoClass;
+import javafx.event.ActionEvent;
+import javafx.fxml.FXML;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.control.ChoiceBox;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.BorderPane;
+import org.ai2ra.hso.simpic16f84.ui.model.LogEntry;
+import org.ai2ra.hso.simpic16f84.ui.util.RingBufferList;
+import org.apache.log4j.Level;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read-only log viewer component with level filtering and search. Only the newest
+ * messages are kept, bounded by the capacity. Messages are rendered by a virtualized
+ * list, so only the visible messages are laid out, no matter how many are kept.
+ *
+ * <p>
+ *     Messages might be appended from any thread. They're queued and applied in a
+ *     single batch once per JavaFX pulse. The queue is bounded by the capacity as well,
+ *     while the pulse is delayed only the newest messages are queued, the oldest ones
+ *     would be dropped by the next batch anyway. The view follows new messages unless a
+ *     message is selected.
+ * </p>
+ *
+ * @author 0x1C1B
+ * @see RingBufferList
+ */
+
+public class LogViewer extends BorderPane {
+
+    /** Default number of kept messages. */
+    public static final int DEFAULT_CAPACITY = 10_000;
+
+    private static final PseudoClass DEBUG = PseudoClass.getPseudoClass("debug");
+    private static final PseudoClass WARN = PseudoClass.getPseudoClass("warn");
+    private static final PseudoClass ERROR = PseudoClass.getPseudoClass("error");
+
+    @FXML private ChoiceBox<Level> levelFilter;
+    @FXML private TextField searchField;
+    @FXML private ListView<LogEntry> entries;
+
+    private final Queue<LogEntry> pending;
+    /** Number of queued messages, the queue's size isn't computed in constant time. */
+    private final AtomicInteger pendingCount;
+    private final int capacity;
+    private final RingBufferList<LogEntry> log;
+    private final FilteredList<LogEntry> filtered;
+
+    public LogViewer() {
+
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a new log viewer.
+     *
+     * @param capacity The maximum number of kept messages
+     * @throws IllegalArgumentException Thrown if the capacity isn't positive
+     */
+
+    public LogViewer(int capacity) throws IllegalArgumentException {
+
+        // Load view
+
+        FXMLLoader loader = new FXMLLoader(getClass().getResource("/component/LogViewer.fxml"));
+        loader.setRoot(this);
+        loader.setController(this);
+
+        try {
+
+            loader.load();
+
+        } catch(IOException exc) {
+
+            throw new RuntimeException(exc);
+        }
+
+        log = new RingBufferList<>(capacity);
+        pending = new ConcurrentLinkedQueue<>();
+        pendingCount = new AtomicInteger();
+        this.capacity = capacity;
+        filtered = new FilteredList<>(log);
+
+        entries.setItems(filtered);
+        entries.setCellFactory(param -> new LogCell());
+
+        // Filter is applied to kept messages as well as appended ones
+
+        levelFilter.setItems(FXCollections.observableArrayList(Level.DEBUG, Level.INFO, Level.WARN, Level.ERROR));
+        levelFilter.setValue(Level.DEBUG);
+        levelFilter.valueProperty().addListener((observable, oldLevel, level) -> updateFilter());
+        searchField.textProperty().addListener((observable, oldText, text) -> updateFilter());
+
+        new AnimationTimer() {
+
+            @Override
+            public void handle(long now) {
+
+                flush();
+            }
+        }.start();
+    }
+
+    /**
+     * Appends a message, might be called from any thread. The message is shown with
+     * the next pulse. If the capacity is exceeded until then, the oldest queued message
+     * is dropped.
+     *
+     * @param entry The appended message
+     */
+
+    public void append(LogEntry entry) {
+
+        pending.offer(entry);
+
+        int count = pendingCount.incrementAndGet();
+
+        // Every removed message is uncounted, so concurrent appends never drop too many
+
+        while (capacity < count && null != pending.poll()) {
+
+            count = pendingCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * Removes all kept messages.
+     */
+
+    public void clear() {
+
+        while (null != pending.poll()) {
+
+            pendingCount.decrementAndGet();
+        }
+
+        log.clear();
+    }
+
+    @FXML
+    private void onClearAction(ActionEvent event) {
+
+        clear();
+    }
+
+    /**
+     * Applies all queued messages as a single batch.
+     */
+
+    private void flush() {
+
+        if (pending.isEmpty()) {
+
+            return;
+        }
+
+        List<LogEntry> batch = new ArrayList<>();
+        LogEntry entry;
+
+        while (null != (entry = pending.poll())) {
+
+            pendingCount.decrementAndGet();
+            batch.add(entry);
+        }
+
+        log.append(batch);
+
+        if (!filtered.isEmpty() && entries.getSelectionModel().isEmpty()) {
+
+            entries.scrollTo(filtered.size() - 1);
+        }
+    }
+
+    private void updateFilter() {
+
+        Level level = null == levelFilter.getValue() ? Level.DEBUG : levelFilter.getValue();
+        String search = null == searchField.getText() ? "" : searchField.getText().toLowerCase(Locale.ROOT);
+
+        filtered.setPredicate(entry -> entry.getLevel().isGreaterOrEqual(level) &&
+                (search.isEmpty() || entry.getMessage().toLowerCase(Locale.ROOT).contains(search)));
+    }
+
+    /**
+     * Cell of a single message, highlighted depending on its level.
+     */
+
+    private static class LogCell extends ListCell<LogEntry> {
+
+        @Override
+        protected void updateItem(LogEntry item, boolean empty) {
+
+            super.updateItem(item, empty);
+
+            Level level = empty || null == item ? null : item.getLevel();
+
+            setText(null == level ? null : item.getMessage().trim());
+
+            pseudoClassStateChanged(DEBUG, null != level && !level.isGreaterOrEqual(Level.INFO));
+            pseudoClassStateChanged(WARN, null != level && Level.WARN.equals(level));
+            pseudoClassStateChanged(ERROR, null != level && level.isGreaterOrEqual(Level.ERROR));
+        }
+    }
+}
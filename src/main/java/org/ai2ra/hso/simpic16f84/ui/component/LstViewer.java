@@ -1,8 +1,11 @@
 package org.ai2ra.hso.simpic16f84.ui.component;
 
+import javafx.application.Platform;
 import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SetProperty;
 import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleSetProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableSet;
@@ -14,24 +17,31 @@ import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyCodeCombination;
 import javafx.scene.input.KeyCombination;
 import javafx.scene.layout.HBox;
+import org.ai2ra.hso.simpic16f84.sim.vm.DebugInfo;
 import org.ai2ra.hso.simpic16f84.ui.util.BreakpointFactory;
+import org.ai2ra.hso.simpic16f84.ui.util.HeatmapFactory;
 import org.ai2ra.hso.simpic16f84.ui.util.LineIndicatorFactory;
 import org.ai2ra.hso.simpic16f84.ui.util.SyntaxHighlighting;
 import org.fxmisc.richtext.CodeArea;
 import org.fxmisc.richtext.LineNumberFactory;
+import org.fxmisc.richtext.model.PlainTextChange;
+import org.fxmisc.richtext.model.StyleSpans;
 import org.fxmisc.richtext.model.TwoDimensional;
 import org.fxmisc.wellbehaved.event.InputMap;
 import org.fxmisc.wellbehaved.event.Nodes;
 
 import java.io.IOException;
-import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.IntFunction;
 
 import static org.fxmisc.wellbehaved.event.EventPattern.keyPressed;
 
 /**
  * Read-only LST file viewer component with syntax highlighting and support
- * for breakpoints.
+ * for breakpoints as well as a profiling heatmap.
  *
  * @see CodeArea
  * @author 0x1C1B
@@ -39,8 +49,38 @@ import static org.fxmisc.wellbehaved.event.EventPattern.keyPressed;
 
 public class LstViewer extends CodeArea {
 
+    /** Executor shared by all viewers for computing the syntax highlighting. */
+    private static final ExecutorService HIGHLIGHTER = Executors.newSingleThreadExecutor(runnable -> {
+
+        Thread thread = new Thread(runnable, "Syntax Highlighting");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private SetProperty<Integer> breakpoints;
     private IntegerProperty indicator;
+    /** Relative cycle consumption per address between 0 and 1, null if disabled. */
+    private ObjectProperty<double[]> heatmap;
+    /** Debug information of the shown LST file, null if not available. */
+    private ObjectProperty<DebugInfo<?>> debugInfo;
+
+    /** Paragraphs that have to be highlighted. */
+    private ParagraphRange dirty;
+    /** Paragraphs currently highlighted in background, empty if none. */
+    private ParagraphRange highlighting;
+    /** Position of the text currently highlighted in background, following text changes. */
+    private int highlightStart;
+    private int highlightEnd;
+    /** Indicates that the text currently highlighted in background was changed meanwhile. */
+    private boolean highlightStale;
+
+    /**
+     * Classification of every line, maintained on text changes. Lines containing machine
+     * instructions hold the address in the upper and the instruction in the lower half,
+     * other lines hold -1.
+     */
+    private int[] lines;
+    private int lineCount;
 
     public LstViewer() {
 
@@ -65,14 +105,18 @@ public class LstViewer extends CodeArea {
 
         breakpoints = new SimpleSetProperty<>(FXCollections.observableSet());
         indicator = new SimpleIntegerProperty();
+        heatmap = new SimpleObjectProperty<>();
+        debugInfo = new SimpleObjectProperty<>();
 
+        IntFunction<Node> heatmapFactory = new HeatmapFactory(this);
         IntFunction<Node> numberFactory = LineNumberFactory.get(this);
         IntFunction<Node> indicatorFactory = new LineIndicatorFactory(this);
         IntFunction<Node> breakpointFactory = new BreakpointFactory(this);
 
         IntFunction<Node> graphicFactory = line -> {
 
-            HBox hbox = new HBox(numberFactory.apply(line),
+            HBox hbox = new HBox(heatmapFactory.apply(line),
+                    numberFactory.apply(line),
                     indicatorFactory.apply(line),
                     breakpointFactory.apply(line));
 
@@ -90,22 +134,17 @@ public class LstViewer extends CodeArea {
 
         Nodes.addInputMap(this, inputMap);
 
-        // Enable syntax highlighting, updated all 500 ms after typing is stopped/ text is set
-
-        this.multiPlainChanges()
-                .successionEnds(Duration.ofMillis(500))
-                .subscribe(change -> this.setStyleSpans(0, SyntaxHighlighting.compute(this.getText())));
+        // Enable syntax highlighting, only changed paragraphs are highlighted in background
 
-        // Resets breakpoints and line indicator if new LST file is loaded
+        dirty = new ParagraphRange();
+        highlighting = new ParagraphRange();
 
-        this.textProperty().addListener((observable, oldValue, newValue) -> {
+        // Classifies changed lines, the initial text is a single empty line
 
-            // Clear all breakpoints for the new program
-            breakpoints.clear();
+        lines = new int[] { -1 };
+        lineCount = 1;
 
-            // Sets the line indicator to first valid execution line
-            indicator.set(addressToLineNumber(0x00));
-        });
+        this.plainTextChanges().subscribe(this::onTextChange);
     }
 
     public ObservableSet<Integer> getBreakpoints() {
@@ -133,6 +172,82 @@ public class LstViewer extends CodeArea {
         return indicator;
     }
 
+    public double[] getHeatmap() {
+
+        return heatmap.get();
+    }
+
+    public ObjectProperty<double[]> heatmapProperty() {
+
+        return heatmap;
+    }
+
+    /**
+     * Updates the heatmap using the consumed cycles per address. The values are
+     * normalized to the most expensive address, passing <code>null</code> hides
+     * the heatmap.
+     *
+     * @param cycles The consumed cycles indexed by address or null
+     */
+
+    public void setHeatmap(long[] cycles) {
+
+        if (null == cycles) {
+
+            heatmap.set(null);
+            return;
+        }
+
+        long max = Math.max(1, Arrays.stream(cycles).max().orElse(1));
+
+        heatmap.set(Arrays.stream(cycles).mapToDouble(count -> (double) count / max).toArray());
+    }
+
+    public DebugInfo<?> getDebugInfo() {
+
+        return debugInfo.get();
+    }
+
+    public ObjectProperty<DebugInfo<?>> debugInfoProperty() {
+
+        return debugInfo;
+    }
+
+    /**
+     * Sets the debug information of the shown LST file. If available, it's used for
+     * converting between addresses and line numbers in constant time. Otherwise the
+     * text is scanned. It's reset together with the text, see {@link LstViewer#reset()}.
+     *
+     * @param debugInfo The debug information of the shown LST file or null
+     */
+
+    public void setDebugInfo(DebugInfo<?> debugInfo) {
+
+        this.debugInfo.set(debugInfo);
+
+        if (null != debugInfo && 0 <= debugInfo.getLine(0x00)) {
+
+            indicator.set(debugInfo.getLine(0x00));
+        }
+    }
+
+    /**
+     * Removes the shown LST file together with its debug information, breakpoints and
+     * line indicator. Afterwards a new LST file might be appended, even piece by piece
+     * while it's read.
+     */
+
+    public void reset() {
+
+        // Debug information belongs to the previous program
+        debugInfo.set(null);
+        // Clear all breakpoints for the new program
+        breakpoints.clear();
+
+        indicator.set(0);
+        this.replaceText("");
+    }
+
     /**
      * Sets the indicator line to the given one. If the given line is invalid because it
      * doesn't contain machine instructions, the method rejects.
@@ -165,18 +280,101 @@ public class LstViewer extends CodeArea {
 
     public int addressToLineNumber(int address) {
 
-        for (int lineNumber = 1; lineNumber < this.getParagraphs().size(); ++lineNumber) {
+        DebugInfo<?> info = debugInfo.get();
 
-            if (hasMachineInstructions(lineNumber)) {
+        if (null != info) {
 
-                if (Integer.parseInt(this.getText(lineNumber).substring(0, 4), 16) == address) {
+            int lineNumber = info.getLine(address);
 
-                    return lineNumber;
-                }
+            if (0 > lineNumber) {
+
+                throw new IllegalStateException("Address doesn't exist");
+            }
+
+            return lineNumber;
+        }
+
+        int lineNumber = findLineNumber(address);
+
+        if (0 > lineNumber) {
+
+            throw new IllegalStateException("Address doesn't exist");
+        }
+
+        return lineNumber;
+    }
+
+    /**
+     * Searches the line containing the given address inside of the line classification.
+     *
+     * @param address The machine instruction address
+     * @return Returns the number of line or -1 if no line with address was found
+     */
+
+    private int findLineNumber(int address) {
+
+        for (int lineNumber = 1; lineNumber < lineCount; ++lineNumber) {
+
+            if (0 <= lines[lineNumber] && lines[lineNumber] >>> 16 == address) {
+
+                return lineNumber;
             }
         }
 
-        throw new IllegalStateException("Address doesn't exist");
+        return -1;
+    }
+
+    /**
+     * Converts a given line number to the address of the machine instruction contained
+     * inside of this line.
+     *
+     * @param lineNumber The line number to convert
+     * @return Returns the address or -1 if the line doesn't contain machine instructions
+     */
+
+    public int lineNumberToAddress(int lineNumber) {
+
+        DebugInfo<?> info = debugInfo.get();
+
+        if (null != info) {
+
+            return info.getAddress(lineNumber);
+        }
+
+        if (!hasMachineInstructions(lineNumber)) {
+
+            return -1;
+        }
+
+        return lines[lineNumber] >>> 16;
+    }
+
+    /**
+     * Determines the machine instruction of a line, as shown inside of the LST file.
+     *
+     * @param lineNumber The line number
+     * @return Returns the instruction or -1 if the line doesn't contain machine instructions
+     */
+
+    public int lineNumberToInstruction(int lineNumber) {
+
+        if (0 > lineNumber || lineCount <= lineNumber || 0 > lines[lineNumber]) {
+
+            return -1;
+        }
+
+        return lines[lineNumber] & 0xFFFF;
+    }
+
+    /**
+     * Determines the line of the current caret position.
+     *
+     * @return Returns the zero based line number
+     */
+
+    public int getCaretLineNumber() {
+
+        return this.offsetToPosition(this.getCaretPosition(), TwoDimensional.Bias.Forward).getMajor();
     }
 
     /**
@@ -188,8 +386,7 @@ public class LstViewer extends CodeArea {
 
     public void toggleBreakpoint() {
 
-        int lineNumber = this.offsetToPosition(
-                this.getCaretPosition(), TwoDimensional.Bias.Forward).getMajor();
+        int lineNumber = getCaretLineNumber();
 
         // Allow breakpoints only for lines containing machine instructions
 
@@ -206,6 +403,167 @@ public class LstViewer extends CodeArea {
         }
     }
 
+    private void onTextChange(PlainTextChange change) {
+
+        int paragraph = this.offsetToPosition(change.getPosition(), TwoDimensional.Bias.Forward).getMajor();
+        int removed = lineBreaks(change.getRemoved());
+        int inserted = lineBreaks(change.getInserted());
+
+        // Changes in front of the highlighted text just move it, the result stays valid
+
+        if (!highlighting.isEmpty()) {
+
+            int end = change.getPosition() + change.getRemoved().length();
+            int delta = change.getInserted().length() - change.getRemoved().length();
+
+            if (highlightStart >= end) {
+
+                highlightStart += delta;
+                highlightEnd += delta;
+
+            } else if (highlightEnd > change.getPosition()) {
+
+                highlightStale = true;
+            }
+        }
+
+        dirty.shift(paragraph, removed, inserted);
+        highlighting.shift(paragraph, removed, inserted);
+        dirty.include(paragraph, paragraph + inserted + 1);
+
+        highlight();
+        classify(paragraph, removed, inserted);
+    }
+
+    /**
+     * Replaces the classification of the changed lines. Only the changed lines are
+     * parsed, the classification of the other lines is moved.
+     *
+     * @param paragraph The first changed line
+     * @param removed The number of removed line breaks
+     * @param inserted The number of inserted line breaks
+     */
+
+    private void classify(int paragraph, int removed, int inserted) {
+
+        int count = lineCount - removed + inserted;
+
+        if (lines.length < count) {
+
+            lines = Arrays.copyOf(lines, Math.max(count, lines.length * 2));
+        }
+
+        System.arraycopy(lines, paragraph + removed + 1, lines, paragraph + inserted + 1,
+                lineCount - paragraph - removed - 1);
+
+        for (int lineNumber = paragraph; lineNumber <= paragraph + inserted; ++lineNumber) {
+
+            lines[lineNumber] = classify(this.getText(lineNumber));
+        }
+
+        lineCount = count;
+    }
+
+    /**
+     * Parses a single line, that contains machine instructions if it starts with the
+     * four digit hexadecimal address, followed by a space and the four digit hexadecimal
+     * instruction.
+     *
+     * @param line The line to parse
+     * @return Returns the address and the instruction or -1 if there are no machine instructions
+     */
+
+    private static int classify(String line) {
+
+        if (9 > line.length() || ' ' != line.charAt(4)) {
+
+            return -1;
+        }
+
+        int address = parseHex(line, 0);
+        int instruction = parseHex(line, 5);
+
+        return 0 > address || 0 > instruction ? -1 : address << 16 | instruction;
+    }
+
+    private static int parseHex(String line, int start) {
+
+        int value = 0;
+
+        for (int index = start; index < start + 4; ++index) {
+
+            int digit = Character.digit(line.charAt(index), 16);
+
+            if (0 > digit) {
+
+                return -1;
+            }
+
+            value = value << 4 | digit;
+        }
+
+        return value;
+    }
+
+    /**
+     * Highlights the dirty paragraphs in background, unless a highlighting is already
+     * in progress. The result is applied at the current position of the highlighted
+     * text, unless the text itself was changed meanwhile. Then the paragraphs are
+     * highlighted again.
+     */
+
+    private void highlight() {
+
+        if (dirty.isEmpty() || !highlighting.isEmpty()) {
+
+            return;
+        }
+
+        int from = Math.min(dirty.getFrom(), this.getParagraphs().size() - 1);
+        int to = Math.min(dirty.getTo(), this.getParagraphs().size());
+
+        dirty.clear();
+        highlighting.include(from, to);
+
+        highlightStart = this.getAbsolutePosition(from, 0);
+        highlightEnd = this.getAbsolutePosition(to - 1, this.getParagraphLength(to - 1));
+        highlightStale = false;
+
+        String text = this.getText(highlightStart, highlightEnd);
+
+        HIGHLIGHTER.execute(() -> {
+
+            StyleSpans<Collection<String>> spans = SyntaxHighlighting.compute(text);
+
+            Platform.runLater(() -> {
+
+                if (!highlightStale) {
+
+                    this.setStyleSpans(highlightStart, spans);
+
+                } else {
+
+                    dirty.include(highlighting.getFrom(), highlighting.getTo());
+                }
+
+                highlighting.clear();
+                highlight();
+            });
+        });
+    }
+
+    private static int lineBreaks(String text) {
+
+        int count = 0;
+
+        for (int index = text.indexOf('\n'); 0 <= index; index = text.indexOf('\n', index + 1)) {
+
+            ++count;
+        }
+
+        return count;
+    }
+
     /**
      * Checks whether a line contains machine instructions or not. That's the
      * prerequisite for setting breakpoints or the indicator to it.
@@ -216,6 +574,86 @@ public class LstViewer extends CodeArea {
 
     private boolean hasMachineInstructions(int lineNumber) {
 
-        return this.getText(lineNumber).matches("^[0-9a-fA-F]{4} [0-9a-fA-F]{4}.*$");
+        DebugInfo<?> info = debugInfo.get();
+
+        if (null != info) {
+
+            return 0 <= info.getAddress(lineNumber);
+        }
+
+        return 0 <= lineNumber && lineCount > lineNumber && 0 <= lines[lineNumber];
+    }
+
+    /**
+     * Range of paragraphs, from inclusive to exclusive, following text changes.
+     */
+
+    private static class ParagraphRange {
+
+        private int from;
+        private int to;
+
+        int getFrom() {
+
+            return from;
+        }
+
+        int getTo() {
+
+            return to;
+        }
+
+        boolean isEmpty() {
+
+            return from >= to;
+        }
+
+        void clear() {
+
+            from = 0;
+            to = 0;
+        }
+
+        void include(int from, int to) {
+
+            if (isEmpty()) {
+
+                this.from = from;
+                this.to = to;
+
+            } else {
+
+                this.from = Math.min(this.from, from);
+                this.to = Math.max(this.to, to);
+            }
+        }
+
+        /**
+         * Moves the range according to a text change. If the range overlaps the change,
+         * it's extended by the changed paragraphs.
+         *
+         * @param paragraph The first changed paragraph
+         * @param removed The number of removed line breaks
+         * @param inserted The number of inserted line breaks
+         */
+
+        void shift(int paragraph, int removed, int inserted) {
+
+            if (isEmpty() || to <= paragraph) {
+
+                return;
+            }
+
+            if (from > paragraph + removed) {
+
+                from += inserted - removed;
+                to += inserted - removed;
+
+            } else {
+
+                from = Math.min(from, paragraph);
+                to = Math.max(to + inserted - removed, paragraph + inserted + 1);
+            }
+        }
     }
-}
+}
\ No newline at end of file
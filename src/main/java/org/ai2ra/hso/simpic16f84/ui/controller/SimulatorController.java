@@ -1,11 +1,16 @@
 package org.ai2ra.hso.simpic16f84.ui.controller;
 
+import javafx.animation.AnimationTimer;
 import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
+import javafx.beans.binding.BooleanBinding;
 import javafx.beans.property.*;
 import javafx.beans.property.adapter.ReadOnlyJavaBeanBooleanPropertyBuilder;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.beans.value.WeakChangeListener;
 import javafx.collections.FXCollections;
-import javafx.collections.transformation.FilteredList;
+import javafx.collections.SetChangeListener;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
@@ -13,17 +18,36 @@ import javafx.geometry.Pos;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.AnchorPane;
+import javafx.scene.paint.Color;
 import javafx.stage.FileChooser;
 import javafx.util.StringConverter;
 import org.ai2ra.hso.simpic16f84.sim.Pic16F84VM;
+import org.ai2ra.hso.simpic16f84.sim.SimulationListener;
+import org.ai2ra.hso.simpic16f84.sim.SimulationThread;
+import org.ai2ra.hso.simpic16f84.sim.debug.BreakpointSet;
+import org.ai2ra.hso.simpic16f84.sim.debug.Expression;
+import org.ai2ra.hso.simpic16f84.sim.debug.ExpressionCompiler;
+import org.ai2ra.hso.simpic16f84.sim.debug.LogBuffer;
+import org.ai2ra.hso.simpic16f84.sim.debug.Logpoint;
+import org.ai2ra.hso.simpic16f84.sim.debug.Stepping;
+import org.ai2ra.hso.simpic16f84.sim.mem.ObservableMemory;
 import org.ai2ra.hso.simpic16f84.sim.mem.RamMemory;
+import org.ai2ra.hso.simpic16f84.sim.prof.AddressProfiler;
+import org.ai2ra.hso.simpic16f84.sim.prof.CallGraphProfiler;
+import org.ai2ra.hso.simpic16f84.sim.prof.SamplingProfiler;
+import org.ai2ra.hso.simpic16f84.sim.vm.exec.ObservableExecution;
+import org.ai2ra.hso.simpic16f84.ui.component.LogViewer;
 import org.ai2ra.hso.simpic16f84.ui.component.LstViewer;
 import org.ai2ra.hso.simpic16f84.ui.model.GeneralPurposeRegister;
 import org.ai2ra.hso.simpic16f84.ui.model.SpecialFunctionRegister;
 import org.ai2ra.hso.simpic16f84.ui.model.StatusRegister;
-import org.ai2ra.hso.simpic16f84.ui.service.*;
+import org.ai2ra.hso.simpic16f84.ui.model.WatchExpression;
+import org.ai2ra.hso.simpic16f84.ui.model.Watchpoint;
+import org.ai2ra.hso.simpic16f84.ui.service.LstReaderService;
 import org.ai2ra.hso.simpic16f84.ui.util.ApplicationDialog;
-import org.ai2ra.hso.simpic16f84.ui.util.TextAreaAppender;
+import org.ai2ra.hso.simpic16f84.ui.util.DirtySet;
+import org.ai2ra.hso.simpic16f84.ui.util.HeatmapFactory;
+import org.ai2ra.hso.simpic16f84.ui.util.LogViewerAppender;
 import org.apache.log4j.Level;
 import org.apache.log4j.Logger;
 import org.kordamp.ikonli.javafx.FontIcon;
@@ -32,11 +56,23 @@ import java.beans.IndexedPropertyChangeEvent;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
 import java.net.URL;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.ResourceBundle;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -49,10 +85,24 @@ import java.util.stream.IntStream;
 
 public class SimulatorController implements Initializable {
 
+    /** Logger the snapshots of logpoints are written to. */
+    private static final Logger LOGPOINT_LOGGER;
+
+    // Indices of the dirty execution state, besides memory
+
+    private static final int WORKING_REGISTER = 0;
+    private static final int INSTRUCTION_REGISTER = 1;
+    private static final int RUNTIME_COUNTER = 2;
+    private static final int STACK = 3;
+    private static final int DRIFT = 4;
+
+    /** Time between two heatmap updates while executing in nanoseconds. */
+    private static final long HEATMAP_INTERVAL = TimeUnit.MILLISECONDS.toNanos(250);
+
     private LstViewer lstViewer;
 
     @FXML private AnchorPane contentPane;
-    @FXML private TextArea logViewer;
+    @FXML private AnchorPane logPane;
     @FXML private ToggleGroup logLevel;
     @FXML private Label lstFileName;
 
@@ -61,10 +111,21 @@ public class SimulatorController implements Initializable {
     @FXML private Button nextStepTool;
     @FXML private Button runTool;
     @FXML private Button stopTool;
+    @FXML private Button pauseTool;
+    @FXML private Button stepOverTool;
+    @FXML private Button stepOutTool;
 
     @FXML private MenuItem nextStepOption;
     @FXML private MenuItem runOption;
     @FXML private MenuItem stopOption;
+    @FXML private MenuItem pauseOption;
+    @FXML private MenuItem stepOverOption;
+    @FXML private MenuItem stepOutOption;
+    @FXML private MenuItem runToCursorOption;
+    @FXML private CheckMenuItem realTimeOption;
+    @FXML private CheckMenuItem profilerOption;
+    @FXML private CheckMenuItem samplingOption;
+    @FXML private CheckMenuItem accessOption;
 
     // STATUS register representation
 
@@ -90,6 +151,11 @@ public class SimulatorController implements Initializable {
     @FXML TableColumn<GeneralPurposeRegister, String> gprAddress;
     @FXML TableColumn<GeneralPurposeRegister, String> gprValue;
     @FXML TableColumn<GeneralPurposeRegister, GeneralPurposeRegister> gprOptions;
+
+    /** Rows of the register tables indexed by physical location, null if there's no row. */
+    private SpecialFunctionRegister[] sfrRows;
+    private GeneralPurposeRegister[] gprRows;
+    private StatusRegister status;
     @FXML Spinner<Integer> addressField;
 
     // Address stack components
@@ -106,6 +172,9 @@ public class SimulatorController implements Initializable {
     @FXML Label runtimeCounter;
     @FXML Slider frequency;
     @FXML Label frequencyDisplay;
+    @FXML Label driftDisplay;
+    @FXML Slider speed;
+    @FXML Label speedDisplay;
 
     // I/O Pin representation
 
@@ -128,23 +197,68 @@ public class SimulatorController implements Initializable {
 
     @FXML TableView<Byte[]> eeprom;
 
+    // Watch expressions related components
+
+    @FXML TextField watchField;
+    @FXML TableView<WatchExpression> watches;
+    @FXML TableColumn<WatchExpression, String> watchSource;
+    @FXML TableColumn<WatchExpression, String> watchValue;
+    @FXML TableColumn<WatchExpression, WatchExpression> watchOptions;
+
+    // Data watchpoints related components
+
+    @FXML ChoiceBox<String> watchpointMemory;
+    @FXML TextField watchpointAddress;
+    @FXML TextField watchpointCondition;
+    @FXML TableView<Watchpoint> watchpoints;
+    @FXML TableColumn<Watchpoint, String> watchpointLocation;
+    @FXML TableColumn<Watchpoint, String> watchpointConditionColumn;
+    @FXML TableColumn<Watchpoint, Watchpoint> watchpointOptions;
+
     // Simulator related utilities
 
     private Pic16F84VM simulator;
     private ReadOnlyBooleanProperty runningProperty;
     private ReadOnlyBooleanProperty loadedProperty;
     private BooleanProperty executingProperty;
+    private AddressProfiler addressProfiler;
+    private CallGraphProfiler callGraphProfiler;
+    private SamplingProfiler samplingProfiler;
+    /** Normalized access counts per RAM/EEPROM address, null if not shown. */
+    private ObjectProperty<double[]> ramHeatmap;
+    private ObjectProperty<double[]> eepromHeatmap;
+    /** Time of the last heatmap update while executing in nanoseconds. */
+    private long heatmapUpdated;
+    /** Number of logpoint snapshots dropped by the log buffer until the last drain. */
+    private long logpointsDropped;
+    /** Sources of the breakpoint conditions indexed by address. */
+    private Map<Integer, String> conditions;
 
     // Simulator related services
 
     private LstReaderService lstReaderService;
-    private SingleExecutionService singleExecutionService;
-    private StopExecutionService stopExecutionService;
-    private ConditionalExecutionService conditionalExecutionService;
+    private SimulationThread simulation;
+
+    // Changes of the simulation thread, applied once per frame
+
+    private DirtySet dirtyRam;
+    private DirtySet dirtyEeprom;
+    private DirtySet dirtyState;
+    /** Address of the next instruction, -1 if unchanged since the last frame. */
+    private AtomicInteger progress;
+    /** Latest drift in nanoseconds and overruns reported in real-time mode. */
+    private volatile long drift;
+    private volatile long overruns;
+
+    static {
+
+        LOGPOINT_LOGGER = Logger.getLogger(Logpoint.class);
+    }
 
     public SimulatorController() {
 
         lstViewer = new LstViewer();
+        conditions = new HashMap<>();
 
         initializeSimulator();
         initializeServices();
@@ -165,8 +279,15 @@ public class SimulatorController implements Initializable {
         initializeToolbar();
         initializeRegisters();
         initializeRuntimeCounter();
+        initializeSpeed();
+        initializeBreakpoints();
+        initializeWatches();
+        initializeWatchpoints();
         initializePorts();
         initializeEEPROM();
+        initializeProfiler();
+
+        new FrameUpdater().start();
     }
 
     /**
@@ -176,9 +297,19 @@ public class SimulatorController implements Initializable {
 
     private void initializeLogView() {
 
+        // Include custom component via code not markup
+
+        LogViewer logViewer = new LogViewer();
+
+        AnchorPane.setTopAnchor(logViewer, 0.0);
+        AnchorPane.setLeftAnchor(logViewer, 0.0);
+        AnchorPane.setRightAnchor(logViewer, 0.0);
+        AnchorPane.setBottomAnchor(logViewer, 0.0);
+        logPane.getChildren().add(logViewer);
+
         // Redirect log stream to log viewer component
 
-        TextAreaAppender.setTextArea(logViewer);
+        LogViewerAppender.setLogViewer(logViewer);
 
         // Allow change of log level
 
@@ -227,13 +358,387 @@ public class SimulatorController implements Initializable {
 
             frequencyDisplay.setText(String.format("%.3fMHz", frequency.doubleValue()));
             // Cast from MHz to hz befor changing the frequency
-            simulator.getExecutor().setFrequency(frequency.doubleValue() * 1000 * 1000);
+            simulation.setFrequency(frequency.doubleValue() * 1000 * 1000);
         });
 
         // Initialize the runtime counter
         runtimeCounter.setText(String.format("%.4fμs", simulator.getExecutor().getRuntimeCounter()));
         // Initialize the frequency display
         frequencyDisplay.setText(String.format("%.3fMHz", frequency.getValue()));
+        // Drift is only reported while executing in real-time
+        driftDisplay.setText("-");
+    }
+
+    /**
+     * Keeps the breakpoints of the simulator in sync with the breakpoints set inside of
+     * the LST viewer. The viewer's breakpoints are line based, while the simulator checks
+     * program memory addresses after every executed instruction. Conditions of removed
+     * breakpoints are dropped.
+     */
+
+    private void initializeBreakpoints() {
+
+        lstViewer.breakpointsProperty().addListener((SetChangeListener<Integer>) change -> {
+
+            List<Integer> addresses = lstViewer.getBreakpoints().stream()
+                    .map(lstViewer::lineNumberToAddress)
+                    .filter(address -> 0 <= address && BreakpointSet.CAPACITY > address)
+                    .collect(Collectors.toList());
+
+            simulator.getBreakpoints().setAll(addresses);
+            conditions.keySet().retainAll(addresses);
+        });
+    }
+
+    /**
+     * Initializes the watch expressions table. Expressions are compiled once when added
+     * and recompiled after loading a program, because the program's symbols might change.
+     */
+
+    private void initializeWatches() {
+
+        watchSource.setCellValueFactory(new PropertyValueFactory<>("source"));
+        watchValue.setCellValueFactory(new PropertyValueFactory<>("value"));
+
+        watchOptions.setCellValueFactory(param -> new ReadOnlyObjectWrapper<>(param.getValue()));
+        watchOptions.setCellFactory(param -> new TableCell<WatchExpression, WatchExpression>() {
+
+            private Button delete = new Button();
+
+            {
+                delete.setGraphic(new FontIcon("fas-trash"));
+                delete.setStyle("-fx-background-color: transparent;");
+                setAlignment(Pos.CENTER);
+            }
+
+            @Override
+            protected void updateItem(WatchExpression item, boolean empty) {
+
+                super.updateItem(item, empty);
+
+                if (null == item) {
+
+                    setGraphic(null);
+                    return;
+                }
+
+                setGraphic(delete);
+                delete.setOnAction(event -> getTableView().getItems().remove(item));
+            }
+        });
+    }
+
+    /**
+     * Initializes the data watchpoints table. Removing a row removes the watchpoint of
+     * the simulator too.
+     */
+
+    private void initializeWatchpoints() {
+
+        watchpointMemory.getItems().setAll(Watchpoint.RAM, Watchpoint.EEPROM);
+        watchpointMemory.setValue(Watchpoint.RAM);
+
+        watchpointLocation.setCellValueFactory(param -> new SimpleStringProperty(String.format("%s 0x%02X",
+                param.getValue().getMemory(), param.getValue().getAddress())));
+        watchpointConditionColumn.setCellValueFactory(new PropertyValueFactory<>("condition"));
+
+        watchpointOptions.setCellValueFactory(param -> new ReadOnlyObjectWrapper<>(param.getValue()));
+        watchpointOptions.setCellFactory(param -> new TableCell<Watchpoint, Watchpoint>() {
+
+            private Button delete = new Button();
+
+            {
+                delete.setGraphic(new FontIcon("fas-trash"));
+                delete.setStyle("-fx-background-color: transparent;");
+                setAlignment(Pos.CENTER);
+            }
+
+            @Override
+            protected void updateItem(Watchpoint item, boolean empty) {
+
+                super.updateItem(item, empty);
+
+                if (null == item) {
+
+                    setGraphic(null);
+                    return;
+                }
+
+                setGraphic(delete);
+                delete.setOnAction(event -> {
+
+                    if (Watchpoint.RAM.equals(item.getMemory())) {
+
+                        simulator.getWatchpoints().unwatchRam(item.getAddress());
+
+                    } else {
+
+                        simulator.getWatchpoints().unwatchEeprom(item.getAddress());
+                    }
+
+                    getTableView().getItems().remove(item);
+                });
+            }
+        });
+    }
+
+    /**
+     * Compiles a watch expression against the current program. Malformed expressions are
+     * kept, their error is shown instead of the value.
+     *
+     * @param watch The watch expression to compile
+     */
+
+    private void compileWatch(WatchExpression watch) {
+
+        try {
+
+            watch.setExpression(new ExpressionCompiler(simulator).compile(watch.getSource()));
+
+        } catch (IllegalArgumentException exc) {
+
+            watch.setExpression(null);
+            watch.setValue(exc.getMessage());
+        }
+    }
+
+    /**
+     * Writes the snapshots buffered by logpoints to the log, all at once. Snapshots
+     * dropped by a full buffer since the last drain are reported in front of them.
+     */
+
+    private void drainLogpoints() {
+
+        LogBuffer log = simulator.getBreakpoints().getLog();
+        List<String> entries = log.drain();
+        long dropped = log.getDropped(); // Read after draining, includes drops before
+
+        if (logpointsDropped != dropped) {
+
+            LOGPOINT_LOGGER.warn(String.format("Dropped %d logpoint snapshots", dropped - logpointsDropped));
+            logpointsDropped = dropped;
+        }
+
+        if (!entries.isEmpty()) {
+
+            LOGPOINT_LOGGER.info(String.join(System.lineSeparator(), entries));
+        }
+    }
+
+    /**
+     * Evaluates all watch expressions against the current simulator state.
+     */
+
+    private void updateWatches() {
+
+        for (WatchExpression watch : watches.getItems()) {
+
+            Expression expression = watch.getExpression();
+
+            if (null != expression) {
+
+                long value = expression.evaluate();
+                watch.setValue(String.format("%d (0x%X)", value, value));
+            }
+        }
+    }
+
+    /**
+     * Initializes the execution speed control. The slider is scaled logarithmically,
+     * from one instruction per second up to one million, its maximum means executing
+     * as fast as possible. In real-time mode the speed is determined by the quartz
+     * frequency instead.
+     */
+
+    private void initializeSpeed() {
+
+        speed.valueProperty().addListener((observable, oldSpeed, speed) -> {
+
+            double instructionsPerSecond = this.speed.getMax() <= speed.doubleValue() ?
+                    SimulationThread.MAX_SPEED :
+                    Math.pow(10.0, speed.doubleValue());
+
+            simulation.setSpeed(instructionsPerSecond);
+            speedDisplay.setText(Double.isInfinite(instructionsPerSecond) ? "max" :
+                    String.format("%,.0f/s", instructionsPerSecond));
+        });
+
+        speed.disableProperty().bind(realTimeOption.selectedProperty());
+        speedDisplay.setText(String.format("%,.0f/s", simulation.getSpeed()));
+    }
+
+    /**
+     * Allows attaching/detaching the profilers at runtime. The heatmap of the LST viewer
+     * is only shown while profiling. As long as full profiling is disabled, the results
+     * of the sampling profiler are used instead.
+     */
+
+    private void initializeProfiler() {
+
+        profilerOption.selectedProperty().addListener((observable, wasSelected, isSelected) -> {
+
+            if (isSelected) {
+
+                simulator.addProfiler(addressProfiler);
+                simulator.addProfiler(callGraphProfiler);
+
+            } else {
+
+                simulator.removeProfiler(addressProfiler);
+                simulator.removeProfiler(callGraphProfiler);
+            }
+
+            updateHeatmap();
+        });
+
+        samplingOption.selectedProperty().addListener((observable, wasSelected, isSelected) -> {
+
+            if (isSelected) {
+
+                samplingProfiler.start();
+
+            } else {
+
+                samplingProfiler.stop();
+            }
+
+            updateHeatmap();
+        });
+
+        // Heatmaps are throttled while executing, they're completed as soon as execution ends
+
+        executingProperty.addListener((observable, wasExecuting, isExecuting) -> {
+
+            if (!isExecuting) {
+
+                updateHeatmap();
+            }
+        });
+
+        accessOption.selectedProperty().addListener((observable, wasSelected, isSelected) -> {
+
+            simulator.setAccessCounting(isSelected);
+            updateHeatmap();
+        });
+    }
+
+    /**
+     * Determines if the results of the sampling profiler are used. This is the case if
+     * sampling is enabled but full profiling isn't.
+     *
+     * @return Returns true if sampled results are used, otherwise false
+     */
+
+    private boolean isSampling() {
+
+        return samplingOption.isSelected() && !profilerOption.isSelected();
+    }
+
+    /**
+     * Updates the heatmap of the LST viewer using the recorded profile. If neither
+     * profiler is enabled, the heatmap is hidden. The same applies to the access
+     * heatmap of the GPR table and the EEPROM grid, whose cells restyle themselves.
+     */
+
+    private void updateHeatmap() {
+
+        if (profilerOption.isSelected()) {
+
+            lstViewer.setHeatmap(addressProfiler.getCycles());
+
+        } else if (samplingOption.isSelected()) {
+
+            lstViewer.setHeatmap(samplingProfiler.getProfile().getCycles());
+
+        } else {
+
+            lstViewer.setHeatmap(null);
+        }
+
+        if (accessOption.isSelected()) {
+
+            ramHeatmap.set(normalizeAccesses(simulator.getRam(), 2 * RamMemory.BANK_SIZE));
+            eepromHeatmap.set(normalizeAccesses(simulator.getEeprom(), 64));
+
+        } else {
+
+            ramHeatmap.set(null);
+            eepromHeatmap.set(null);
+        }
+    }
+
+    /**
+     * Sums up reads and writes per address and normalizes them to the maximum.
+     *
+     * @param memory The memory providing the access counters
+     * @param size The number of addresses
+     * @return Returns the normalized accesses indexed by address
+     */
+
+    private double[] normalizeAccesses(ObservableMemory<?> memory, int size) {
+
+        long[] accesses = IntStream.range(0, size)
+                .mapToLong(address -> memory.getReadCount(address) + memory.getWriteCount(address))
+                .toArray();
+
+        long max = Math.max(1, Arrays.stream(accesses).max().orElse(1));
+        return Arrays.stream(accesses).mapToDouble(count -> (double) count / max).toArray();
+    }
+
+    /**
+     * Creates a table cell that is highlighted depending on the accesses of its memory
+     * location, the cell is left as is if the location wasn't accessed. The cell
+     * restyles itself whenever the heatmap changes, so the table doesn't need to be
+     * refreshed.
+     *
+     * @param heatmap The current access heatmap, might contain null
+     * @param address Determines the memory address of a row and column index
+     * @param <S> The type of the table rows
+     * @return Returns the created cell
+     */
+
+    private <S> TableCell<S, String> createAccessCell(ObservableValue<double[]> heatmap, IntUnaryOperator address) {
+
+        return new TableCell<S, String>() {
+
+            // Cells are recreated by refreshing the table, the heatmap mustn't keep them alive
+            private final ChangeListener<double[]> listener = (observable, previous, accesses) -> updateStyle();
+
+            {
+                heatmap.addListener(new WeakChangeListener<>(listener));
+            }
+
+            @Override
+            protected void updateItem(String item, boolean empty) {
+
+                super.updateItem(item, empty);
+
+                setText(empty ? null : item);
+                updateStyle();
+            }
+
+            private void updateStyle() {
+
+                setStyle(null);
+
+                double[] accesses = heatmap.getValue();
+
+                if (isEmpty() || null == accesses || 0 > getIndex() || 0 > address.applyAsInt(getIndex())) {
+
+                    return;
+                }
+
+                int location = address.applyAsInt(getIndex());
+
+                if (0.0 < accesses[location]) {
+
+                    Color color = HeatmapFactory.toColor(accesses[location]);
+
+                    setStyle(String.format(Locale.ROOT, "-fx-background-color: rgba(%d, %d, %d, 0.6);",
+                            (int) (color.getRed() * 255), (int) (color.getGreen() * 255), (int) (color.getBlue() * 255)));
+                }
+            }
+        };
     }
 
     /**
@@ -252,6 +757,11 @@ public class SimulatorController implements Initializable {
         zBit.setCellValueFactory(new PropertyValueFactory<>("zeroFlag"));
         dcBit.setCellValueFactory(new PropertyValueFactory<>("digitCarryFlag"));
         cBit.setCellValueFactory(new PropertyValueFactory<>("carryFlag"));
+
+        // Single row updated in place, cells are bound to its flags
+
+        status = new StatusRegister();
+        statusRegister.getItems().setAll(status);
     }
 
     /**
@@ -298,6 +808,7 @@ public class SimulatorController implements Initializable {
         TableColumn<Byte[], String> column = new TableColumn<>();
         column.setSortable(false);
         column.setCellValueFactory(param -> new SimpleStringProperty(String.format("0x%02X", param.getValue()[basis])));
+        column.setCellFactory(param -> createAccessCell(eepromHeatmap, row -> row * 8 + basis));
 
         return column;
     }
@@ -312,12 +823,31 @@ public class SimulatorController implements Initializable {
 
         sfrName.setCellValueFactory(new PropertyValueFactory<>("name"));
 
-        // Use custom factory for printing as hex string in prefix format
-        sfrValue.setCellValueFactory(param -> new SimpleStringProperty(String.format("0x%02X", (byte) param.getValue().getValue())));
+        // Use custom factory for printing as hex string in prefix format, bound to the row
+        sfrValue.setCellValueFactory(param -> param.getValue().valueProperty().asString("0x%02X"));
+
+        // Rows are created once, writes just update the row of the written location
+
+        sfrRows = new SpecialFunctionRegister[2 * RamMemory.BANK_SIZE];
+
+        for (RamMemory.SFR sfr : RamMemory.SFR.values()) {
+
+            // STATUS is shown separately, INDF isn't physically implemented
+
+            if (RamMemory.SFR.STATUS != sfr && RamMemory.SFR.INDF != sfr) {
+
+                SpecialFunctionRegister register = new SpecialFunctionRegister();
+                register.setName(sfr.name());
+
+                sfrRows[RamMemory.physicalAddress(sfr.getBank().ordinal() * RamMemory.BANK_SIZE +
+                        sfr.getAddress())] = register;
+                specialRegisters.getItems().add(register);
+            }
+        }
 
         // Setup General Purpose Register section
 
-        SpinnerValueFactory<Integer> addressFactory = new SpinnerValueFactory.
+        SpinnerValueFactory.IntegerSpinnerValueFactory addressFactory = new SpinnerValueFactory.
                 IntegerSpinnerValueFactory(0x0C, 0x7F, 0x0C);
 
         addressFactory.setConverter(new StringConverter<Integer>() {
@@ -337,9 +867,21 @@ public class SimulatorController implements Initializable {
 
         addressField.setValueFactory(addressFactory);
 
-        // Use custom factory for printing as hex string in prefix format
-        gprAddress.setCellValueFactory(param -> new SimpleStringProperty(String.format("0x%02X", param.getValue().getAddress())));
-        gprValue.setCellValueFactory(param -> new SimpleStringProperty(String.format("0x%02X", (byte) param.getValue().getValue())));
+        // Rows of all observable addresses are kept up to date, observing just shows them
+
+        gprRows = new GeneralPurposeRegister[RamMemory.BANK_SIZE];
+
+        for (int address = addressFactory.getMin(); address <= addressFactory.getMax(); ++address) {
+
+            gprRows[address] = new GeneralPurposeRegister();
+            gprRows[address].setAddress(address);
+        }
+
+        // Use custom factory for printing as hex string in prefix format, bound to the row
+        gprAddress.setCellValueFactory(param -> param.getValue().addressProperty().asString("0x%02X"));
+        gprValue.setCellValueFactory(param -> param.getValue().valueProperty().asString("0x%02X"));
+        gprValue.setCellFactory(param -> createAccessCell(ramHeatmap, row ->
+                row < generalRegisters.getItems().size() ? generalRegisters.getItems().get(row).getAddress() : -1));
 
         gprOptions.setCellValueFactory(param -> new ReadOnlyObjectWrapper<>(param.getValue()));
         gprOptions.setCellFactory(param -> new TableCell<GeneralPurposeRegister, GeneralPurposeRegister>() {
@@ -384,24 +926,45 @@ public class SimulatorController implements Initializable {
 
         // Enable/Disable tools dynamically until its loaded/running
 
+        BooleanBinding busy = Bindings.or(executingProperty, lstReaderService.runningProperty());
+
         stopTool.disableProperty().bind(Bindings.or(
                 loadedProperty.not(), runningProperty.not()));
 
         stopOption.disableProperty().bind(Bindings.or(
                 loadedProperty.not(), runningProperty.not()));
 
+        pauseTool.disableProperty().bind(executingProperty.not());
+
+        pauseOption.disableProperty().bind(executingProperty.not());
+
         runTool.disableProperty().bind(Bindings.or(
-                loadedProperty.not(), executingProperty));
+                loadedProperty.not(), busy));
 
         runOption.disableProperty().bind(Bindings.or(
-                loadedProperty.not(), executingProperty));
+                loadedProperty.not(), busy));
 
         nextStepTool.disableProperty().bind(Bindings.or(
-                loadedProperty.not(), executingProperty));
+                loadedProperty.not(), busy));
 
         nextStepOption.disableProperty().bind(Bindings.or(
-                loadedProperty.not(), executingProperty));
-    }
+                loadedProperty.not(), busy));
+
+        stepOverTool.disableProperty().bind(Bindings.or(
+                loadedProperty.not(), busy));
+
+        stepOverOption.disableProperty().bind(Bindings.or(
+                loadedProperty.not(), busy));
+
+        stepOutTool.disableProperty().bind(Bindings.or(
+                loadedProperty.not(), busy));
+
+        stepOutOption.disableProperty().bind(Bindings.or(
+                loadedProperty.not(), busy));
+
+        runToCursorOption.disableProperty().bind(Bindings.or(
+                loadedProperty.not(), busy));
+    }
 
     /**
      * Initializes the simulator with all related properties and bindings.
@@ -410,6 +973,11 @@ public class SimulatorController implements Initializable {
     private void initializeSimulator() {
 
         simulator = new Pic16F84VM();
+        addressProfiler = new AddressProfiler();
+        callGraphProfiler = new CallGraphProfiler();
+        samplingProfiler = new SamplingProfiler(simulator);
+        ramHeatmap = new SimpleObjectProperty<>();
+        eepromHeatmap = new SimpleObjectProperty<>();
 
         // Allow property binding to the simulator state
 
@@ -434,12 +1002,23 @@ public class SimulatorController implements Initializable {
             exc.printStackTrace(System.err);
         }
 
-        // Register memory change listeners
+        // Register memory change listeners, changes are applied once per frame
+
+        dirtyRam = new DirtySet(2 * RamMemory.BANK_SIZE);
+        dirtyEeprom = new DirtySet(64);
+        dirtyState = new DirtySet(DRIFT + 1);
+        progress = new AtomicInteger(-1);
 
         simulator.getRam().addPropertyChangeListener(new RamMemoryChangeListener());
         simulator.getStack().addPropertyChangeListener(new StackMemoryChangeListener());
         simulator.getEeprom().addPropertyChangeListener(new EeepromChangedListener());
         simulator.getExecutor().addPropertyChangeListener(new ExecutorChangeListener());
+
+        // Simulation thread owns the execution from now on
+
+        simulation = new SimulationThread(simulator);
+        simulation.addListener(new SimulationChangeListener());
+        simulation.start();
     }
 
     /**
@@ -453,58 +1032,216 @@ public class SimulatorController implements Initializable {
 
         lstReaderService = new LstReaderService();
 
+        // Lines are shown while the lst file is still read
+        lstReaderService.setOnRead(lstViewer::appendText);
+
         lstReaderService.setOnSucceeded((event) -> {
 
-            lstViewer.replaceText(event.getSource().getValue().toString());
             lstViewer.moveTo(0, 0);
 
-            try {
+            // Load parsed lst file to simulator, the viewer is updated as soon as it's loaded
+            simulation.load(lstReaderService.getValue());
+        });
 
-                // Load lst file to simulator
-                simulator.load(lstReaderService.getFile());
-                lstFileName.setText(lstReaderService.getFile().getName());
+        executingProperty = new SimpleBooleanProperty();
+    }
 
-            } catch (Exception exc) {
+    /**
+     * Updates all program related components after a program was loaded into the simulator.
+     */
 
-                ApplicationDialog.showError(exc);
-                exc.printStackTrace(System.err);
+    private void updateProgram() {
+
+        lstViewer.setDebugInfo(simulator.getDebugInfo());
+        lstFileName.setText(lstReaderService.getFile().getName());
+
+        // Profile of the previous program is meaningless now
+        addressProfiler.reset();
+        callGraphProfiler.reset();
+        callGraphProfiler.setLabels(simulator.getLabels());
+
+        // Sampler records without synchronization, so it's paused while being reconfigured
+        samplingProfiler.stop();
+        samplingProfiler.reset();
+        samplingProfiler.setRoutines(simulator.getRoutines());
+        samplingProfiler.setLabels(simulator.getLabels());
+
+        if (samplingOption.isSelected()) {
+
+            samplingProfiler.start();
+        }
+
+        simulator.resetAccessCounts();
+        updateHeatmap();
+
+        // Symbols of the previous program are meaningless now
+
+        conditions.clear();
+        watchpoints.getItems().clear(); // Removed by the simulator while loading
+        watches.getItems().forEach(this::compileWatch);
+        updateWatches();
+    }
+
+    /**
+     * Updates all execution related components, e.g. after a batch of instructions was
+     * executed.
+     *
+     * @param address The address of the next instruction
+     * @param now The timestamp of the current frame in nanoseconds
+     */
+
+    private void updateExecution(int address, long now) {
+
+        lstViewer.setIndicator(lstViewer.addressToLineNumber(address));
+
+        // Heatmaps are recomputed a few times per second only, and as soon as execution ends
+
+        if (HEATMAP_INTERVAL <= now - heatmapUpdated) {
+
+            heatmapUpdated = now;
+            updateHeatmap();
+        }
+
+        updateWatches();
+        drainLogpoints();
+    }
+
+    /**
+     * Shows the current value of a RAM location, including the registers and I/O pins
+     * depending on it.
+     *
+     * @param location The physical location in the combined address space
+     */
+
+    private void updateRam(int location) {
+
+        Byte stored = simulator.getRam().get(location);
+        byte value = null == stored ? 0 : stored;
+        int address = location % RamMemory.BANK_SIZE;
+        RamMemory.Bank bank = RamMemory.Bank.values()[location / RamMemory.BANK_SIZE];
+
+        if (0x03 == address) {
+
+            // Disassemble STATUS register value in single bits
+
+            status.setIrpFlag((value >> 7) & 1);
+            status.setRp1Flag((value >> 6) & 1);
+            status.setRp0Flag((value >> 5) & 1);
+            status.setToFlag((value >> 4) & 1);
+            status.setPdFlag((value >> 3) & 1);
+            status.setZeroFlag((value >> 2) & 1);
+            status.setDigitCarryFlag((value >> 1) & 1);
+            status.setCarryFlag(value & 1);
+
+        } else if (null != sfrRows[location]) {
+
+            sfrRows[location].setValue(value & 0xFF);
+
+        } else if (RamMemory.BANK_SIZE > location && null != gprRows[location]) {
+
+            gprRows[location].setValue(value & 0xFF);
+        }
+
+        // Mapped I/O ports to simulator's pin state
+
+        if (0x05 == address) {
+
+            // Map Port A
+
+            if (RamMemory.Bank.BANK_0 == bank) {
+
+                ra0.setSelected(0x01 == (value & 0b0001));
+                ra1.setSelected(0x01 == (value & 0b0010) >> 1);
+                ra2.setSelected(0x01 == (value & 0b0100) >> 2);
+                ra3.setSelected(0x01 == (value & 0b1000) >> 3);
+                ra4.setSelected(0x01 == (value & 0b1_0000) >> 4);
+
+            } else {
+
+                ra0.setDisable(0x00 == (value & 0b0001));
+                ra1.setDisable(0x00 == (value & 0b0010) >> 1);
+                ra2.setDisable(0x00 == (value & 0b0100) >> 2);
+                ra3.setDisable(0x00 == (value & 0b1000) >> 3);
+                ra4.setDisable(0x00 == (value & 0b1_0000) >> 4);
             }
-        });
 
-        // Service for initiating next execution step
+        } else if (0x06 == address) {
 
-        singleExecutionService = new SingleExecutionService();
+            // Map Port B
 
-        singleExecutionService.setOnSucceeded((event) -> {
+            if (RamMemory.Bank.BANK_0 == bank) {
 
-            lstViewer.setIndicator(lstViewer.addressToLineNumber((Integer) event.getSource().getValue()));
-        });
+                rb0.setSelected(0x01 == (value & 0b0000_0001));
+                rb1.setSelected(0x01 == (value & 0b0000_0010) >> 1);
+                rb2.setSelected(0x01 == (value & 0b0000_0100) >> 2);
+                rb3.setSelected(0x01 == (value & 0b0000_1000) >> 3);
+                rb4.setSelected(0x01 == (value & 0b0001_0000) >> 4);
+                rb5.setSelected(0x01 == (value & 0b0010_0000) >> 5);
+                rb6.setSelected(0x01 == (value & 0b0100_0000) >> 6);
+                rb7.setSelected(0x01 == (value & 0b1000_0000) >> 7);
+
+            } else {
+
+                rb0.setDisable(0x00 == (value & 0b0000_0001));
+                rb1.setDisable(0x00 == (value & 0b0000_0010) >> 1);
+                rb2.setDisable(0x00 == (value & 0b0000_0100) >> 2);
+                rb3.setDisable(0x00 == (value & 0b0000_1000) >> 3);
+                rb4.setDisable(0x00 == (value & 0b0001_0000) >> 4);
+                rb5.setDisable(0x00 == (value & 0b0010_0000) >> 5);
+                rb6.setDisable(0x00 == (value & 0b0100_0000) >> 6);
+                rb7.setDisable(0x00 == (value & 0b1000_0000) >> 7);
+            }
+        }
+    }
 
-        // Service for stopping execution flow
+    /**
+     * Shows the current value of the execution state besides memory.
+     *
+     * @param index The index of the dirty state, e.g. {@link #WORKING_REGISTER}
+     */
 
-        stopExecutionService = new StopExecutionService();
+    private void updateState(int index) {
 
-        stopExecutionService.setOnSucceeded(event -> {
+        ObservableExecution executor = simulator.getExecutor();
 
-            lstViewer.setIndicator(lstViewer.addressToLineNumber(0x00));
-        });
+        switch (index) {
+
+            case WORKING_REGISTER: {
+
+                workingRegister.setText(String.format("0x%02X", executor.getWorkingRegister()));
+                break;
+            }
+            case INSTRUCTION_REGISTER: {
 
-        // Service for continue execution until breakpoint is reached
+                instructionRegister.setText(String.format("0x%04X", executor.getInstructionRegister()));
+                break;
+            }
+            case RUNTIME_COUNTER: {
 
-        conditionalExecutionService = new ConditionalExecutionService();
+                runtimeCounter.setText(String.format("%.4fμs", executor.getRuntimeCounter()));
+                break;
+            }
+            case DRIFT: {
 
-        conditionalExecutionService.valueProperty().addListener((observable, prevAddress, address) -> {
+                driftDisplay.setText(String.format("%.3fms (%d overruns)", drift / 1_000_000.0, overruns));
+                break;
+            }
+            case STACK:
+            default: {
 
-            lstViewer.setIndicator(lstViewer.addressToLineNumber(null != address ? address : prevAddress));
-        });
+                // Element on top of the stack is shown on top of the list
 
-        // Bind executing property to services
+                List<String> elements = new ArrayList<>();
 
-        executingProperty = new SimpleBooleanProperty();
+                for (int level = simulator.getStackDepth() - 1; 0 <= level; --level) {
 
-        executingProperty.bind(Bindings.or(
-                conditionalExecutionService.runningProperty(),
-                singleExecutionService.runningProperty()));
+                    elements.add(String.format("0x%04X", simulator.getStack().get(level)));
+                }
+
+                addressStack.getItems().setAll(elements);
+                break;
+            }
+        }
     }
 
     @FXML
@@ -514,6 +1251,8 @@ public class SimulatorController implements Initializable {
 
         if (option.isPresent() && ButtonType.OK == option.get()) {
 
+            samplingProfiler.stop();
+            simulation.shutdown();
             simulator.stop();
             Platform.exit();
         }
@@ -539,6 +1278,7 @@ public class SimulatorController implements Initializable {
 
             } else {
 
+                lstViewer.reset();
                 lstReaderService.reset();
                 lstReaderService.setFile(file);
                 lstReaderService.start();
@@ -546,58 +1286,376 @@ public class SimulatorController implements Initializable {
         }
     }
 
+    @FXML
+    private void onExportProfileAction(ActionEvent event) {
+
+        FileChooser fileChooser = new FileChooser();
+
+        fileChooser.setTitle("Export Profile");
+        fileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("CSV Files", "*.csv"));
+
+        File file = fileChooser.showSaveDialog(null);
+
+        if (null != file) {
+
+            try (Writer writer = Files.newBufferedWriter(file.toPath())) {
+
+                (isSampling() ? samplingProfiler.getProfile() : addressProfiler).export(writer);
+
+            } catch (IOException exc) {
+
+                ApplicationDialog.showError(exc);
+                exc.printStackTrace(System.err);
+            }
+        }
+    }
+
+    @FXML
+    private void onExportCallGraphAction(ActionEvent event) {
+
+        FileChooser fileChooser = new FileChooser();
+        FileChooser.ExtensionFilter foldedFilter = new FileChooser.ExtensionFilter("Folded Stacks", "*.folded");
+
+        fileChooser.setTitle("Export Call Graph");
+        fileChooser.getExtensionFilters().addAll(foldedFilter,
+                new FileChooser.ExtensionFilter("CSV Files", "*.csv"));
+
+        File file = fileChooser.showSaveDialog(null);
+
+        if (null != file) {
+
+            try (Writer writer = Files.newBufferedWriter(file.toPath())) {
+
+                // Folded stacks are used by flame graph tools, the CSV format lists the routines
+
+                boolean folded = foldedFilter == fileChooser.getSelectedExtensionFilter();
+
+                if (isSampling()) {
+
+                    if (folded) {
+
+                        samplingProfiler.export(writer);
+
+                    } else {
+
+                        samplingProfiler.exportRoutines(writer);
+                    }
+
+                } else if (folded) {
+
+                    callGraphProfiler.export(writer);
+
+                } else {
+
+                    callGraphProfiler.exportRoutines(writer);
+                }
+
+            } catch (IOException exc) {
+
+                ApplicationDialog.showError(exc);
+                exc.printStackTrace(System.err);
+            }
+        }
+    }
+
     @FXML
     private void onBreakpointAction(ActionEvent event) {
 
         lstViewer.toggleBreakpoint();
     }
 
+    /**
+     * Determines the address of the instruction at the caret position, used for
+     * configuring the breakpoint of that line.
+     *
+     * @return Returns the address or -1 if the line doesn't contain a machine instruction
+     */
+
+    private int getCaretAddress() {
+
+        int address = lstViewer.lineNumberToAddress(lstViewer.getCaretLineNumber());
+
+        if (0 > address || BreakpointSet.CAPACITY <= address) {
+
+            ApplicationDialog.showWarning("Breakpoints can only be configured for lines containing " +
+                    "machine instructions.");
+            return -1;
+        }
+
+        return address;
+    }
+
+    @FXML
+    private void onBreakpointConditionAction(ActionEvent event) {
+
+        int address = getCaretAddress();
+
+        if (-1 == address) {
+
+            return;
+        }
+
+        Optional<String> input = ApplicationDialog.showInput("Condition",
+                "Break only if the condition is true, e.g. W == 0x10 && ram[0x0C] > 5. " +
+                        "Leave it empty for an unconditional breakpoint.",
+                conditions.getOrDefault(address, ""));
+
+        if (!input.isPresent()) {
+
+            return;
+        }
+
+        String source = input.get().trim();
+        Expression condition = null;
+
+        if (!source.isEmpty()) {
+
+            try {
+
+                condition = new ExpressionCompiler(simulator).compile(source);
+
+            } catch (IllegalArgumentException exc) {
+
+                ApplicationDialog.showWarning("The condition is invalid: " + exc.getMessage());
+                return;
+            }
+
+            conditions.put(address, source);
+
+        } else {
+
+            conditions.remove(address);
+        }
+
+        // Condition is attached before the breakpoint is set, so it can't be missed
+
+        simulator.getBreakpoints().setCondition(address, condition);
+        lstViewer.getBreakpoints().add(lstViewer.getCaretLineNumber());
+    }
+
+    @FXML
+    private void onHitCountAction(ActionEvent event) {
+
+        int address = getCaretAddress();
+
+        if (-1 == address) {
+
+            return;
+        }
+
+        int target = simulator.getBreakpoints().getHitTarget(address);
+        Optional<String> input = ApplicationDialog.showInput("Hit Count",
+                "Break only on the given hit, counted since the execution was started. " +
+                        "Leave it empty for breaking on every hit.",
+                0 == target ? "" : Integer.toString(target));
+
+        if (!input.isPresent()) {
+
+            return;
+        }
+
+        try {
+
+            String source = input.get().trim();
+            simulator.getBreakpoints().setHitTarget(address, source.isEmpty() ? 0 : Integer.parseInt(source));
+
+        } catch (IllegalArgumentException exc) {
+
+            // Includes malformed numbers, NumberFormatException is an IllegalArgumentException
+
+            ApplicationDialog.showWarning("The hit count is invalid: " + exc.getMessage());
+            return;
+        }
+
+        lstViewer.getBreakpoints().add(lstViewer.getCaretLineNumber());
+    }
+
+    @FXML
+    private void onLogpointAction(ActionEvent event) {
+
+        int address = getCaretAddress();
+
+        if (-1 == address) {
+
+            return;
+        }
+
+        Logpoint logpoint = simulator.getBreakpoints().getLogpoint(address);
+        Optional<String> input = ApplicationDialog.showInput("Message",
+                "Log the message instead of breaking, expressions in braces are replaced by " +
+                        "their value, e.g. cnt = {ram[0x0D]}, W = {W:x}. Leave it empty for breaking.",
+                null == logpoint ? "" : logpoint.getTemplate());
+
+        if (!input.isPresent()) {
+
+            return;
+        }
+
+        String template = input.get().trim();
+
+        try {
+
+            simulator.getBreakpoints().setLogpoint(address, template.isEmpty() ? null :
+                    new Logpoint(template, new ExpressionCompiler(simulator)));
+
+        } catch (IllegalArgumentException exc) {
+
+            ApplicationDialog.showWarning("The message is invalid: " + exc.getMessage());
+            return;
+        }
+
+        lstViewer.getBreakpoints().add(lstViewer.getCaretLineNumber());
+    }
+
+    @FXML
+    private void onAddWatchpointAction(ActionEvent event) {
+
+        String memory = watchpointMemory.getValue();
+        String source = watchpointCondition.getText().trim();
+        int address;
+        Expression condition;
+
+        try {
+
+            address = Integer.decode(watchpointAddress.getText().trim());
+            condition = source.isEmpty() ? null : new ExpressionCompiler(simulator).compile(source);
+
+            if (Watchpoint.RAM.equals(memory)) {
+
+                simulator.getWatchpoints().watchRam(address, condition);
+
+            } else {
+
+                simulator.getWatchpoints().watchEeprom(address, condition);
+            }
+
+        } catch (IllegalArgumentException exc) {
+
+            // Includes malformed addresses, NumberFormatException is an IllegalArgumentException
+
+            ApplicationDialog.showWarning("The watchpoint is invalid: " + exc.getMessage());
+            return;
+        }
+
+        // Mapped RAM locations are listed once, watching a location again replaces its condition
+
+        int location = Watchpoint.RAM.equals(memory) ? RamMemory.physicalAddress(address) : address;
+
+        watchpoints.getItems().removeIf(watchpoint -> memory.equals(watchpoint.getMemory()) &&
+                location == watchpoint.getAddress());
+
+        Watchpoint watchpoint = new Watchpoint();
+
+        watchpoint.setMemory(memory);
+        watchpoint.setAddress(location);
+        watchpoint.setCondition(source);
+
+        watchpoints.getItems().add(watchpoint);
+        watchpointCondition.clear();
+    }
+
+    @FXML
+    private void onAddWatchAction(ActionEvent event) {
+
+        String source = watchField.getText().trim();
+
+        if (source.isEmpty()) {
+
+            return;
+        }
+
+        WatchExpression watch = new WatchExpression();
+
+        watch.setSource(source);
+        compileWatch(watch);
+
+        watches.getItems().add(watch);
+        watchField.clear();
+        updateWatches();
+    }
+
     @FXML
     private void onNextStepAction(ActionEvent event) {
 
-        if (singleExecutionService.isRunning()) {
+        if (executingProperty.get()) {
 
             ApplicationDialog.showWarning("The program is already running. This operation " +
                     "is invalid until it has stopped.");
 
         } else {
 
-            singleExecutionService.reset();
-            singleExecutionService.setSimulator(simulator);
-            singleExecutionService.start();
+            executingProperty.set(true);
+            simulation.step();
         }
     }
 
     @FXML
     private void onStopAction(ActionEvent event) {
 
-        if (stopExecutionService.isRunning()) {
+        simulation.stop();
+    }
+
+    @FXML
+    private void onPauseAction(ActionEvent event) {
+
+        simulation.pause();
+    }
+
+    @FXML
+    private void onRunAction(ActionEvent event) {
+
+        run(() -> null);
+    }
+
+    @FXML
+    private void onRunToCursorAction(ActionEvent event) {
+
+        int address = lstViewer.lineNumberToAddress(lstViewer.getCaretLineNumber());
+
+        if (0 > address) {
 
-            ApplicationDialog.showWarning("The program isn't running or is about to " +
-                    "be terminated. This operation is invalid until it is running again.");
+            ApplicationDialog.showWarning("The cursor has to be placed in a line containing " +
+                    "a machine instruction.");
 
         } else {
 
-            stopExecutionService.reset();
-            stopExecutionService.setSimulator(simulator);
-            stopExecutionService.start();
+            run(() -> Stepping.runTo(address));
         }
     }
 
     @FXML
-    private void onRunAction(ActionEvent event) {
+    private void onStepOverAction(ActionEvent event) {
+
+        run(() -> Stepping.stepOver(simulator));
+    }
 
-        if (conditionalExecutionService.isRunning()) {
+    @FXML
+    private void onStepOutAction(ActionEvent event) {
+
+        run(() -> Stepping.stepOut(simulator));
+    }
+
+    /**
+     * Continues the execution until a breakpoint is reached or the given stop condition
+     * holds. The stop condition is created not until the execution is started, because
+     * it depends on the current state of the simulator.
+     *
+     * @param stopCondition Supplier of the stop condition, might supply <code>null</code>
+     */
+
+    private void run(Supplier<IntPredicate> stopCondition) {
+
+        if (executingProperty.get()) {
 
             ApplicationDialog.showWarning("The program is already running. This operation " +
                     "is invalid until it has stopped.");
 
         } else {
 
-            conditionalExecutionService.reset();
-            conditionalExecutionService.setSimulator(simulator);
-            conditionalExecutionService.setLstViewer(lstViewer);
-            conditionalExecutionService.start();
+            executingProperty.set(true);
+            driftDisplay.setText("-");
+            simulation.run(stopCondition.get(), realTimeOption.isSelected());
         }
     }
 
@@ -612,23 +1670,14 @@ public class SimulatorController implements Initializable {
 
         int address = addressField.getValue();
         byte value = null == simulator.getRam().get(address) ? 0 : simulator.getRam().get(address);
+        GeneralPurposeRegister register = gprRows[address];
 
-        // Check if entry already exists
-
-        FilteredList<GeneralPurposeRegister> filtered = generalRegisters.getItems()
-                .filtered(register -> address == register.getAddress());
-
-        if (filtered.isEmpty()) {
-
-            // Add new observer if it doesn't exist
+        // Add observer if it isn't shown yet, the row itself always exists
 
-            GeneralPurposeRegister register = new GeneralPurposeRegister();
-
-            register.setAddress(address);
-            register.setValue(value);
+        if (!generalRegisters.getItems().contains(register)) {
 
+            register.setValue(value & 0xFF);
             generalRegisters.getItems().add(register);
-            generalRegisters.refresh();
         }
     }
 
@@ -641,23 +1690,23 @@ public class SimulatorController implements Initializable {
 
             if (checkBox == ra0) {
 
-                simulator.stimulatePortA(0, checkBox.isSelected());
+                simulation.stimulatePortA(0, checkBox.isSelected());
 
             } else if (checkBox == ra1) {
 
-                simulator.stimulatePortA(1, checkBox.isSelected());
+                simulation.stimulatePortA(1, checkBox.isSelected());
 
             } else if (checkBox == ra2) {
 
-                simulator.stimulatePortA(2, checkBox.isSelected());
+                simulation.stimulatePortA(2, checkBox.isSelected());
 
             } else if (checkBox == ra3) {
 
-                simulator.stimulatePortA(3, checkBox.isSelected());
+                simulation.stimulatePortA(3, checkBox.isSelected());
 
             } else if (checkBox == ra4) {
 
-                simulator.stimulatePortA(4, checkBox.isSelected());
+                simulation.stimulatePortA(4, checkBox.isSelected());
             }
         }
     }
@@ -671,45 +1720,46 @@ public class SimulatorController implements Initializable {
 
             if (checkBox == rb0) {
 
-                simulator.stimulatePortB(0, checkBox.isSelected());
+                simulation.stimulatePortB(0, checkBox.isSelected());
 
             } else if (checkBox == rb1) {
 
-                simulator.stimulatePortB(1, checkBox.isSelected());
+                simulation.stimulatePortB(1, checkBox.isSelected());
 
             } else if (checkBox == rb2) {
 
-                simulator.stimulatePortB(2, checkBox.isSelected());
+                simulation.stimulatePortB(2, checkBox.isSelected());
 
             } else if (checkBox == rb3) {
 
-                simulator.stimulatePortB(3, checkBox.isSelected());
+                simulation.stimulatePortB(3, checkBox.isSelected());
             } else if (checkBox == rb4) {
 
-                simulator.stimulatePortB(4, checkBox.isSelected());
+                simulation.stimulatePortB(4, checkBox.isSelected());
 
             } else if (checkBox == rb5) {
 
-                simulator.stimulatePortB(5, checkBox.isSelected());
+                simulation.stimulatePortB(5, checkBox.isSelected());
 
             } else if (checkBox == rb6) {
 
-                simulator.stimulatePortB(6, checkBox.isSelected());
+                simulation.stimulatePortB(6, checkBox.isSelected());
 
             } else if (checkBox == rb7) {
 
-                simulator.stimulatePortB(7, checkBox.isSelected());
+                simulation.stimulatePortB(7, checkBox.isSelected());
             }
         }
     }
 
     /**
      * Responsible for handling memory changes inside of the RAM memory
-     * structure. This class updates the user interface when changes are
-     * received.
+     * structure. Changed locations are just marked as dirty, mapped locations
+     * are marked only once at their physical location.
      *
      * @author 0x1C1B
      * @see PropertyChangeListener
+     * @see FrameUpdater
      */
 
     private class RamMemoryChangeListener implements PropertyChangeListener {
@@ -719,216 +1769,152 @@ public class SimulatorController implements Initializable {
 
             if (event instanceof IndexedPropertyChangeEvent) {
 
-                // Check which register/location changed
-
-                if (0x03 == ((IndexedPropertyChangeEvent) event).getIndex()) {
-
-                    byte value = (byte) event.getNewValue(); // Value of STATUS register
-                    StatusRegister status = new StatusRegister();
-
-                    // Disassemble STATUS register value in single bits
-
-                    status.setIrpFlag((value >> 7) & 1);
-                    status.setRp1Flag((value >> 6) & 1);
-                    status.setRp0Flag((value >> 5) & 1);
-                    status.setToFlag((value >> 4) & 1);
-                    status.setPdFlag((value >> 3) & 1);
-                    status.setZeroFlag((value >> 2) & 1);
-                    status.setDigitCarryFlag((value >> 1) & 1);
-                    status.setCarryFlag(value & 1);
-
-                    Platform.runLater(() -> {
-
-                        statusRegister.getItems().setAll(status);
-                        statusRegister.refresh();
-                    });
-
-                } else if (0x0C > ((IndexedPropertyChangeEvent) event).getIndex()) {
-
-                    int address = ((IndexedPropertyChangeEvent) event).getIndex();
-                    byte value = (byte) event.getNewValue(); // Value of the SFR
-                    RamMemory.Bank bank = "bank0".equals(event.getPropertyName()) ?
-                            RamMemory.Bank.BANK_0 :
-                            RamMemory.Bank.BANK_1;
-
-                    RamMemory.SFR sfr = RamMemory.SFR.valueOf(bank, address);
-
-                    Platform.runLater(() -> {
-
-                        // Check if entry already exists
-
-                        FilteredList<SpecialFunctionRegister> filtered = specialRegisters.getItems()
-                                .filtered(register -> register.getName().equals(sfr.name()));
-
-                        if (filtered.isEmpty()) {
-
-                            // Add new row if it doesn't exist
-
-                            SpecialFunctionRegister register = new SpecialFunctionRegister();
+                int address = ((IndexedPropertyChangeEvent) event).getIndex();
+                int offset = "bank0".equals(event.getPropertyName()) ? 0 : RamMemory.BANK_SIZE;
 
-                            register.setName(sfr.name());
-                            register.setValue(value);
+                dirtyRam.mark(RamMemory.physicalAddress(offset + address));
+            }
+        }
+    }
 
-                            specialRegisters.getItems().add(register);
+    /**
+     * Responsible for handling memory changes inside of the stack memory
+     * structure. The stack is just marked as dirty, it's shown as a whole.
+     *
+     * @author 0x1C1B
+     * @see PropertyChangeListener
+     * @see FrameUpdater
+     */
 
-                        } else { // Entry exists, just update the value
+    private class StackMemoryChangeListener implements PropertyChangeListener {
 
-                            // Only one match should exist, just uses the first one
+        @Override
+        public void propertyChange(PropertyChangeEvent event) {
 
-                            filtered.get(0).setValue(value);
-                        }
+            dirtyState.mark(STACK);
+        }
+    }
 
-                        specialRegisters.refresh();
-                    });
+    private class ExecutorChangeListener implements PropertyChangeListener {
 
-                } else if (0x0C <= ((IndexedPropertyChangeEvent) event).getIndex()) {
+        @Override
+        public void propertyChange(PropertyChangeEvent event) {
 
-                    // Update just observed General Purpose Registers
+            if (event.getPropertyName().equals("workingRegister")) {
 
-                    int address = ((IndexedPropertyChangeEvent) event).getIndex();
+                dirtyState.mark(WORKING_REGISTER);
 
-                    FilteredList<GeneralPurposeRegister> filtered = generalRegisters.getItems()
-                            .filtered(register -> address == register.getAddress());
+            } else if (event.getPropertyName().equals("instructionRegister")) {
 
-                    if (!filtered.isEmpty()) {
+                dirtyState.mark(INSTRUCTION_REGISTER);
 
-                        // Only one match should exist, just uses the first one
+            } else if (event.getPropertyName().equals("runtimeCounter")) {
 
-                        filtered.get(0).setValue((byte) event.getNewValue());
-                        generalRegisters.refresh();
-                    }
-                }
+                dirtyState.mark(RUNTIME_COUNTER);
+            }
+        }
+    }
 
-                // Mapped I/O ports to simulator's pin state
+    private class EeepromChangedListener implements PropertyChangeListener {
 
-                if (0x05 == ((IndexedPropertyChangeEvent) event).getIndex()) {
+        @Override
+        public void propertyChange(PropertyChangeEvent event) {
 
-                    // Map Port A
+            if (event instanceof IndexedPropertyChangeEvent) {
 
-                    byte value = (byte) event.getNewValue(); // Value of the SFR
-                    RamMemory.Bank bank = "bank0".equals(event.getPropertyName()) ?
-                            RamMemory.Bank.BANK_0 :
-                            RamMemory.Bank.BANK_1;
+                dirtyEeprom.mark(((IndexedPropertyChangeEvent) event).getIndex());
+            }
+        }
+    }
 
-                    if (RamMemory.Bank.BANK_0 == bank) {
+    /**
+     * Applies the changes made by the simulation thread to the user interface, once per
+     * JavaFX pulse. Only the latest state is shown, values written meanwhile are dropped.
+     * As long as nothing changed, a pulse costs just a few reads.
+     *
+     * @author 0x1C1B
+     * @see DirtySet
+     */
 
-                        ra0.setSelected(0x01 == (value & 0b0001));
-                        ra1.setSelected(0x01 == (value & 0b0010) >> 1);
-                        ra2.setSelected(0x01 == (value & 0b0100) >> 2);
-                        ra3.setSelected(0x01 == (value & 0b1000) >> 3);
-                        ra4.setSelected(0x01 == (value & 0b1_0000) >> 4);
+    private class FrameUpdater extends AnimationTimer {
 
-                    } else {
+        @Override
+        public void handle(long now) {
 
-                        ra0.setDisable(0x00 == (value & 0b0001));
-                        ra1.setDisable(0x00 == (value & 0b0010) >> 1);
-                        ra2.setDisable(0x00 == (value & 0b0100) >> 2);
-                        ra3.setDisable(0x00 == (value & 0b1000) >> 3);
-                        ra4.setDisable(0x00 == (value & 0b1_0000) >> 4);
-                    }
+            dirtyRam.drain(SimulatorController.this::updateRam);
 
-                } else if (0x06 == ((IndexedPropertyChangeEvent) event).getIndex()) {
+            // Observing reads aren't counted, the access heatmap shows the program's reads only
 
-                    // Map Port B
+            if (dirtyEeprom.drain(address -> eeprom.getItems().get(address / 8)[address % 8] =
+                    simulator.getEeprom().get(address))) {
 
-                    byte value = (byte) event.getNewValue(); // Value of the SFR
-                    RamMemory.Bank bank = "bank0".equals(event.getPropertyName()) ?
-                            RamMemory.Bank.BANK_0 :
-                            RamMemory.Bank.BANK_1;
+                eeprom.refresh();
+            }
 
-                    if (RamMemory.Bank.BANK_0 == bank) {
+            dirtyState.drain(SimulatorController.this::updateState);
 
-                        rb0.setSelected(0x01 == (value & 0b0000_0001));
-                        rb1.setSelected(0x01 == (value & 0b0000_0010) >> 1);
-                        rb2.setSelected(0x01 == (value & 0b0000_0100) >> 2);
-                        rb3.setSelected(0x01 == (value & 0b0000_1000) >> 3);
-                        rb4.setSelected(0x01 == (value & 0b0001_0000) >> 4);
-                        rb5.setSelected(0x01 == (value & 0b0010_0000) >> 5);
-                        rb6.setSelected(0x01 == (value & 0b0100_0000) >> 6);
-                        rb7.setSelected(0x01 == (value & 0b1000_0000) >> 7);
+            int address = progress.getAndSet(-1);
 
-                    } else {
+            if (-1 != address) {
 
-                        rb0.setDisable(0x00 == (value & 0b0000_0001));
-                        rb1.setDisable(0x00 == (value & 0b0000_0010) >> 1);
-                        rb2.setDisable(0x00 == (value & 0b0000_0100) >> 2);
-                        rb3.setDisable(0x00 == (value & 0b0000_1000) >> 3);
-                        rb4.setDisable(0x00 == (value & 0b0001_0000) >> 4);
-                        rb5.setDisable(0x00 == (value & 0b0010_0000) >> 5);
-                        rb6.setDisable(0x00 == (value & 0b0100_0000) >> 6);
-                        rb7.setDisable(0x00 == (value & 0b1000_0000) >> 7);
-                    }
-                }
+                updateExecution(address, now);
             }
         }
     }
 
     /**
-     * Responsible for handling memory changes inside of the stack memory
-     * structure. This class updates the user interface when changes are
-     * received.
+     * Responsible for handling the progress reported by the simulation thread. The
+     * address of the next instruction is applied once per frame, like memory changes.
      *
      * @author 0x1C1B
-     * @see PropertyChangeListener
+     * @see SimulationListener
      */
 
-    private class StackMemoryChangeListener implements PropertyChangeListener {
+    private class SimulationChangeListener implements SimulationListener {
 
         @Override
-        public void propertyChange(PropertyChangeEvent event) {
+        public void executed(int address) {
 
-            Platform.runLater(() -> {
-
-                if (null == event.getNewValue()) { // Element was removed
-
-                    addressStack.getItems().remove(0); // Remove element on top of list
-
-                } else {
-
-                    // Add element to top of list
-
-                    addressStack.getItems().add(0, String.format("0x%04X", (int) event.getNewValue()));
-                }
-            });
+            progress.set(address);
         }
-    }
-
-    private class ExecutorChangeListener implements PropertyChangeListener {
 
         @Override
-        public void propertyChange(PropertyChangeEvent event) {
+        public void halted(int address) {
 
-            Platform.runLater(() -> {
+            progress.set(address);
+            Platform.runLater(() -> executingProperty.set(false));
+        }
 
-                if (event.getPropertyName().equals("workingRegister")) {
+        @Override
+        public void stopped() {
 
-                    workingRegister.setText(String.format("0x%02X", (byte) event.getNewValue()));
+            progress.set(0x00);
+            Platform.runLater(() -> executingProperty.set(false));
+        }
 
-                } else if (event.getPropertyName().equals("instructionRegister")) {
+        @Override
+        public void loaded() {
 
-                    instructionRegister.setText(String.format("0x%04X", (short) event.getNewValue()));
+            Platform.runLater(SimulatorController.this::updateProgram);
+        }
 
-                } else if (event.getPropertyName().equals("runtimeCounter")) {
+        @Override
+        public void paced(long drift, long overruns) {
 
-                    runtimeCounter.setText(String.format("%.4fμs", (double) event.getNewValue()));
-                }
-            });
+            SimulatorController.this.drift = drift;
+            SimulatorController.this.overruns = overruns;
+            dirtyState.mark(DRIFT);
         }
-    }
-
-    private class EeepromChangedListener implements PropertyChangeListener {
 
         @Override
-        public void propertyChange(PropertyChangeEvent event) {
-
-            if (event instanceof IndexedPropertyChangeEvent) {
+        public void failed(Exception exc) {
 
-                int address = ((IndexedPropertyChangeEvent) event).getIndex();
-                Byte value = (Byte) event.getNewValue();
+            Platform.runLater(() -> {
 
-                eeprom.getItems().get(address / 8)[address % 8] = value;
-                eeprom.refresh();
-            }
+                executingProperty.set(simulation.isExecuting());
+                ApplicationDialog.showError(exc);
+                exc.printStackTrace(System.err);
+            });
         }
     }
 }
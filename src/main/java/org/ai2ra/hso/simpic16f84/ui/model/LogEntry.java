@@ -0,0 +1,33 @@
+package org.ai2ra.hso.simpic16f84.ui.model;
+
+import org.apache.log4j.Level;
+
+/**
+ * Interface model representing a single formatted log message. Primarily used for
+ * representing such data inside a JavaFX component. In contrast to the other models
+ * it's immutable and doesn't use properties, since thousands of entries are kept.
+ *
+ * @author 0x1C1B
+ */
+
+public class LogEntry {
+
+    private final Level level;
+    private final String message;
+
+    public LogEntry(Level level, String message) {
+
+        this.level = level;
+        this.message = message;
+    }
+
+    public Level getLevel() {
+
+        return level;
+    }
+
+    public String getMessage() {
+
+        return message;
+    }
+}
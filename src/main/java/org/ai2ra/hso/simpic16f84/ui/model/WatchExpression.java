@@ -0,0 +1,72 @@
+package org.ai2ra.hso.simpic16f84.ui.model;
+
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+import org.ai2ra.hso.simpic16f84.sim.debug.Expression;
+
+/**
+ * Interface model representing a watch expression. Primarily used for representing
+ * such data inside a JavaFX component. Besides the source code and the displayed value,
+ * it holds the compiled expression, so the expression isn't parsed on every update.
+ *
+ * @author 0x1C1B
+ */
+
+public class WatchExpression {
+
+    private StringProperty source;
+    private StringProperty value;
+    private Expression expression;
+
+    public WatchExpression() {
+
+        this.source = new SimpleStringProperty();
+        this.value = new SimpleStringProperty();
+    }
+
+    public String getSource() {
+
+        return source.get();
+    }
+
+    public StringProperty sourceProperty() {
+
+        return source;
+    }
+
+    public void setSource(String source) {
+
+        this.source.set(source);
+    }
+
+    public String getValue() {
+
+        return value.get();
+    }
+
+    public StringProperty valueProperty() {
+
+        return value;
+    }
+
+    public void setValue(String value) {
+
+        this.value.set(value);
+    }
+
+    /**
+     * Returns the compiled expression.
+     *
+     * @return Returns the compiled expression or null if the source is malformed
+     */
+
+    public Expression getExpression() {
+
+        return expression;
+    }
+
+    public void setExpression(Expression expression) {
+
+        this.expression = expression;
+    }
+}
@@ -0,0 +1,76 @@
+package org.ai2ra.hso.simpic16f84.ui.model;
+
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+
+/**
+ * Interface model representing a data watchpoint of a RAM or EEPROM location. Primarily
+ * used for representing such data inside a JavaFX component.
+ *
+ * @author 0x1C1B
+ */
+
+public class Watchpoint {
+
+    /** Memory names of the watched location. */
+    public static final String RAM = "RAM";
+    public static final String EEPROM = "EEPROM";
+
+    private StringProperty memory;
+    private IntegerProperty address;
+    private StringProperty condition;
+
+    public Watchpoint() {
+
+        this.memory = new SimpleStringProperty();
+        this.address = new SimpleIntegerProperty();
+        this.condition = new SimpleStringProperty();
+    }
+
+    public String getMemory() {
+
+        return memory.get();
+    }
+
+    public StringProperty memoryProperty() {
+
+        return memory;
+    }
+
+    public void setMemory(String memory) {
+
+        this.memory.set(memory);
+    }
+
+    public int getAddress() {
+
+        return address.get();
+    }
+
+    public IntegerProperty addressProperty() {
+
+        return address;
+    }
+
+    public void setAddress(int address) {
+
+        this.address.set(address);
+    }
+
+    public String getCondition() {
+
+        return condition.get();
+    }
+
+    public StringProperty conditionProperty() {
+
+        return condition;
+    }
+
+    public void setCondition(String condition) {
+
+        this.condition.set(condition);
+    }
+}
@@ -1,25 +1,43 @@
 package org.ai2ra.hso.simpic16f84.ui.service;
 
+import javafx.application.Platform;
 import javafx.concurrent.Service;
 import javafx.concurrent.Task;
+import org.ai2ra.hso.simpic16f84.sim.vm.AIRALstParser;
+import org.ai2ra.hso.simpic16f84.sim.vm.DebugInfo;
+import org.ai2ra.hso.simpic16f84.sim.vm.LstParser;
 
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 /**
- * Service for reading a LST file. The result is used for displaying the content
- * inside of a text component.
+ * Service for reading a LST file in a single pass. While the file is parsed, the read
+ * lines are streamed in batches to a consumer, e.g. for displaying the content inside
+ * of a text component progressively. The result is the parsed debug information,
+ * ready for being loaded into the simulator without reading the file again.
  *
  * @author 0x1C1B
  */
 
-public class LstReaderService extends Service<String> {
+public class LstReaderService extends Service<DebugInfo<Short>> {
 
+    /** Number of lines handed over at once. */
+    private static final int BATCH_SIZE = 1024;
+
+    private final LstParser<Short> parser;
     private File file;
+    private Consumer<String> onRead;
 
     public LstReaderService() {
 
+        this.parser = new AIRALstParser();
+        this.onRead = text -> {};
+
         setOnFailed(new ServiceErrorHandler()); // Register default error handler
     }
 
@@ -33,27 +51,90 @@ public class LstReaderService extends Service<String> {
         this.file = file;
     }
 
+    /**
+     * Sets the consumer of the read lines. It's invoked on the JavaFX Application Thread
+     * with batches of lines, each line terminated by a line break. All lines are handed
+     * over before the service succeeds.
+     *
+     * @param onRead The consumer of the read lines
+     */
+
+    public void setOnRead(Consumer<String> onRead) {
+
+        this.onRead = onRead;
+    }
+
     @Override
-    protected Task<String> createTask() {
+    protected Task<DebugInfo<Short>> createTask() {
 
-        return new Task<String>() {
+        File file = this.file;
+        Consumer<String> onRead = this.onRead;
 
-            @Override
-            protected String call() throws Exception {
+        return new Task<DebugInfo<Short>>() {
 
-                StringBuilder builder = new StringBuilder();
+            private final Queue<String> batches = new ConcurrentLinkedQueue<>();
+            private final AtomicBoolean scheduled = new AtomicBoolean();
+            private final StringBuilder batch = new StringBuilder();
+            private int lines;
+
+            @Override
+            protected DebugInfo<Short> call() throws Exception {
 
                 try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
 
-                    String line;
+                    DebugInfo<Short> debugInfo = parser.parseDebugInfo(reader, line -> {
+
+                        batch.append(line).append('\n');
+
+                        if (BATCH_SIZE == ++lines) {
+
+                            publish();
+                        }
+                    });
+
+                    publish();
+                    return debugInfo;
+                }
+            }
+
+            /**
+             * Hands over the current batch. Batches queued until the application thread
+             * picks them up are handed over together.
+             */
+
+            private void publish() {
+
+                if (0 == batch.length()) {
+
+                    return;
+                }
+
+                batches.offer(batch.toString());
+                batch.setLength(0);
+                lines = 0;
 
-                    while (null != (line = reader.readLine())) {
+                if (scheduled.compareAndSet(false, true)) {
 
-                        builder.append(line).append(System.lineSeparator());
-                    }
+                    Platform.runLater(this::drain);
                 }
+            }
+
+            private void drain() {
 
-                return builder.toString();
+                scheduled.set(false);
+
+                StringBuilder text = new StringBuilder();
+                String next;
+
+                while (null != (next = batches.poll())) {
+
+                    text.append(next);
+                }
+
+                if (0 < text.length()) {
+
+                    onRead.accept(text.toString());
+                }
             }
         };
     }
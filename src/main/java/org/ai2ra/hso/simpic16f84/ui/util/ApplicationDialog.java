@@ -68,6 +68,25 @@ public class ApplicationDialog {
         alert.showAndWait();
     }
 
+    /**
+     * Dialog for entering a single value, e.g. the condition of a breakpoint.
+     *
+     * @param title The title of the dialog
+     * @param header The description of the expected value
+     * @param value The current value, might be empty
+     * @return The entered value, empty if the dialog was cancelled
+     */
+
+    public static Optional<String> showInput(String title, String header, String value) {
+
+        TextInputDialog dialog = new TextInputDialog(value);
+        dialog.setTitle(title);
+        dialog.setHeaderText(header);
+        dialog.setContentText(title + ":");
+
+        return dialog.showAndWait();
+    }
+
     /**
      * Shows the application specific about dialog.
      */
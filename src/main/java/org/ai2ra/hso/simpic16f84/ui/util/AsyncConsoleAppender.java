@@ -0,0 +1,340 @@
+package org.ai2ra.hso.simpic16f84.ui.util;
+
+import org.apache.log4j.ConsoleAppender;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.apache.log4j.spi.LocationInfo;
+import org.apache.log4j.spi.LoggingEvent;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Console appender writing the logs from a background thread. Logging threads, e.g.
+ * the simulation thread, just publish the event into a preallocated ring buffer, so
+ * their throughput doesn't depend on the speed of the console.
+ *
+ * <p>
+ *     Events are published by a single producer at a time, since log4j already
+ *     serializes the appending threads, and are drained by a single consumer. Therefore
+ *     the ring buffer gets along without locks. If the buffer is full, the
+ *     {@link OverflowPolicy} decides whether events are dropped or the logging thread
+ *     waits. The number of dropped events is logged as soon as the buffer is drained.
+ * </p>
+ *
+ * <pre>{@code
+ * log4j.appender.stdout=org.ai2ra.hso.simpic16f84.ui.util.AsyncConsoleAppender
+ * log4j.appender.stdout.BufferSize=1024
+ * log4j.appender.stdout.OverflowPolicy=sample
+ * log4j.appender.stdout.SampleRate=10
+ * }</pre>
+ *
+ * @author 0x1C1B
+ */
+
+public class AsyncConsoleAppender extends ConsoleAppender {
+
+    /** Default number of buffered events. */
+    public static final int DEFAULT_BUFFER_SIZE = 1024;
+    /** Default rate of sampled events, every n-th event is kept. */
+    public static final int DEFAULT_SAMPLE_RATE = 10;
+
+    /** Time a blocked logging thread waits before checking the buffer again. */
+    private static final long BLOCK_INTERVAL = TimeUnit.MICROSECONDS.toNanos(100);
+
+    /**
+     * Behaviour if an event is appended while the buffer is full.
+     */
+
+    public enum OverflowPolicy {
+
+        /** Drops the appended event. */
+        DROP,
+        /** Blocks the logging thread until the event fits into the buffer. */
+        BLOCK,
+        /**
+         * Keeps only every n-th event as soon as the buffer is half full, warnings and
+         * errors are kept as long as they fit. Drops the appended event if the buffer
+         * is full.
+         */
+        SAMPLE
+    }
+
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+    private int sampleRate = DEFAULT_SAMPLE_RATE;
+    private boolean locationInfo = true;
+
+    private LoggingEvent[] buffer;
+    /** Sequence of the next published event, only written by the producer. */
+    private volatile long tail;
+    /** Sequence of the next drained event, only written by the consumer. */
+    private volatile long head;
+    /** Number of dropped events, only written by the producer. */
+    private volatile long dropped;
+    /** Number of events considered for sampling, only accessed by the producer. */
+    private long sampled;
+
+    private volatile boolean waiting;
+    private volatile boolean stopping;
+    private volatile Thread drainer;
+
+    public int getBufferSize() {
+
+        return bufferSize;
+    }
+
+    /**
+     * Sets the number of buffered events, takes effect on activation.
+     *
+     * @param bufferSize The number of buffered events
+     * @throws IllegalArgumentException Thrown if the size isn't positive
+     */
+
+    public void setBufferSize(int bufferSize) throws IllegalArgumentException {
+
+        if (0 >= bufferSize) {
+
+            throw new IllegalArgumentException("Buffer size must be positive");
+        }
+
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Determines the name of the overflow policy. Names are used instead of the
+     * {@link OverflowPolicy} itself, since the log4j configuration only sets strings.
+     *
+     * @return Returns the name of the overflow policy
+     */
+
+    public String getOverflowPolicy() {
+
+        return overflowPolicy.name();
+    }
+
+    /**
+     * Sets the overflow policy by name, case-insensitive.
+     *
+     * @param overflowPolicy The name of the overflow policy
+     * @throws IllegalArgumentException Thrown if the policy is unknown
+     */
+
+    public void setOverflowPolicy(String overflowPolicy) throws IllegalArgumentException {
+
+        this.overflowPolicy = OverflowPolicy.valueOf(overflowPolicy.trim().toUpperCase(Locale.ROOT));
+    }
+
+    public int getSampleRate() {
+
+        return sampleRate;
+    }
+
+    /**
+     * Sets the rate of sampled events if {@link OverflowPolicy#SAMPLE} applies.
+     *
+     * @param sampleRate The rate, every n-th event is kept
+     * @throws IllegalArgumentException Thrown if the rate isn't positive
+     */
+
+    public void setSampleRate(int sampleRate) throws IllegalArgumentException {
+
+        if (0 >= sampleRate) {
+
+            throw new IllegalArgumentException("Sample rate must be positive");
+        }
+
+        this.sampleRate = sampleRate;
+    }
+
+    public boolean getLocationInfo() {
+
+        return locationInfo;
+    }
+
+    /**
+     * Sets if the location of the logging call is captured. The location can only be
+     * determined by the logging thread, so it's captured before publishing the event.
+     *
+     * @param locationInfo True if the location is captured, otherwise false
+     */
+
+    public void setLocationInfo(boolean locationInfo) {
+
+        this.locationInfo = locationInfo;
+    }
+
+    /**
+     * Determines the number of dropped events since activation.
+     *
+     * @return Returns the number of dropped events
+     */
+
+    public long getDroppedCount() {
+
+        return dropped;
+    }
+
+    @Override
+    public synchronized void activateOptions() {
+
+        super.activateOptions();
+
+        if (null == drainer) {
+
+            buffer = new LoggingEvent[bufferSize];
+
+            drainer = new Thread(this::drain, "Log Appender");
+            drainer.setDaemon(true);
+            drainer.start();
+        }
+    }
+
+    /**
+     * Publishes the event into the buffer. If the appender isn't activated yet, the
+     * event is written directly.
+     *
+     * @param event The appended event
+     */
+
+    @Override
+    public void append(LoggingEvent event) {
+
+        if (null == buffer) {
+
+            super.append(event);
+            return;
+        }
+
+        // Thread dependent data must be captured by the logging thread
+
+        event.getThreadName();
+        event.getNDC();
+        event.getMDCCopy();
+        event.getRenderedMessage();
+        event.getThrowableStrRep();
+
+        if (locationInfo) {
+
+            event.getLocationInformation();
+        }
+
+        if (!offer(event)) {
+
+            dropped = dropped + 1; // Single writer, no lost updates
+        }
+    }
+
+    /**
+     * Waits until the buffer is drained and the background thread terminated, then
+     * closes the appender.
+     */
+
+    @Override
+    public synchronized void close() {
+
+        Thread thread = drainer;
+
+        if (null != thread) {
+
+            stopping = true;
+            LockSupport.unpark(thread);
+
+            try {
+
+                thread.join();
+
+            } catch (InterruptedException exc) {
+
+                Thread.currentThread().interrupt();
+            }
+
+            drainer = null;
+            buffer = null;
+        }
+
+        super.close();
+    }
+
+    private boolean offer(LoggingEvent event) {
+
+        long sequence = tail;
+
+        if (OverflowPolicy.SAMPLE == overflowPolicy && sequence - head >= buffer.length / 2 &&
+                !event.getLevel().isGreaterOrEqual(Level.WARN) && 0 != sampled++ % sampleRate) {
+
+            return false;
+        }
+
+        while (sequence - head >= buffer.length) {
+
+            if (OverflowPolicy.BLOCK != overflowPolicy || Thread.currentThread().isInterrupted()) {
+
+                return false;
+            }
+
+            LockSupport.parkNanos(BLOCK_INTERVAL);
+        }
+
+        buffer[(int) (sequence % buffer.length)] = event;
+        tail = sequence + 1;
+
+        if (waiting) {
+
+            LockSupport.unpark(drainer);
+        }
+
+        return true;
+    }
+
+    private void drain() {
+
+        long reported = 0;
+
+        while (true) {
+
+            long sequence = head;
+
+            if (sequence == tail) {
+
+                long count = dropped;
+
+                if (reported != count) {
+
+                    super.append(new LoggingEvent(AsyncConsoleAppender.class.getName(),
+                            Logger.getLogger(AsyncConsoleAppender.class), System.currentTimeMillis(),
+                            Level.WARN, String.format("Dropped %d log events", count - reported),
+                            Thread.currentThread().getName(), null, null, LocationInfo.NA_LOCATION_INFO, null));
+
+                    reported = count;
+                }
+
+                if (stopping) {
+
+                    return;
+                }
+
+                // Published events are checked again after announcing the wait
+
+                waiting = true;
+
+                if (sequence == tail && !stopping) {
+
+                    LockSupport.park(this);
+                }
+
+                waiting = false;
+                continue;
+            }
+
+            int index = (int) (sequence % buffer.length);
+            LoggingEvent event = buffer[index];
+
+            buffer[index] = null;
+            head = sequence + 1;
+
+            super.append(event);
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package org.ai2ra.hso.simpic16f84.ui.util;
 
-import javafx.beans.binding.Bindings;
-import javafx.beans.binding.BooleanBinding;
+import javafx.collections.SetChangeListener;
 import javafx.scene.Node;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
@@ -11,7 +10,8 @@ import java.util.function.IntFunction;
 
 /**
  * This class is responsible for rendering the breakpoints inside of a
- * {@link LstViewer LstViewer}.
+ * {@link LstViewer LstViewer}. Instead of binding every rendered breakpoint, a
+ * single listener updates just the breakpoints of the changed lines.
  *
  * @see LstViewer
  * @author 0x1C1B
@@ -20,23 +20,37 @@ import java.util.function.IntFunction;
 public class BreakpointFactory implements IntFunction<Node> {
 
     private final LstViewer viewer;
+    /** Rendered breakpoints of every line. */
+    private final LineNodes breakpoints;
 
     public BreakpointFactory(LstViewer viewer) {
 
         this.viewer = viewer;
+        this.breakpoints = new LineNodes();
+
+        // Allow dynamic removing/adding of the breakpoint
+
+        viewer.breakpointsProperty().addListener((SetChangeListener<Integer>) change -> {
+
+            if (change.wasRemoved()) {
+
+                breakpoints.setVisible(change.getElementRemoved(), false);
+            }
+
+            if (change.wasAdded()) {
+
+                breakpoints.setVisible(change.getElementAdded(), true);
+            }
+        });
     }
 
     @Override public Node apply(int line) {
 
         Circle breakpoint = new Circle(4);
         breakpoint.setFill(Color.RED);
+        breakpoint.setVisible(viewer.getBreakpoints().contains(line));
 
-        // Allow dynamic removing/adding of the breakpoint
-
-        BooleanBinding isVisible = Bindings.createBooleanBinding(() ->
-                viewer.breakpointsProperty().contains(line), viewer.breakpointsProperty());
-
-        breakpoint.visibleProperty().bind(isVisible);
+        breakpoints.add(line, breakpoint);
 
         return breakpoint;
     }
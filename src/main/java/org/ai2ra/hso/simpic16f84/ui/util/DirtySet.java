@@ -0,0 +1,90 @@
+package org.ai2ra.hso.simpic16f84.ui.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntConsumer;
+
+/**
+ * Lock-free set of dirty indices, e.g. changed memory locations, bridging the simulation
+ * thread and the JavaFX Application Thread. The simulation thread marks changed indices,
+ * the UI drains them once per frame and reads the current values itself. This way a
+ * location written a thousand times within a frame is updated only once, intermediate
+ * values are dropped.
+ *
+ * <p>
+ *     Marking an already dirty index is just a read, the set is only written if the index
+ *     changes from clean to dirty.
+ * </p>
+ *
+ * @author 0x1C1B
+ */
+
+public class DirtySet {
+
+    private final AtomicLongArray words;
+
+    /**
+     * Constructs an empty set.
+     *
+     * @param size The number of indices, from zero inclusive to size exclusive
+     */
+
+    public DirtySet(int size) {
+
+        this.words = new AtomicLongArray((size + 63) >>> 6);
+    }
+
+    /**
+     * Marks an index as dirty. Invoked by the thread causing the change.
+     *
+     * @param index The dirty index
+     */
+
+    public void mark(int index) {
+
+        int word = index >>> 6;
+        long bit = 1L << index; // Shift distance is taken modulo 64
+
+        long current;
+
+        while (0 == ((current = words.get(word)) & bit)) {
+
+            if (words.compareAndSet(word, current, current | bit)) {
+
+                return;
+            }
+        }
+    }
+
+    /**
+     * Removes all dirty indices, passing each of them to the given consumer in ascending
+     * order. Indices marked while draining are either passed or kept for the next drain.
+     *
+     * @param consumer The consumer of the dirty indices
+     * @return Returns true if at least one index was dirty, otherwise false
+     */
+
+    public boolean drain(IntConsumer consumer) {
+
+        boolean dirty = false;
+
+        for (int word = 0; word < words.length(); ++word) {
+
+            if (0 == words.get(word)) {
+
+                continue; // Avoids writing clean words
+            }
+
+            long bits = words.getAndSet(word, 0L);
+
+            while (0 != bits) {
+
+                consumer.accept((word << 6) + Long.numberOfTrailingZeros(bits));
+                bits &= bits - 1;
+            }
+
+            dirty = true;
+        }
+
+        return dirty;
+    }
+}
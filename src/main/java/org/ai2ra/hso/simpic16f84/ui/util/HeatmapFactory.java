@@ -0,0 +1,69 @@
+package org.ai2ra.hso.simpic16f84.ui.util;
+
+import javafx.beans.binding.Bindings;
+import javafx.beans.binding.ObjectBinding;
+import javafx.scene.Node;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
+import javafx.scene.shape.Rectangle;
+import org.ai2ra.hso.simpic16f84.ui.component.LstViewer;
+
+import java.util.function.IntFunction;
+
+/**
+ * Responsible for rendering the profiling heatmap inside of a
+ * {@link LstViewer LstViewer}. Lines are colored from yellow to red, depending
+ * on the share of cycles the instruction consumed.
+ *
+ * @author 0x1C1B
+ * @see LstViewer
+ */
+
+public class HeatmapFactory implements IntFunction<Node> {
+
+    private final LstViewer viewer;
+
+    public HeatmapFactory(LstViewer viewer) {
+
+        this.viewer = viewer;
+    }
+
+    @Override
+    public Node apply(int line) {
+
+        Rectangle heat = new Rectangle(6.0, 14.0);
+
+        // Allow dynamic updating of the heatmap
+
+        ObjectBinding<Paint> fill = Bindings.createObjectBinding(() -> {
+
+            double[] heatmap = viewer.getHeatmap();
+            int address = viewer.lineNumberToAddress(line);
+
+            if (null == heatmap || 0 > address || heatmap.length <= address || 0.0 == heatmap[address]) {
+
+                return Color.TRANSPARENT;
+            }
+
+            return toColor(heatmap[address]);
+
+        }, viewer.heatmapProperty(), viewer.debugInfoProperty());
+
+        heat.fillProperty().bind(fill);
+
+        return heat;
+    }
+
+    /**
+     * Determines the heatmap color for the given share, reaching from yellow for the
+     * lowest share to red for the highest share.
+     *
+     * @param ratio The share normalized to the maximum, between 0.0 and 1.0
+     * @return Returns the related color
+     */
+
+    public static Color toColor(double ratio) {
+
+        return Color.hsb(60.0 * (1.0 - ratio), 1.0, 1.0);
+    }
+}
@@ -1,7 +1,5 @@
 package org.ai2ra.hso.simpic16f84.ui.util;
 
-import javafx.beans.binding.Bindings;
-import javafx.beans.binding.BooleanBinding;
 import javafx.scene.Node;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Polygon;
@@ -11,7 +9,8 @@ import java.util.function.IntFunction;
 
 /**
  * Responsible for rendering a line indicator, that indicates the current
- * execution line.
+ * execution line. Instead of binding every rendered indicator, a single listener
+ * updates just the indicators of the previous and the current line.
  *
  * @author 0x1C1B
  * @see LstViewer
@@ -20,10 +19,21 @@ import java.util.function.IntFunction;
 public class LineIndicatorFactory implements IntFunction<Node> {
 
     private final LstViewer viewer;
+    /** Rendered indicators of every line. */
+    private final LineNodes indicators;
 
     public LineIndicatorFactory(LstViewer viewer) {
 
         this.viewer = viewer;
+        this.indicators = new LineNodes();
+
+        // Allow dynamic moving of the indicator
+
+        viewer.indicatorProperty().addListener((observable, oldLine, line) -> {
+
+            indicators.setVisible(oldLine.intValue(), false);
+            indicators.setVisible(line.intValue(), true);
+        });
     }
 
     @Override
@@ -31,14 +41,9 @@ public class LineIndicatorFactory implements IntFunction<Node> {
 
         Polygon indicator = new Polygon(0.0, 0.0, 10.0, 5.0, 0.0, 10.0);
         indicator.setFill(Color.GREEN);
+        indicator.setVisible(viewer.getIndicator() == line);
 
-        // Allow dynamic removing/adding of the breakpoint
-
-        BooleanBinding isVisible = Bindings.createBooleanBinding(() ->
-                        viewer.indicatorProperty().getValue().equals(line),
-                viewer.indicatorProperty());
-
-        indicator.visibleProperty().bind(isVisible);
+        indicators.add(line, indicator);
 
         return indicator;
     }
@@ -0,0 +1,119 @@
+package org.ai2ra.hso.simpic16f84.ui.util;
+
+import javafx.scene.Node;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registry of the gutter nodes rendered per line of a {@link org.ai2ra.hso.simpic16f84.ui.component.LstViewer
+ * LstViewer}. It allows updating just the nodes of changed lines, instead of binding every
+ * single node. Nodes are referenced weakly, so discarded nodes are released.
+ *
+ * @author 0x1C1B
+ */
+
+class LineNodes {
+
+    /** Minimum number of registered nodes before pruning all lines. */
+    private static final int MIN_PRUNE_THRESHOLD = 256;
+
+    private final Map<Integer, List<WeakReference<Node>>> nodes;
+    /** Number of registered references, including released ones. */
+    private int registered;
+    private int pruneThreshold = MIN_PRUNE_THRESHOLD;
+
+    LineNodes() {
+
+        this.nodes = new HashMap<>();
+    }
+
+    /**
+     * Registers a node rendered for the given line.
+     *
+     * @param line The line the node belongs to
+     * @param node The rendered node
+     */
+
+    void add(int line, Node node) {
+
+        List<WeakReference<Node>> references = nodes.computeIfAbsent(line, key -> new ArrayList<>(1));
+
+        registered -= references.size();
+        references.removeIf(reference -> null == reference.get());
+        references.add(new WeakReference<>(node));
+        registered += references.size();
+
+        // Lines scrolled out of view aren't registered again, they're pruned once the
+        // number of registrations doubled since the last pruning
+
+        if (pruneThreshold < registered) {
+
+            prune();
+            pruneThreshold = Math.max(MIN_PRUNE_THRESHOLD, 2 * registered);
+        }
+    }
+
+    /**
+     * Removes the references of released nodes from all lines.
+     */
+
+    private void prune() {
+
+        registered = 0;
+
+        for (Iterator<List<WeakReference<Node>>> iterator = nodes.values().iterator(); iterator.hasNext(); ) {
+
+            List<WeakReference<Node>> references = iterator.next();
+
+            references.removeIf(reference -> null == reference.get());
+            registered += references.size();
+
+            if (references.isEmpty()) {
+
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Changes the visibility of all nodes rendered for the given line.
+     *
+     * @param line The changed line
+     * @param visible True if the nodes should be visible, otherwise false
+     */
+
+    void setVisible(int line, boolean visible) {
+
+        List<WeakReference<Node>> references = nodes.get(line);
+
+        if (null == references) {
+
+            return;
+        }
+
+        registered -= references.size();
+        references.removeIf(reference -> {
+
+            Node node = reference.get();
+
+            if (null != node) {
+
+                node.setVisible(visible);
+            }
+
+            return null == node;
+        });
+
+        registered += references.size();
+
+        if (references.isEmpty()) {
+
+            nodes.remove(line);
+        }
+    }
+}
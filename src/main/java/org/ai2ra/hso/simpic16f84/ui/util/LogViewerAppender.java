@@ -0,0 +1,47 @@
+package org.ai2ra.hso.simpic16f84.ui.util;
+
+import org.ai2ra.hso.simpic16f84.ui.component.LogViewer;
+import org.ai2ra.hso.simpic16f84.ui.model.LogEntry;
+import org.apache.log4j.AppenderSkeleton;
+import org.apache.log4j.spi.LoggingEvent;
+
+/**
+ * Custom log4j appender for writing logs to the {@link LogViewer} component. Messages
+ * are just handed over, the viewer applies them in batches once per JavaFX pulse.
+ * Messages logged before a viewer is set are dropped.
+ *
+ * @author 0x1C1B
+ */
+
+public class LogViewerAppender extends AppenderSkeleton {
+
+    private static volatile LogViewer logViewer;
+
+    public static void setLogViewer(final LogViewer logViewer) {
+
+        LogViewerAppender.logViewer = logViewer;
+    }
+
+    @Override
+    protected void append(LoggingEvent event) {
+
+        LogViewer viewer = logViewer;
+
+        if (null != viewer) {
+
+            viewer.append(new LogEntry(event.getLevel(), this.layout.format(event)));
+        }
+    }
+
+    @Override
+    public boolean requiresLayout() {
+
+        return true;
+    }
+
+    @Override
+    public void close() {
+
+        closed = true;
+    }
+}
@@ -0,0 +1,161 @@
+package org.ai2ra.hso.simpic16f84.ui.util;
+
+import javafx.collections.ObservableListBase;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Observable list with a fixed capacity, backed by a ring buffer. Elements are only
+ * appended in batches, as soon as the capacity is exceeded the oldest elements are
+ * dropped. Neither appending nor dropping moves the remaining elements, so a batch
+ * costs only its own size. Each batch is reported as a single change.
+ *
+ * @author 0x1C1B
+ * @param <E> Type of the elements
+ */
+
+public class RingBufferList<E> extends ObservableListBase<E> {
+
+    private final Object[] elements;
+    /** Index of the oldest element inside of the ring buffer. */
+    private int head;
+    private int size;
+
+    /**
+     * Constructs an empty list.
+     *
+     * @param capacity The maximum number of elements
+     * @throws IllegalArgumentException Thrown if the capacity isn't positive
+     */
+
+    public RingBufferList(int capacity) throws IllegalArgumentException {
+
+        if (0 >= capacity) {
+
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+
+        this.elements = new Object[capacity];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+
+        if (0 > index || size <= index) {
+
+            throw new IndexOutOfBoundsException("Index " + index + " is outside of the list");
+        }
+
+        return (E) elements[(head + index) % elements.length];
+    }
+
+    @Override
+    public int size() {
+
+        return size;
+    }
+
+    /**
+     * Determines the maximum number of elements.
+     *
+     * @return Returns the capacity
+     */
+
+    public int getCapacity() {
+
+        return elements.length;
+    }
+
+    /**
+     * Appends a batch of elements, dropping the oldest ones if the capacity is exceeded.
+     * If the batch itself exceeds the capacity, only its newest elements are kept.
+     *
+     * @param batch The elements to append, in order
+     */
+
+    public void append(Collection<? extends E> batch) {
+
+        if (batch.isEmpty()) {
+
+            return;
+        }
+
+        int skipped = Math.max(0, batch.size() - elements.length);
+        int overflow = Math.max(0, size + batch.size() - skipped - elements.length);
+
+        beginChange();
+
+        try {
+
+            if (0 < overflow) {
+
+                List<E> removed = new ArrayList<>(overflow);
+
+                for (int index = 0; index < overflow; ++index) {
+
+                    removed.add(get(index));
+                    elements[(head + index) % elements.length] = null;
+                }
+
+                head = (head + overflow) % elements.length;
+                size -= overflow;
+
+                nextRemove(0, removed);
+            }
+
+            int from = size;
+
+            for (E element : batch) {
+
+                if (0 < skipped) {
+
+                    --skipped;
+                    continue;
+                }
+
+                elements[(head + size) % elements.length] = element;
+                ++size;
+            }
+
+            nextAdd(from, size);
+
+        } finally {
+
+            endChange();
+        }
+    }
+
+    @Override
+    public void clear() {
+
+        if (0 == size) {
+
+            return;
+        }
+
+        List<E> removed = Collections.unmodifiableList(new ArrayList<>(this));
+
+        beginChange();
+
+        try {
+
+            for (int index = 0; index < size; ++index) {
+
+                elements[(head + index) % elements.length] = null;
+            }
+
+            head = 0;
+            size = 0;
+
+            nextRemove(0, removed);
+
+        } finally {
+
+            endChange();
+        }
+    }
+}
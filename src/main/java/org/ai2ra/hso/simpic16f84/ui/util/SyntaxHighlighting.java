@@ -5,8 +5,8 @@ import org.fxmisc.richtext.model.StyleSpansBuilder;
 
 import java.util.Collection;
 import java.util.Collections;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.stream.Stream;
 
 /**
@@ -42,31 +42,26 @@ public class SyntaxHighlighting {
         }
     }
 
-    private static final String KEYWORD_PATTERN;
-    private static final String DIRECTIVE_PATTERN;
-    private static final String COMMENT_PATTERN;
-    private static final Pattern PATTERN;
+    /** Style of every highlighted word, looked up instead of matching alternations. */
+    private static final Map<String, String> STYLES;
 
     static {
 
-        KEYWORD_PATTERN = "\\b(" + String.join("|", Keyword.names()) + ")\\b";
-        DIRECTIVE_PATTERN = "\\b(" + String.join("|", Directive.names()) + ")\\b";
-        COMMENT_PATTERN = ";[^\\n]*";
+        STYLES = new HashMap<>();
 
-        PATTERN = Pattern.compile(
-
-                String.join("|",
-
-                        String.format("(?<KEYWORD>%s)", KEYWORD_PATTERN),
-                        String.format("(?<DIRECTIVE>%s)", DIRECTIVE_PATTERN),
-                        String.format("(?<COMMENT>%s)", COMMENT_PATTERN)
-                )
-        );
+        Stream.of(Keyword.names()).forEach(name -> STYLES.put(name, "keyword"));
+        Stream.of(Directive.names()).forEach(name -> STYLES.put(name, "directive"));
     }
 
     /**
-     * Computes the text styles for syntax highlighting. Only matched pattern will be
-     * styled. Other parts of the given text are none styled.
+     * Computes the text styles for syntax highlighting. Only keywords, directives and
+     * comments will be styled. Other parts of the given text are none styled.
+     *
+     * <p>
+     *     The text is scanned once, words are looked up by hash and comments reach up to
+     *     the end of line. Therefore styles never span multiple lines and each line might
+     *     be highlighted on its own, e.g. only the changed lines of a text.
+     * </p>
      *
      * @param text The given text it's syntax should be highlighted
      * @return Returns the computed style spans
@@ -75,25 +70,49 @@ public class SyntaxHighlighting {
     public static StyleSpans<Collection<String>> compute(String text) {
 
         int end = 0;
-        Matcher matcher = PATTERN.matcher(text);
+        int index = 0;
         StyleSpansBuilder<Collection<String>> builder = new StyleSpansBuilder<>();
 
-        while(matcher.find()) {
+        while (index < text.length()) {
+
+            char ch = text.charAt(index);
+            int start = index;
+            String style = null;
+
+            if (';' == ch) {
+
+                while (index < text.length() && '\n' != text.charAt(index)) {
+
+                    ++index;
+                }
+
+                style = "comment";
+
+            } else if (isWordPart(ch)) {
+
+                while (index < text.length() && isWordPart(text.charAt(index))) {
 
-            String style = null != matcher.group("KEYWORD") ? "keyword" :
-                    null != matcher.group("DIRECTIVE") ? "directive" :
-                    null != matcher.group("COMMENT") ? "comment" : null;
+                    ++index;
+                }
 
-            assert null != style; // Should never happens
+                style = STYLES.get(text.substring(start, index));
 
-            // Set none matching paragraphs in text as none styled
+            } else {
 
-            builder.add(Collections.emptyList(), matcher.start() - end);
+                ++index;
+            }
 
-            // Style found matcher
+            if (null != style) {
 
-            builder.add(Collections.singleton(style), matcher.end() - matcher.start());
-            end = matcher.end();
+                // Set none matching paragraphs in text as none styled
+
+                builder.add(Collections.emptyList(), start - end);
+
+                // Style found word or comment
+
+                builder.add(Collections.singleton(style), index - start);
+                end = index;
+            }
         }
 
         // Set rest of text as none styled
@@ -102,4 +121,17 @@ public class SyntaxHighlighting {
 
         return builder.create();
     }
+
+    /**
+     * Checks if the character is part of a word, same as for regular expression word
+     * boundaries.
+     *
+     * @param ch The character to check
+     * @return Returns true if the character is part of a word, otherwise false
+     */
+
+    private static boolean isWordPart(char ch) {
+
+        return Character.isLetterOrDigit(ch) || '_' == ch;
+    }
 }
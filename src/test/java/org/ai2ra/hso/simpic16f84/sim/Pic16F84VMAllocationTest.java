@@ -0,0 +1,118 @@
+package org.ai2ra.hso.simpic16f84.sim;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Collection;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifies that executing instructions doesn't allocate memory as long as no listener
+ * is attached. The allocated bytes are measured per thread using the
+ * {@link com.sun.management.ThreadMXBean}, if the running JVM doesn't support this
+ * kind of measurement the test is skipped.
+ *
+ * @author 0x1C1B
+ */
+
+@RunWith(Parameterized.class)
+public class Pic16F84VMAllocationTest {
+
+    /** Number of instructions executed before measuring, allows the JIT compiler to settle. */
+    private static final long WARMUP_INSTRUCTIONS = 200_000;
+    private static final long MEASURED_INSTRUCTIONS = 100_000;
+    /**
+     * Accepted number of bytes allocated during the whole measurement. This covers one-time
+     * allocations while the JIT compiler replaces compiled code, allocating per executed
+     * instruction would exceed the budget by magnitudes.
+     */
+    private static final long ALLOCATION_BUDGET = 1024;
+
+    @Parameterized.Parameters(name = "{0}") public static Collection<Object[]> parameters() {
+
+        return Arrays.asList(new Object[][]{
+
+                {"/corpus/DelayLoops.LST"},
+                {"/corpus/NestedCalls.LST"},
+                {"/corpus/Tmr0Interrupt.LST"},
+                {"/corpus/PortBInterrupt.LST"},
+                {"/corpus/IndirectAddressing.LST"},
+                {"/corpus/EepromReadWrite.LST"},
+                {"/LstFiles/TPicSim4.LST"},
+                {"/LstFiles/TPicSim8.LST"}
+        });
+    }
+
+    @Parameterized.Parameter public String program;
+
+    private com.sun.management.ThreadMXBean threads;
+    private Pic16F84VM simulator;
+
+    @Before
+    public void setUp() throws Exception {
+
+        Assume.assumeTrue("Allocation measurement isn't supported",
+                ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        Assume.assumeTrue("Allocation measurement isn't supported", threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        simulator = new Pic16F84VM();
+        simulator.load(new File(getClass().getResource(program).toURI()));
+    }
+
+    @Test
+    public void testExecuteWithoutListeners() {
+
+        long thread = Thread.currentThread().getId();
+
+        execute(WARMUP_INSTRUCTIONS);
+
+        // Measuring allocates by itself, these costs are determined first
+
+        long calibration = -threads.getThreadAllocatedBytes(thread) + threads.getThreadAllocatedBytes(thread);
+
+        long before = threads.getThreadAllocatedBytes(thread);
+        execute(MEASURED_INSTRUCTIONS);
+        long allocated = threads.getThreadAllocatedBytes(thread) - before - calibration;
+
+        assertTrue(String.format("Allocated %d bytes for %d instructions", allocated, MEASURED_INSTRUCTIONS),
+                ALLOCATION_BUDGET >= allocated);
+    }
+
+    /**
+     * Executes the given number of instructions. As soon as the program reaches it's
+     * terminating endless loop, it's restarted from the beginning.
+     *
+     * @param instructions The number of instructions to execute
+     */
+
+    private void execute(long instructions) {
+
+        int address = -1;
+
+        for (long count = 0; count < instructions; ++count) {
+
+            int next = simulator.execute();
+
+            if (next == address) {
+
+                simulator.stop(); // Restarts with the next instruction
+                address = -1;
+
+            } else {
+
+                address = next;
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package org.ai2ra.hso.simpic16f84.sim;
+
+import org.ai2ra.hso.simpic16f84.sim.vm.DebugInfo;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class Pic16F84VMTest {
+
+    private Pic16F84VM simulator;
+
+    @Before
+    public void setUp() {
+
+        simulator = new Pic16F84VM();
+    }
+
+    /**
+     * Creates a program consisting of the given words, placed at their addresses.
+     */
+
+    private static DebugInfo<Short> program(Short... words) {
+
+        int[] lines = new int[words.length];
+        Arrays.setAll(lines, line -> line);
+
+        return new DebugInfo<>(words, lines, lines, Collections.emptyMap(), Collections.emptyMap());
+    }
+
+    @Test
+    public void loadAtEndOfProgramMemory() {
+
+        Short[] words = new Short[1024];
+        words[0x0000] = 0x2BFF; // GOTO 3FFh
+        words[0x03FF] = 0x3042; // MOVLW 42h
+
+        simulator.load(program(words));
+
+        assertEquals(0x03FF, simulator.execute());
+        simulator.execute();
+        assertEquals(0x42, simulator.getExecutor().getWorkingRegister() & 0xFF);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void loadExceedingProgramMemory() {
+
+        simulator.load(program(new Short[1025]));
+    }
+
+    @Test
+    public void clearPreviousProgram() {
+
+        simulator.load(program((short) 0x3042, (short) 0x3043)); // MOVLW 42h, MOVLW 43h
+        simulator.load(program((short) 0x3041)); // MOVLW 41h
+
+        simulator.execute();
+        simulator.execute();
+
+        assertNull(simulator.getProgramMemory().get(0x0001));
+        assertEquals(0x41, simulator.getExecutor().getWorkingRegister() & 0xFF);
+    }
+}
@@ -0,0 +1,141 @@
+package org.ai2ra.hso.simpic16f84.sim;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class RealTimeSchedulerTest {
+
+    private static final long MILLISECOND = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private Pic16F84VM simulator;
+    private RealTimeScheduler scheduler;
+    private long now;
+
+    @Before
+    public void setUp() throws Exception {
+
+        simulator = new Pic16F84VM();
+        simulator.load(new File(getClass().getResource("/corpus/DelayLoops.LST").toURI()));
+        simulator.execute(); // Starts the execution, simulated time is reset
+
+        scheduler = new RealTimeScheduler(simulator, MILLISECOND, 100 * MILLISECOND, () -> now);
+        scheduler.synchronize();
+    }
+
+    @Test
+    public void paceAtFrequency() {
+
+        assertEquals(-1, scheduler.execute(address -> false)); // Nothing due yet
+
+        now += MILLISECOND;
+        assertNotEquals(-1, scheduler.execute(address -> false));
+
+        // One instruction cycle takes 1μs at 4MHz, the last instruction might overshoot
+
+        double runtime = simulator.getExecutor().getRuntimeCounter();
+
+        assertTrue(1001.0 <= runtime && 1003.0 >= runtime);
+        assertTrue(0 >= scheduler.getDrift() && -2000 <= scheduler.getDrift());
+    }
+
+    @Test
+    public void paceAtChangedFrequency() {
+
+        simulator.getExecutor().setFrequency(1_000_000.0);
+        long cycles = simulator.getExecutor().getExecutionSample() >>> 13;
+
+        now += MILLISECOND;
+        scheduler.execute(address -> false);
+
+        // One instruction cycle takes 4μs at 1MHz
+
+        long executed = (simulator.getExecutor().getExecutionSample() >>> 13) - cycles;
+        assertTrue(250 <= executed && 251 >= executed);
+    }
+
+    @Test
+    public void catchUp() {
+
+        now += 50 * MILLISECOND; // Falls behind, e.g. because of a long pause
+        scheduler.execute(address -> false);
+
+        assertTrue(50_001.0 <= simulator.getExecutor().getRuntimeCounter());
+        assertEquals(0, scheduler.getOverruns());
+    }
+
+    @Test
+    public void dropExceededLag() {
+
+        now += 1000 * MILLISECOND;
+
+        assertEquals(-1, scheduler.execute(address -> false));
+        assertEquals(1, scheduler.getOverruns());
+        assertEquals(1.0, simulator.getExecutor().getRuntimeCounter(), 0.0);
+
+        now += MILLISECOND; // Continues from the current point in time
+        scheduler.execute(address -> false);
+
+        assertTrue(1001.0 <= simulator.getExecutor().getRuntimeCounter());
+        assertTrue(1003.0 >= simulator.getExecutor().getRuntimeCounter());
+    }
+
+    @Test
+    public void haltBatch() {
+
+        now += MILLISECOND;
+
+        assertEquals(0x0006, scheduler.execute(address -> 0x0006 == address));
+        assertEquals(6.0, simulator.getExecutor().getRuntimeCounter(), 0.0);
+    }
+
+    @Test
+    public void keepPaceWithInterrupts() throws Exception {
+
+        // Entering the ISR doesn't advance the simulated time, the batch continues anyway
+
+        simulator.load(new File(getClass().getResource("/corpus/Tmr0Interrupt.LST").toURI()));
+        simulator.execute();
+        scheduler.synchronize();
+
+        now += 10 * MILLISECOND;
+        scheduler.execute(address -> false);
+
+        assertEquals(8, simulator.getRam().get(0x0C).intValue()); // Eight interrupts were handled
+        assertTrue(10_001.0 <= simulator.getExecutor().getRuntimeCounter());
+        assertTrue(0 >= scheduler.getDrift());
+    }
+
+    @Test(timeout = 1000)
+    public void endBatchWithoutProgress() throws Exception {
+
+        // Every execution fails without advancing the runtime counter
+
+        Pic16F84VM stalled = new Pic16F84VM() {
+
+            @Override
+            public int execute() {
+
+                return 0x0000;
+            }
+
+            @Override
+            public boolean isRunning() {
+
+                return true;
+            }
+        };
+
+        RealTimeScheduler scheduler = new RealTimeScheduler(stalled, MILLISECOND, 100 * MILLISECOND, () -> now);
+        scheduler.synchronize();
+
+        now += MILLISECOND;
+
+        assertEquals(0x0000, scheduler.execute(address -> false));
+        assertEquals(MILLISECOND, scheduler.getDrift());
+    }
+}
@@ -0,0 +1,253 @@
+package org.ai2ra.hso.simpic16f84.sim;
+
+import org.ai2ra.hso.simpic16f84.sim.mem.StackMemory;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.File;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs the reference firmware corpus located at <code>/corpus</code> headless through
+ * the {@link Pic16F84VM}. Every program is executed until it reaches it's terminating
+ * endless loop (<code>ende goto ende</code>), afterwards the final state is verified.
+ *
+ * <p>
+ *     In addition every program defines a minimum throughput in instructions per
+ *     second. Because throughput depends on the executing machine, it's only verified
+ *     if the <code>corpus.throughput</code> system property is set, e.g. by using the
+ *     <code>corpus</code> profile. The accepted regression can be adjusted using the
+ *     <code>corpus.tolerance</code> system property, given as fraction of the threshold.
+ * </p>
+ *
+ * @author 0x1C1B
+ */
+
+@RunWith(Parameterized.class)
+public class ReferenceCorpusTest {
+
+    /** Upper limit of instructions per run, prevents hanging in case of regressions. */
+    private static final long MAX_INSTRUCTIONS = 1_000_000;
+    /** Number of instructions executed before measuring the throughput. */
+    private static final long WARMUP_INSTRUCTIONS = 500_000;
+    /** Number of instructions the throughput is measured for. */
+    private static final long MEASURED_INSTRUCTIONS = 1_000_000;
+    private static final double DEFAULT_TOLERANCE = 0.1;
+
+    @Parameterized.Parameters(name = "{0}") public static Collection<Object[]> parameters() {
+
+        return Arrays.asList(new Object[][]{
+
+                {new CorpusProgram("DelayLoops", 1_200_000)
+                        .expectWorkingRegister(0xA5)
+                        .expectRegister(0x0C, 0x00) // outer
+                        .expectRegister(0x0D, 0x00) // inner
+                        .expectRegister(0x0E, 0x00)}, // runs
+
+                {new CorpusProgram("NestedCalls", 1_000_000)
+                        .expectWorkingRegister(0x1F)
+                        .expectRegister(0x0C, 0x1F) // depth
+                        .expectRegister(0x0D, 0xF8)}, // calls
+
+                {new CorpusProgram("Tmr0Interrupt", 1_000_000)
+                        .expectRegister(0x0C, 0x08) // ticks
+                        .expectRegister(0x0D, 0xA1)}, // count
+
+                {new CorpusProgram("PortBInterrupt", 600_000)
+                        .stimulate(50, 0, true) // Rising edge RB0, interrupt
+                        .stimulate(100, 0, false) // Falling edge RB0, no interrupt
+                        .stimulate(150, 0, true) // Rising edge RB0, interrupt
+                        .stimulate(200, 4, true) // Port change RB4, interrupt
+                        .stimulate(250, 4, false) // Port change RB4, interrupt
+                        .stimulate(300, 7, true) // Port change RB7, interrupt
+                        .stimulate(350, 0, false) // Falling edge RB0, no interrupt
+                        .stimulate(400, 0, true) // Rising edge RB0, interrupt
+                        .expectRegister(0x0C, 0x03) // int0
+                        .expectRegister(0x0D, 0x03)}, // rbchg
+
+                {new CorpusProgram("IndirectAddressing", 900_000)
+                        .expectWorkingRegister(0x88)
+                        .expectRegister(0x20, 0x10)
+                        .expectRegister(0x2F, 0x01)
+                        .expectRegister(0x04, 0x30) // FSR
+                        .expectRegister(0x0C, 0x88)}, // sum
+
+                {new CorpusProgram("EepromReadWrite", 900_000)
+                        .expectWorkingRegister(0xDC)
+                        .expectRegister(0x0E, 0xDC) // sum
+                        .expectEeprom(0x00, 0xFF)
+                        .expectEeprom(0x07, 0xF8)}
+        });
+    }
+
+    @Parameterized.Parameter public CorpusProgram program;
+
+    private Pic16F84VM simulator;
+
+    @Before
+    public void setUp() throws Exception {
+
+        simulator = new Pic16F84VM();
+        simulator.load(new File(getClass().getResource(
+                String.format("/corpus/%s.LST", program.name)).toURI()));
+    }
+
+    @Test
+    public void testFinalState() {
+
+        long instructions = run();
+
+        assertTrue("Program didn't terminate", MAX_INSTRUCTIONS > instructions);
+
+        if (null != program.workingRegister) {
+
+            assertEquals("Unexpected working register", (int) program.workingRegister,
+                    0xFF & simulator.getExecutor().getWorkingRegister());
+        }
+
+        for (Map.Entry<Integer, Integer> entry : program.registers.entrySet()) {
+
+            assertEquals(String.format("Unexpected register 0x%02X", entry.getKey()), (int) entry.getValue(),
+                    0xFF & simulator.getRam().get(entry.getKey()));
+        }
+
+        for (Map.Entry<Integer, Integer> entry : program.eeprom.entrySet()) {
+
+            assertEquals(String.format("Unexpected EEPROM cell 0x%02X", entry.getKey()), (int) entry.getValue(),
+                    0xFF & simulator.getEeprom().get(entry.getKey()));
+        }
+
+        assertTrue("Stack isn't empty", ((StackMemory<Integer>) simulator.getStack()).isEmpty());
+    }
+
+    @Test
+    public void testThroughput() {
+
+        Assume.assumeTrue("Throughput isn't verified", Boolean.getBoolean("corpus.throughput"));
+
+        double tolerance = Double.parseDouble(System.getProperty("corpus.tolerance",
+                String.valueOf(DEFAULT_TOLERANCE)));
+
+        // Warm up the simulator before measuring
+
+        for (long instructions = 0; WARMUP_INSTRUCTIONS > instructions; ) {
+
+            instructions += run();
+        }
+
+        long instructions = 0;
+        long start = System.nanoTime();
+
+        while (MEASURED_INSTRUCTIONS > instructions) {
+
+            instructions += run();
+        }
+
+        double ips = instructions / ((System.nanoTime() - start) / 1_000_000_000.0);
+        double threshold = program.minInstructionsPerSecond * (1.0 - tolerance);
+
+        assertTrue(String.format("Throughput of %.0f IPS is below the threshold of %.0f IPS", ips, threshold),
+                ips >= threshold);
+    }
+
+    /**
+     * Executes the program from the beginning until it reaches it's terminating
+     * endless loop. The end is reached as soon as an instruction jumps to itself.
+     *
+     * @return Returns the number of executed instructions
+     */
+
+    private long run() {
+
+        simulator.stop(); // Forces a reset of the execution unit
+
+        Iterator<int[]> stimuli = program.stimuli.iterator();
+        int[] stimulus = stimuli.hasNext() ? stimuli.next() : null;
+
+        long instructions = 0;
+        int address = 0;
+        int next;
+
+        while (MAX_INSTRUCTIONS > instructions) {
+
+            // Apply external stimuli before the scheduled instruction
+
+            while (null != stimulus && stimulus[0] == instructions) {
+
+                simulator.stimulatePortB(stimulus[1], 0 != stimulus[2]);
+                stimulus = stimuli.hasNext() ? stimuli.next() : null;
+            }
+
+            next = simulator.execute();
+            ++instructions;
+
+            if (next == address) {
+
+                break; // Terminating endless loop reached
+            }
+
+            address = next;
+        }
+
+        return instructions;
+    }
+
+    /**
+     * Describes a single program of the corpus, including it's expected final state
+     * and the minimum throughput.
+     */
+
+    private static class CorpusProgram {
+
+        private final String name;
+        private final long minInstructionsPerSecond;
+        private final List<int[]> stimuli;
+        private final Map<Integer, Integer> registers;
+        private final Map<Integer, Integer> eeprom;
+        private Integer workingRegister;
+
+        CorpusProgram(String name, long minInstructionsPerSecond) {
+
+            this.name = name;
+            this.minInstructionsPerSecond = minInstructionsPerSecond;
+            this.stimuli = new ArrayList<>();
+            this.registers = new LinkedHashMap<>();
+            this.eeprom = new LinkedHashMap<>();
+        }
+
+        CorpusProgram stimulate(int instruction, int pin, boolean isSet) {
+
+            stimuli.add(new int[]{instruction, pin, isSet ? 1 : 0});
+            return this;
+        }
+
+        CorpusProgram expectWorkingRegister(int value) {
+
+            workingRegister = value;
+            return this;
+        }
+
+        CorpusProgram expectRegister(int address, int value) {
+
+            registers.put(address, value);
+            return this;
+        }
+
+        CorpusProgram expectEeprom(int address, int value) {
+
+            eeprom.put(address, value);
+            return this;
+        }
+
+        @Override
+        public String toString() {
+
+            return name;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package org.ai2ra.hso.simpic16f84.sim;
+
+import org.ai2ra.hso.simpic16f84.sim.debug.ExpressionCompiler;
+import org.ai2ra.hso.simpic16f84.sim.debug.Logpoint;
+import org.ai2ra.hso.simpic16f84.sim.debug.Stepping;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class SimulationThreadTest {
+
+    private Pic16F84VM simulator;
+    private SimulationThread simulation;
+    private BlockingQueue<String> events;
+
+    @Before
+    public void setUp() throws Exception {
+
+        simulator = new Pic16F84VM();
+        simulation = new SimulationThread(simulator);
+        events = new LinkedBlockingQueue<>();
+
+        simulation.addListener(new SimulationListener() {
+
+            @Override
+            public void halted(int address) {
+
+                events.add(String.format("halted 0x%04X", address));
+            }
+
+            @Override
+            public void stopped() {
+
+                events.add("stopped");
+            }
+
+            @Override
+            public void loaded() {
+
+                events.add("loaded");
+            }
+
+            @Override
+            public void failed(Exception exc) {
+
+                events.add("failed " + exc.getClass().getSimpleName());
+            }
+        });
+
+        simulation.start();
+        simulation.load(new File(getClass().getResource("/corpus/DelayLoops.LST").toURI()));
+
+        assertEquals("loaded", next());
+    }
+
+    @After
+    public void tearDown() {
+
+        simulation.shutdown();
+    }
+
+    private String next() throws InterruptedException {
+
+        return events.poll(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void stepTest() throws Exception {
+
+        simulation.step();
+        assertEquals("halted 0x0001", next());
+
+        simulation.step();
+        assertEquals("halted 0x0002", next());
+        assertEquals(3, simulator.getRam().get(0x0E) & 0xFF);
+    }
+
+    @Test
+    public void stepCountsHitsTest() throws Exception {
+
+        simulator.getBreakpoints().add(0x0001);
+        simulator.getBreakpoints().add(0x0002);
+        simulator.getBreakpoints().setLogpoint(0x0002,
+                new Logpoint("stepped", new ExpressionCompiler(simulator)));
+
+        simulation.step();
+        assertEquals("halted 0x0001", next());
+
+        simulation.step();
+        assertEquals("halted 0x0002", next());
+
+        assertEquals(1, simulator.getBreakpoints().getHitCount(0x0001));
+        assertEquals(Collections.singletonList("0x0002 (hit 1): stepped"),
+                simulator.getBreakpoints().getLog().drain());
+    }
+
+    @Test
+    public void runUntilBreakpointTest() throws Exception {
+
+        simulator.getBreakpoints().add(0x0003);
+        simulation.setSpeed(SimulationThread.MAX_SPEED);
+
+        simulation.run(null, false);
+        assertEquals("halted 0x0003", next());
+        assertFalse(simulation.isExecuting());
+    }
+
+    @Test
+    public void runUntilStopConditionTest() throws Exception {
+
+        simulation.run(Stepping.runTo(0x0004), false);
+        assertEquals("halted 0x0004", next());
+    }
+
+    @Test
+    public void pauseTest() throws Exception {
+
+        simulation.setSpeed(SimulationThread.MAX_SPEED);
+        simulation.run(null, false);
+        simulation.pause();
+
+        assertTrue(next().startsWith("halted"));
+        assertFalse(simulation.isExecuting());
+        assertTrue(simulator.isRunning());
+    }
+
+    @Test
+    public void stopTest() throws Exception {
+
+        simulation.setSpeed(SimulationThread.MAX_SPEED);
+        simulation.run(null, false);
+        simulation.stop();
+
+        assertEquals("stopped", next());
+        assertFalse(simulation.isExecuting());
+        assertFalse(simulator.isRunning());
+    }
+
+    @Test
+    public void stimulateTest() throws Exception {
+
+        simulation.stimulatePortB(3, true);
+        simulation.stimulatePortB(8, true);
+
+        assertEquals("failed IllegalArgumentException", next());
+        assertEquals(0x08, simulator.getRam().get(0x06) & 0x08);
+    }
+
+    @Test
+    public void setFrequencyTest() throws Exception {
+
+        simulation.setFrequency(8_000_000.0);
+        simulation.setFrequency(1.0);
+
+        assertEquals("failed IllegalArgumentException", next());
+        assertEquals(8_000_000.0, simulator.getExecutor().getFrequency(), 0.0);
+    }
+}
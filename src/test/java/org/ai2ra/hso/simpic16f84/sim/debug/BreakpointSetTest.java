@@ -0,0 +1,146 @@
+package org.ai2ra.hso.simpic16f84.sim.debug;
+
+import org.ai2ra.hso.simpic16f84.sim.Pic16F84VM;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.TreeSet;
+
+import static org.junit.Assert.*;
+
+public class BreakpointSetTest {
+
+    private BreakpointSet breakpoints;
+
+    @Before
+    public void setUp() {
+
+        breakpoints = new BreakpointSet();
+    }
+
+    @Test
+    public void addAndRemove() {
+
+        breakpoints.add(0x0000);
+        breakpoints.add(0x003F);
+        breakpoints.add(0x0040);
+        breakpoints.add(0x03FF);
+
+        assertTrue(breakpoints.contains(0x0000));
+        assertTrue(breakpoints.contains(0x003F));
+        assertTrue(breakpoints.contains(0x0040));
+        assertTrue(breakpoints.contains(0x03FF));
+        assertFalse(breakpoints.contains(0x0001));
+
+        breakpoints.remove(0x003F);
+
+        assertFalse(breakpoints.contains(0x003F));
+        assertTrue(breakpoints.contains(0x0040)); // Neighbours are kept
+        assertEquals(new TreeSet<>(Arrays.asList(0x0000, 0x0040, 0x03FF)), breakpoints.toSet());
+    }
+
+    @Test
+    public void containsOutsideOfProgramMemory() {
+
+        assertFalse(breakpoints.contains(-1));
+        assertFalse(breakpoints.contains(BreakpointSet.CAPACITY));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void addOutsideOfProgramMemory() {
+
+        breakpoints.add(BreakpointSet.CAPACITY);
+    }
+
+    @Test
+    public void setAll() {
+
+        breakpoints.add(0x0005);
+        breakpoints.add(0x0006);
+        breakpoints.setAll(Arrays.asList(0x0006, 0x0100));
+
+        assertEquals(new TreeSet<>(Arrays.asList(0x0006, 0x0100)), breakpoints.toSet());
+
+        breakpoints.clear();
+        assertTrue(breakpoints.toSet().isEmpty());
+    }
+
+    @Test
+    public void testConditions() {
+
+        long[] value = {0};
+
+        breakpoints.add(0x0010);
+        breakpoints.add(0x0020);
+        breakpoints.setCondition(0x0010, () -> value[0]);
+
+        assertFalse(breakpoints.test(0x0010));
+        assertTrue(breakpoints.test(0x0020)); // Unconditional
+        assertFalse(breakpoints.test(0x0030));
+
+        value[0] = 1;
+        assertTrue(breakpoints.test(0x0010));
+    }
+
+    @Test
+    public void dropConditionsOfRemovedBreakpoints() {
+
+        breakpoints.add(0x0010);
+        breakpoints.add(0x0020);
+        breakpoints.setCondition(0x0010, () -> 0);
+        breakpoints.setCondition(0x0020, () -> 0);
+
+        breakpoints.setAll(Arrays.asList(0x0020));
+        assertNull(breakpoints.getCondition(0x0010));
+        assertNotNull(breakpoints.getCondition(0x0020));
+
+        breakpoints.remove(0x0020);
+        assertNull(breakpoints.getCondition(0x0020));
+    }
+
+    @Test
+    public void haltOnHit() {
+
+        breakpoints.add(0x0010);
+        breakpoints.setHitTarget(0x0010, 3);
+
+        assertFalse(breakpoints.test(0x0010));
+        assertFalse(breakpoints.test(0x0010));
+        assertTrue(breakpoints.test(0x0010));
+        assertFalse(breakpoints.test(0x0010));
+        assertEquals(4, breakpoints.getHitCount(0x0010));
+
+        breakpoints.resetHitCounts();
+        assertEquals(0, breakpoints.getHitCount(0x0010));
+    }
+
+    @Test
+    public void countOnlyHitsWithCondition() {
+
+        long[] value = {0};
+
+        breakpoints.add(0x0010);
+        breakpoints.setCondition(0x0010, () -> value[0]);
+        breakpoints.setHitTarget(0x0010, 1);
+
+        assertFalse(breakpoints.test(0x0010));
+        assertEquals(0, breakpoints.getHitCount(0x0010));
+
+        value[0] = 1;
+        assertTrue(breakpoints.test(0x0010));
+    }
+
+    @Test
+    public void logWithoutHalting() {
+
+        breakpoints.add(0x0010);
+        breakpoints.setLogpoint(0x0010, new Logpoint("value = {2 * 21}", new ExpressionCompiler(new Pic16F84VM())));
+
+        assertFalse(breakpoints.test(0x0010));
+        assertFalse(breakpoints.test(0x0010));
+        assertEquals(Arrays.asList("0x0010 (hit 1): value = 42", "0x0010 (hit 2): value = 42"),
+                breakpoints.getLog().drain());
+        assertTrue(breakpoints.getLog().drain().isEmpty());
+    }
+}
@@ -0,0 +1,117 @@
+package org.ai2ra.hso.simpic16f84.sim.debug;
+
+import org.ai2ra.hso.simpic16f84.sim.Pic16F84VM;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+
+import static org.junit.Assert.*;
+
+public class ExpressionCompilerTest {
+
+    private Pic16F84VM simulator;
+    private ExpressionCompiler compiler;
+
+    @Before
+    public void setUp() throws Exception {
+
+        simulator = new Pic16F84VM();
+        simulator.load(new File(getClass().getResource("/corpus/DelayLoops.LST").toURI()));
+
+        compiler = new ExpressionCompiler(simulator);
+    }
+
+    private long evaluate(String source) {
+
+        return compiler.compile(source).evaluate();
+    }
+
+    @Test
+    public void evaluateLiterals() {
+
+        assertEquals(42, evaluate("42"));
+        assertEquals(0x2A, evaluate("0x2A"));
+        assertEquals(0b101010, evaluate("0b101010"));
+    }
+
+    @Test
+    public void evaluateOperators() {
+
+        assertEquals(7, evaluate("1 + 2 * 3"));
+        assertEquals(9, evaluate("(1 + 2) * 3"));
+        assertEquals(8, evaluate("1 << 2 + 1"));
+        assertEquals(1, evaluate("3 > 2 && 2 >= 2 || 0"));
+        assertEquals(1, evaluate("1 | 2 == 2")); // Comparison binds tighter like in C
+        assertEquals(0, evaluate("!5"));
+        assertEquals(-6, evaluate("~5"));
+        assertEquals(-5, evaluate("-5"));
+        assertEquals(1, evaluate("7 % 3"));
+        assertEquals(0, evaluate("7 / 0"));
+        assertEquals(1, evaluate("1 != 2"));
+    }
+
+    @Test
+    public void evaluateSimulatorState() {
+
+        simulator.execute(); // movlw 3
+        simulator.execute(); // movwf runs
+
+        assertEquals(3, evaluate("W"));
+        assertEquals(2, evaluate("PC"));
+        assertEquals(2, evaluate("cycles"));
+        assertEquals(3, evaluate("ram[0x0E]"));
+        assertEquals(1, evaluate("ram[runs] == 3 && w == 3")); // W is preferred to the symbol
+        assertEquals(evaluate("STATUS"), evaluate("ram[0x83]")); // Mapped to bank 1
+        assertEquals(0, evaluate("eeprom[0]"));
+    }
+
+    @Test
+    public void evaluateSymbols() {
+
+        assertEquals(0x0C, evaluate("outer"));
+        assertEquals(0x0E, evaluate("runs"));
+    }
+
+    @Test
+    public void evaluateLazily() {
+
+        Expression expression = compiler.compile("W + 1");
+
+        assertEquals(1, expression.evaluate());
+
+        simulator.execute(); // movlw 3
+
+        assertEquals(4, expression.evaluate());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void compileUnknownIdentifier() {
+
+        compiler.compile("unknown == 1");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void compileIncompleteExpression() {
+
+        compiler.compile("W ==");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void compileUnbalancedParentheses() {
+
+        compiler.compile("(W == 1");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void compileAssignment() {
+
+        compiler.compile("W = 1");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void compileMalformedNumber() {
+
+        compiler.compile("0xZZ");
+    }
+}
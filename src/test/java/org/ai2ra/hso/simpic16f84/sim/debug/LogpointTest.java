@@ -0,0 +1,62 @@
+package org.ai2ra.hso.simpic16f84.sim.debug;
+
+import org.ai2ra.hso.simpic16f84.sim.Pic16F84VM;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class LogpointTest {
+
+    private Pic16F84VM simulator;
+    private ExpressionCompiler compiler;
+
+    @Before
+    public void setUp() throws Exception {
+
+        simulator = new Pic16F84VM();
+        simulator.load(new File(getClass().getResource("/corpus/DelayLoops.LST").toURI()));
+
+        compiler = new ExpressionCompiler(simulator);
+    }
+
+    @Test
+    public void formatSnapshot() {
+
+        Logpoint logpoint = new Logpoint("W = {W:x}, runs = {ram[runs]}", compiler);
+
+        simulator.execute(); // movlw 3
+        simulator.execute(); // movwf runs
+
+        assertEquals("W = 0x03, runs = 3", logpoint.format());
+        assertEquals("W = {W:x}, runs = {ram[runs]}", logpoint.getTemplate());
+    }
+
+    @Test
+    public void formatPlainText() {
+
+        assertEquals("reached", new Logpoint("reached", compiler).format());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void compileUnclosedBrace() {
+
+        new Logpoint("W = {W", compiler);
+    }
+
+    @Test
+    public void dropOldestEntries() {
+
+        LogBuffer buffer = new LogBuffer(2);
+
+        buffer.append("first");
+        buffer.append("second");
+        buffer.append("third");
+
+        assertEquals(Arrays.asList("second", "third"), buffer.drain());
+        assertEquals(1, buffer.getDropped());
+    }
+}
@@ -0,0 +1,103 @@
+package org.ai2ra.hso.simpic16f84.sim.debug;
+
+import org.ai2ra.hso.simpic16f84.sim.Pic16F84VM;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.function.IntPredicate;
+
+import static org.junit.Assert.*;
+
+public class SteppingTest {
+
+    private Pic16F84VM simulator;
+
+    @Before
+    public void setUp() throws Exception {
+
+        simulator = new Pic16F84VM();
+        simulator.load(new File(getClass().getResource("/corpus/NestedCalls.LST").toURI()));
+    }
+
+    /**
+     * Executes until the given stop condition holds, at most the given number of instructions.
+     *
+     * @return Returns the address of the next instruction or -1 if the condition never held
+     */
+
+    private int runUntil(IntPredicate condition, int limit) {
+
+        for (int count = 0; count < limit; ++count) {
+
+            int address = simulator.execute();
+
+            if (condition.test(address)) {
+
+                return address;
+            }
+        }
+
+        return -1;
+    }
+
+    private int calls() {
+
+        return simulator.getRam().get(0x0D) & 0xFF;
+    }
+
+    @Test
+    public void runToTest() {
+
+        assertEquals(0x0004, runUntil(Stepping.runTo(0x0004), 100));
+        assertEquals(0, simulator.getStackDepth());
+
+        assertEquals(0x001E, runUntil(Stepping.runTo(0x001E), 100));
+        assertEquals(8, simulator.getStackDepth());
+    }
+
+    @Test
+    public void stepOverInstructionTest() {
+
+        // Stepping before starting the execution steps the first instruction
+
+        assertEquals(0x0001, runUntil(Stepping.stepOver(simulator), 100));
+        assertEquals(0x0002, runUntil(Stepping.stepOver(simulator), 100));
+    }
+
+    @Test
+    public void stepOverCallTest() {
+
+        runUntil(Stepping.runTo(0x0004), 100);
+
+        assertEquals(0x0005, runUntil(Stepping.stepOver(simulator), 100));
+        assertEquals(0, simulator.getStackDepth());
+        assertEquals(8, calls());
+    }
+
+    @Test
+    public void stepOverNestedCallTest() {
+
+        runUntil(Stepping.runTo(0x0016), 100);
+        assertEquals(5, simulator.getStackDepth());
+
+        assertEquals(0x0017, runUntil(Stepping.stepOver(simulator), 100));
+        assertEquals(5, simulator.getStackDepth());
+        assertEquals(8, calls());
+    }
+
+    @Test
+    public void stepOutTest() {
+
+        runUntil(Stepping.runTo(0x001E), 100);
+
+        assertEquals(0x001D, runUntil(Stepping.stepOut(simulator), 100));
+        assertEquals(7, simulator.getStackDepth());
+
+        runUntil(Stepping.runTo(0x0009), 100);
+
+        assertEquals(0x0005, runUntil(Stepping.stepOut(simulator), 100));
+        assertEquals(0, simulator.getStackDepth());
+        assertEquals(16, calls());
+    }
+}
@@ -0,0 +1,117 @@
+package org.ai2ra.hso.simpic16f84.sim.debug;
+
+import org.ai2ra.hso.simpic16f84.sim.Pic16F84VM;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+
+import static org.junit.Assert.*;
+
+public class WatchpointSetTest {
+
+    private Pic16F84VM simulator;
+    private WatchpointSet watchpoints;
+
+    @Before
+    public void setUp() {
+
+        simulator = new Pic16F84VM();
+        watchpoints = simulator.getWatchpoints();
+    }
+
+    private void load(String program) throws Exception {
+
+        simulator.load(new File(getClass().getResource(String.format("/corpus/%s.LST", program)).toURI()));
+    }
+
+    /**
+     * Executes until a watchpoint is triggered or the given number of instructions is reached.
+     *
+     * @return Returns the address of the next instruction or -1 if nothing was triggered
+     */
+
+    private int runUntilTriggered(int limit) {
+
+        for (int count = 0; count < limit; ++count) {
+
+            int address = simulator.execute();
+
+            if (watchpoints.test()) {
+
+                return address;
+            }
+        }
+
+        return -1;
+    }
+
+    @Test
+    public void triggerIndirectWrite() throws Exception {
+
+        load("IndirectAddressing");
+        watchpoints.watchRam(0x25, null);
+
+        assertEquals(0x0006, runUntilTriggered(1000)); // Behind movwf INDF
+        assertEquals(11, (byte) simulator.getRam().get(0x25));
+    }
+
+    @Test
+    public void triggerMappedLocation() throws Exception {
+
+        load("IndirectAddressing");
+        watchpoints.watchRam(0x8D, null); // cnt addressed through bank 1
+
+        assertEquals(0x0004, runUntilTriggered(1000));
+    }
+
+    @Test
+    public void triggerConditionally() throws Exception {
+
+        load("IndirectAddressing");
+        watchpoints.watchRam(0x0C, new ExpressionCompiler(simulator).compile("ram[0x0C] >= 0x80"));
+
+        assertNotEquals(-1, runUntilTriggered(1000));
+        assertEquals((byte) 0x82, (byte) simulator.getRam().get(0x0C)); // Sum of 16 down to 4
+    }
+
+    @Test
+    public void triggerEepromWrite() throws Exception {
+
+        load("EepromReadWrite");
+        watchpoints.watchEeprom(3, null);
+
+        assertNotEquals(-1, runUntilTriggered(100_000));
+        assertEquals((byte) ~3, (byte) simulator.getEeprom().get(3));
+    }
+
+    @Test
+    public void unwatch() throws Exception {
+
+        load("IndirectAddressing");
+        watchpoints.watchRam(0x25, null);
+        watchpoints.unwatchRam(0x25);
+
+        assertEquals(-1, runUntilTriggered(1000));
+    }
+
+    @Test
+    public void rearm() throws Exception {
+
+        load("IndirectAddressing");
+        watchpoints.watchRam(0x04, null); // FSR
+
+        simulator.execute();
+        simulator.execute(); // movwf FSR
+
+        watchpoints.rearm();
+
+        assertFalse(watchpoints.test());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void watchIndf() {
+
+        watchpoints.watchRam(0x80, null);
+    }
+}
@@ -32,6 +32,18 @@ public class EepromMemoryTest {
         eeprom.set(-1, (byte) 2);
     }
 
+    @Test(expected = MemoryIndexOutOfBoundsException.class)
+    public void testSetBeyondSize() {
+
+        eeprom.set(64, (byte) 2);
+    }
+
+    @Test(expected = MemoryIndexOutOfBoundsException.class)
+    public void testGetBeyondSize() {
+
+        eeprom.get(64);
+    }
+
     @Test
     public void testGet() {
 
@@ -44,4 +56,22 @@ public class EepromMemoryTest {
         assertEquals("A wrong value was returned", 6, (byte) eeprom.get(30));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testAccessCounting() {
+
+        eeprom.set(5, (byte) 1); // Not counted while disabled
+        eeprom.setAccessCounting(true);
+
+        eeprom.set(5, (byte) 2);
+        eeprom.read(5);
+        eeprom.read(5);
+        eeprom.get(5); // Observing reads aren't counted
+
+        assertEquals("A wrong write count was returned", 1, eeprom.getWriteCount(5));
+        assertEquals("A wrong read count was returned", 2, eeprom.getReadCount(5));
+        assertEquals("A wrong read count was returned", 0, eeprom.getReadCount(6));
+
+        eeprom.resetAccessCounts();
+        assertEquals("Counters weren't reset", 0, eeprom.getWriteCount(5));
+    }
+}
@@ -21,6 +21,22 @@ public class RamMemoryTest {
         assertEquals((byte) ram.get(RamMemory.Bank.BANK_0, 22), 33);
     }
 
+    @Test public void sfrLookupTest() {
+
+        assertEquals(RamMemory.SFR.STATUS, RamMemory.SFR.valueOf(RamMemory.Bank.BANK_0, 0x03));
+        assertEquals(RamMemory.SFR.STATUS, RamMemory.SFR.valueOf(RamMemory.Bank.BANK_1, 0x03));
+        assertEquals(RamMemory.SFR.PORTA, RamMemory.SFR.valueOf(RamMemory.Bank.BANK_0, 0x05));
+        assertEquals(RamMemory.SFR.TRISA, RamMemory.SFR.valueOf(RamMemory.Bank.BANK_1, 0x05));
+        assertEquals(RamMemory.SFR.TRISB, RamMemory.SFR.forName("trisb"));
+        assertNull(RamMemory.SFR.forName("GPR"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void sfrLookupUnimplementedTest() {
+
+        RamMemory.SFR.valueOf(RamMemory.Bank.BANK_0, 0x07);
+    }
+
     @Test public void mappedWriteTest() {
 
         ram.set(RamMemory.Bank.BANK_0, 4, (byte) 11);
@@ -34,4 +50,72 @@ public class RamMemoryTest {
         assertEquals((byte) ram.get(RamMemory.SFR.PORTA), 3);
         assertEquals((byte) ram.get(RamMemory.Bank.BANK_0, 5), 3);
     }
-}
\ No newline at end of file
+
+    @Test public void writeTrapTest() {
+
+        int[] invocations = new int[1];
+        WriteTrap<Byte> trap = (bank, address, oldValue, newValue) -> ++invocations[0];
+
+        ram.addWriteTrap(RamMemory.Bank.BANK_1, 8, trap);
+
+        ram.set(RamMemory.Bank.BANK_0, 8, (byte) 1); // Other bank, not trapped
+        ram.set(RamMemory.SFR.EECON1, (byte) 1);
+        ram.set(RamMemory.SFR.EECON1, (byte) 1); // Same value is trapped as well
+        assertEquals(2, invocations[0]);
+
+        ram.removeWriteTrap(RamMemory.Bank.BANK_1, 8, trap);
+
+        ram.set(RamMemory.SFR.EECON1, (byte) 2);
+        assertEquals(2, invocations[0]);
+    }
+
+    @Test public void mappedWriteTrapTest() {
+
+        int[] invocations = new int[1];
+
+        ram.addWriteTrap(RamMemory.Bank.BANK_0, 0x20, (bank, address, oldValue, newValue) -> ++invocations[0]);
+        ram.set(RamMemory.Bank.BANK_1, 0x20, (byte) 7); // General purpose registers are mapped
+        assertEquals(1, invocations[0]);
+    }
+
+    @Test public void accessCountingTest() {
+
+        ram.set(RamMemory.Bank.BANK_0, 0x20, (byte) 1); // Not counted while disabled
+        ram.setAccessCounting(true);
+
+        ram.set(RamMemory.Bank.BANK_1, 0x20, (byte) 2);
+        ram.get(RamMemory.Bank.BANK_0, 0x20);
+        ram.get(RamMemory.Bank.BANK_0, 0x20);
+        ram.set(RamMemory.Bank.BANK_1, 0x03, (byte) 3);
+        ram.set(RamMemory.Bank.BANK_1, 0x05, (byte) 4);
+        ram.set(RamMemory.SFR.PORTA, (byte) 5); // Hardware emulation isn't counted
+
+        assertEquals(1, ram.getWriteCount(0x20));
+        assertEquals(1, ram.getWriteCount(RamMemory.BANK_SIZE + 0x20)); // Mapped location
+        assertEquals(2, ram.getReadCount(0x20));
+        assertEquals(1, ram.getWriteCount(0x03));
+        assertEquals(0, ram.getWriteCount(0x05));
+        assertEquals(1, ram.getWriteCount(RamMemory.BANK_SIZE + 0x05));
+
+        ram.resetAccessCounts();
+        assertEquals(0, ram.getReadCount(0x20));
+    }
+
+    @Test public void watchTest() {
+
+        ram.setWatched(0x8E, true); // Mapped GPR, watched in both banks
+        ram.set(RamMemory.Bank.BANK_0, 0x0F, (byte) 1);
+
+        assertEquals(-1, ram.pollWatchHit());
+
+        ram.set(RamMemory.Bank.BANK_0, 0x0E, (byte) 1);
+
+        assertEquals(0x0E, ram.pollWatchHit());
+        assertEquals(-1, ram.pollWatchHit());
+
+        ram.setWatched(0x0E, false);
+        ram.set(RamMemory.Bank.BANK_1, 0x0E, (byte) 2);
+
+        assertEquals(-1, ram.pollWatchHit());
+    }
+}
@@ -38,4 +38,19 @@ public class StackMemoryTest {
 
         stack.get(-5);
     }
-}
\ No newline at end of file
+
+    @Test public void snapshotTest() {
+
+        stack.push(3);
+        stack.push(7);
+        stack.push(9);
+        stack.pop();
+
+        Integer[] snapshot = new Integer[8];
+
+        assertEquals(2, stack.snapshot(snapshot));
+        assertEquals(3, (int) snapshot[0]);
+        assertEquals(7, (int) snapshot[1]);
+        assertNull(snapshot[2]);
+    }
+}
@@ -0,0 +1,101 @@
+package org.ai2ra.hso.simpic16f84.sim.prof;
+
+import org.ai2ra.hso.simpic16f84.sim.Pic16F84VM;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.StringWriter;
+
+import static org.junit.Assert.*;
+
+public class AddressProfilerTest {
+
+    private Pic16F84VM simulator;
+    private AddressProfiler profiler;
+
+    @Before
+    public void setUp() throws Exception {
+
+        simulator = new Pic16F84VM();
+        simulator.load(new File(getClass().getResource("/corpus/DelayLoops.LST").toURI()));
+
+        profiler = new AddressProfiler();
+        simulator.addProfiler(profiler);
+    }
+
+    /**
+     * Executes the delay loops until the terminating endless loop at 0x000D is reached.
+     */
+
+    private void runDelayLoops() {
+
+        while (0x000D != simulator.execute()) ;
+    }
+
+    @Test
+    public void countHits() {
+
+        runDelayLoops();
+
+        // Three runs with 16 outer and 32 inner iterations each
+
+        assertEquals(1, profiler.getHits(0x0000));
+        assertEquals(3, profiler.getHits(0x0002));
+        assertEquals(48, profiler.getHits(0x0004));
+        assertEquals(48 * 32, profiler.getHits(0x0006));
+        assertEquals(48 * 31, profiler.getHits(0x0007));
+        assertEquals(1, profiler.getHits(0x000C));
+        assertEquals(0, profiler.getHits(0x000D));
+    }
+
+    @Test
+    public void countCyclesIncludingSkips() {
+
+        runDelayLoops();
+
+        // DECFSZ consumes a second cycle only if the next instruction is skipped
+
+        assertEquals(48 * 33, profiler.getCycles(0x0006));
+        assertEquals(1 + 1 + 2, profiler.getCycles(0x000A));
+        assertEquals(48 * 31 * 2, profiler.getCycles(0x0007));
+
+        // Runtime counter at 4MHz equals the total number of cycles in microseconds
+        assertEquals(profiler.getTotalCycles(), simulator.getExecutor().getRuntimeCounter(), 0.0001);
+    }
+
+    @Test
+    public void detachProfiler() {
+
+        simulator.removeProfiler(profiler);
+        runDelayLoops();
+
+        assertEquals(0, profiler.getTotalCycles());
+    }
+
+    @Test
+    public void resetProfiler() {
+
+        runDelayLoops();
+        profiler.reset();
+
+        assertEquals(0, profiler.getHits(0x0006));
+        assertEquals(0, profiler.getTotalCycles());
+    }
+
+    @Test
+    public void exportProfile() throws Exception {
+
+        runDelayLoops();
+
+        StringWriter writer = new StringWriter();
+        profiler.export(writer);
+
+        String[] rows = writer.toString().split("\n");
+
+        assertEquals("address,hits,cycles,share", rows[0]);
+        assertEquals(14, rows.length); // Header and thirteen executed addresses
+        assertTrue(writer.toString().contains(String.format("0x0006,%d,%d,", 48 * 32, 48 * 33)));
+        assertFalse(writer.toString().contains("0x000D"));
+    }
+}
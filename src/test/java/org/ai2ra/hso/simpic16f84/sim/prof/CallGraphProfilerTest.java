@@ -0,0 +1,119 @@
+package org.ai2ra.hso.simpic16f84.sim.prof;
+
+import org.ai2ra.hso.simpic16f84.sim.Pic16F84VM;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.StringWriter;
+
+import static org.junit.Assert.*;
+
+public class CallGraphProfilerTest {
+
+    private Pic16F84VM simulator;
+    private CallGraphProfiler profiler;
+
+    @Before
+    public void setUp() {
+
+        simulator = new Pic16F84VM();
+        profiler = new CallGraphProfiler();
+
+        simulator.addProfiler(profiler);
+    }
+
+    /**
+     * Loads and executes the given corpus program until the given address is reached.
+     *
+     * @param program The name of the corpus program
+     * @param address The address of the terminating endless loop
+     */
+
+    private void run(String program, int address) throws Exception {
+
+        simulator.load(new File(getClass().getResource(String.format("/corpus/%s.LST", program)).toURI()));
+        profiler.setLabels(simulator.getLabels());
+
+        while (address != simulator.execute()) ;
+    }
+
+    @Test
+    public void attributeNestedCalls() throws Exception {
+
+        run("NestedCalls", 0x0008);
+
+        // 31 rounds, each descending through eight subroutines
+
+        assertEquals(31 * 4, profiler.getExclusiveCycles(0x001E)); // sub8: INCF, INCF, RETLW
+        assertEquals(31 * 5, profiler.getExclusiveCycles(0x0009)); // sub1: INCF, CALL, RETURN
+        assertEquals(31 * (4 + 7 * 5), profiler.getInclusiveCycles(0x0009));
+        assertEquals(31 * (4 + 5), profiler.getInclusiveCycles(0x001B));
+        assertEquals(4 + 31 * 2 + 30 + 2 + 30 * 2 + 1, profiler.getExclusiveCycles(0x0000));
+
+        // Runtime counter at 4MHz equals the total number of cycles in microseconds
+
+        assertEquals(profiler.getTotalCycles(), simulator.getExecutor().getRuntimeCounter(), 0.0001);
+        assertEquals(profiler.getTotalCycles(), profiler.getInclusiveCycles(0x0000));
+        assertEquals(9, profiler.getRoutines().size());
+    }
+
+    @Test
+    public void exportFoldedStacks() throws Exception {
+
+        run("NestedCalls", 0x0008);
+
+        StringWriter writer = new StringWriter();
+        profiler.export(writer);
+
+        assertTrue(writer.toString().startsWith("start 159\n"));
+        assertTrue(writer.toString().contains("start;sub1 155\n"));
+        assertTrue(writer.toString().contains("start;sub1;sub2;sub3;sub4;sub5;sub6;sub7;sub8 124\n"));
+    }
+
+    @Test
+    public void exportRoutines() throws Exception {
+
+        run("NestedCalls", 0x0008);
+
+        StringWriter writer = new StringWriter();
+        profiler.exportRoutines(writer);
+
+        String[] rows = writer.toString().split("\n");
+
+        assertEquals("routine,address,inclusive,exclusive", rows[0]);
+        assertEquals("start,0x0000,1368,159", rows[1]);
+        assertEquals("sub1,0x0009,1209,155", rows[2]);
+    }
+
+    @Test
+    public void attributeInterrupts() throws Exception {
+
+        run("Tmr0Interrupt", 0x0010);
+
+        // Eight timer interrupts: INCF, BCF, RETFIE
+
+        assertEquals(8 * 4, profiler.getExclusiveCycles(0x0004));
+        assertEquals(8 * 4, profiler.getInclusiveCycles(0x0004));
+
+        StringWriter writer = new StringWriter();
+        profiler.export(writer);
+
+        assertTrue(writer.toString().contains("0x0000;isr 32\n"));
+    }
+
+    @Test
+    public void restartAtProgramEntry() throws Exception {
+
+        run("NestedCalls", 0x000A); // Stops inside of sub1
+
+        assertEquals(4 + 2, profiler.getExclusiveCycles(0x0000));
+        assertEquals(1, profiler.getExclusiveCycles(0x0009));
+
+        simulator.stop();
+        simulator.execute(); // Restarts the program at the reset vector
+
+        assertEquals(4 + 2 + 1, profiler.getExclusiveCycles(0x0000));
+        assertEquals(1, profiler.getExclusiveCycles(0x0009));
+    }
+}
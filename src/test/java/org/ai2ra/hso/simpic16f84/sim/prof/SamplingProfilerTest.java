@@ -0,0 +1,153 @@
+package org.ai2ra.hso.simpic16f84.sim.prof;
+
+import org.ai2ra.hso.simpic16f84.sim.Pic16F84VM;
+import org.ai2ra.hso.simpic16f84.sim.vm.DebugInfo;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class SamplingProfilerTest {
+
+    private Pic16F84VM simulator;
+    private SamplingProfiler profiler;
+
+    @Before
+    public void setUp() throws Exception {
+
+        simulator = new Pic16F84VM();
+        simulator.load(new File(getClass().getResource("/corpus/NestedCalls.LST").toURI()));
+
+        profiler = new SamplingProfiler(simulator, 50, TimeUnit.MICROSECONDS);
+        profiler.setRoutines(simulator.getRoutines());
+        profiler.setLabels(simulator.getLabels());
+    }
+
+    @After
+    public void tearDown() {
+
+        profiler.stop();
+    }
+
+    @Test
+    public void sampleCallStack() throws Exception {
+
+        while (0x001F != simulator.execute()) ; // Stops inside of sub8 at stack level 8
+
+        profiler.sample();
+
+        // All cycles since the start are attributed to the single sample
+
+        assertEquals(1, profiler.getProfile().getHits(0x001E));
+        assertEquals(28, profiler.getProfile().getCycles(0x001E));
+        assertEquals(28, profiler.getExclusiveCycles(0x001E));
+        assertEquals(28, profiler.getInclusiveCycles(0x0009));
+
+        StringWriter writer = new StringWriter();
+        profiler.export(writer);
+
+        assertEquals("start;sub1;sub2;sub3;sub4;sub5;sub6;sub7;sub8 28\n", writer.toString());
+    }
+
+    @Test
+    public void sampleInterruptedRoutineEntry() throws Exception {
+
+        // Interrupt occurs right after calling sub, while the preceding routine is other
+
+        Short[] words = {
+                0x2808, 0x0000, 0x0000, 0x0000, // GOTO main
+                0x0000, 0x0000, 0x0009, 0x0000, // isr: NOP, NOP, RETFIE
+                0x3090, 0x008B, 0x200D, 0x200E, // main: MOVLW 90h, MOVWF INTCON, CALL other, CALL sub
+                0x280C, 0x0008, 0x0000, 0x0008  // GOTO $, other: RETURN, sub: NOP, RETURN
+        };
+
+        int[] lines = new int[words.length];
+        Arrays.setAll(lines, line -> line);
+
+        Map<Integer, String> labels = new HashMap<>();
+        labels.put(0x0000, "start");
+        labels.put(0x0004, "isr");
+        labels.put(0x000D, "other");
+        labels.put(0x000E, "sub");
+
+        simulator.load(new DebugInfo<>(words, lines, lines, labels, Collections.emptyMap()));
+        profiler.setRoutines(simulator.getRoutines());
+        profiler.setLabels(labels);
+
+        while (0x000E != simulator.execute()) ;
+
+        simulator.stimulatePortB(0, true); // Rising edge RB0, interrupt
+        assertEquals(0x0004, simulator.execute());
+        simulator.execute();
+
+        profiler.sample();
+
+        StringWriter writer = new StringWriter();
+        profiler.export(writer);
+
+        assertEquals("start;sub;isr 11\n", writer.toString());
+    }
+
+    @Test
+    public void resetWhileRunning() {
+
+        profiler.start();
+        profiler.reset();
+
+        assertTrue(profiler.isRunning());
+        assertEquals(0, profiler.getProfile().getTotalCycles());
+    }
+
+    @Test
+    public void discardPausedSamples() {
+
+        simulator.execute();
+
+        profiler.sample();
+        profiler.sample(); // Nothing executed in the meantime
+
+        assertEquals(1, profiler.getProfile().getHits(0x0000));
+        assertEquals(1, profiler.getExclusiveCycles(0x0000));
+    }
+
+    @Test
+    public void sampleInBackground() throws Exception {
+
+        profiler.start();
+        assertTrue(profiler.isRunning());
+
+        long start = System.nanoTime();
+        long cycles = 0;
+
+        // Executes the program repeatedly for at least 200ms
+
+        while (TimeUnit.MILLISECONDS.toNanos(200) > System.nanoTime() - start) {
+
+            if (0x0008 == simulator.execute()) {
+
+                cycles += (long) simulator.getExecutor().getRuntimeCounter();
+                simulator.stop();
+            }
+        }
+
+        profiler.stop();
+        assertFalse(profiler.isRunning());
+
+        // Sampled cycles can't exceed the executed ones, except of the last incomplete run
+
+        long sampled = profiler.getProfile().getTotalCycles();
+
+        assertTrue(0 < sampled);
+        assertTrue(sampled <= cycles + (long) simulator.getExecutor().getRuntimeCounter());
+        assertEquals(sampled, profiler.getInclusiveCycles(0x0000));
+    }
+}
@@ -1,10 +1,17 @@
 package org.ai2ra.hso.simpic16f84.sim.vm;
 
 import static org.junit.Assert.*;
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -37,6 +44,100 @@ public class AIRALstParserTest {
         assertArrayEquals(instructions, new Short[]{0x3011, 0x2006, 0x0000, 0x2008, 0x0000, 0x2800, 0x3E25, 0x0008, 0x3477, 0x2809});
 	}
 
+	@Test
+	public void testLabelsTPicSim2() throws IOException, URISyntaxException {
+
+		Path path = Paths.get(getClass().getResource("/LstFiles/TPicSim2.LST").toURI());
+
+		Map<Integer, String> expected = new HashMap<>();
+		expected.put(0x0000, "loop"); // Standalone label
+		expected.put(0x0006, "up1");
+		expected.put(0x0008, "up2");
+		expected.put(0x0009, "ende"); // Standalone label
+
+		assertEquals(expected, parser.parseLabels(path.toFile()));
+	}
+
+	@Test
+	public void testLabelsIgnoreConstants() throws IOException, URISyntaxException {
+
+		Path path = Paths.get(getClass().getResource("/corpus/DelayLoops.LST").toURI());
+
+		Map<Integer, String> labels = parser.parseLabels(path.toFile());
+
+		assertFalse(labels.containsValue("outer")); // Defined using equ
+		assertEquals("iloop", labels.get(0x0006));
+		assertEquals(5, labels.size());
+	}
+
+	@Test
+	public void testDebugInfoOrgGap() throws IOException, URISyntaxException {
+
+		Path path = Paths.get(getClass().getResource("/LstFiles/TPicSim101.LST").toURI());
+
+		DebugInfo<Short> info = parser.parseDebugInfo(path.toFile());
+		Short[] words = info.getWords();
+
+		// Table is placed at 100h using ORG, the addresses in between are left empty
+
+		assertEquals(0x010C, words.length);
+		assertEquals(Short.valueOf((short) 0x0782), words[0x0100]);
+		assertEquals(Short.valueOf((short) 0x2812), words[0x0012]);
+		assertNull(words[0x0013]);
+		assertNull(words[0x00FF]);
+
+		assertEquals(56, info.getLine(0x0100)); // Zero based line of the file
+		assertEquals(0x0100, info.getAddress(56));
+		assertEquals(-1, info.getLine(0x0013));
+		assertEquals(-1, info.getAddress(54));
+		assertEquals(-1, info.getAddress(info.getLineCount()));
+	}
+
+	@Test
+	public void testDebugInfoSymbols() throws IOException, URISyntaxException {
+
+		Path path = Paths.get(getClass().getResource("/LstFiles/TPicSim101.LST").toURI());
+
+		Map<String, Integer> symbols = parser.parseDebugInfo(path.toFile()).getSymbols();
+
+		assertEquals(Integer.valueOf(0x00), symbols.get("indirect"));
+		assertEquals(Integer.valueOf(0x02), symbols.get("pcl"));
+		assertEquals(Integer.valueOf(0x0A), symbols.get("pclath"));
+		assertEquals(Integer.valueOf(0x0B), symbols.get("intcon"));
+	}
+
+	@Test
+	public void testDebugInfoStreamed() throws IOException, URISyntaxException {
+
+		Path path = Paths.get(getClass().getResource("/LstFiles/TPicSim101.LST").toURI());
+		List<String> lines = new ArrayList<>();
+		DebugInfo<Short> info;
+
+		try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.ISO_8859_1)) {
+
+			info = parser.parseDebugInfo(reader, lines::add);
+		}
+
+		// Every line is passed exactly once, the result equals parsing the file
+
+		assertEquals(Files.readAllLines(path, StandardCharsets.ISO_8859_1), lines);
+		assertEquals(lines.size(), info.getLineCount());
+		assertArrayEquals(parser.parse(path.toFile()), info.getWords());
+		assertEquals(56, info.getLine(0x0100));
+	}
+
+	@Test
+	public void testParseNumber() {
+
+		assertEquals(0x0C, AIRALstParser.parseNumber("0Ch"));
+		assertEquals(0x0C, AIRALstParser.parseNumber("0x0C"));
+		assertEquals(0x0C, AIRALstParser.parseNumber("h'0C'"));
+		assertEquals(12, AIRALstParser.parseNumber("d'12'"));
+		assertEquals(12, AIRALstParser.parseNumber(".12"));
+		assertEquals(12, AIRALstParser.parseNumber("b'1100'"));
+		assertEquals(0x10, AIRALstParser.parseNumber("10")); // Hexadecimal by default
+	}
+
 
 
 
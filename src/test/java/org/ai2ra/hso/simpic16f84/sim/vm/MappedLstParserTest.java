@@ -0,0 +1,105 @@
+package org.ai2ra.hso.simpic16f84.sim.vm;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class MappedLstParserTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private LstParser<Short> parser;
+    private LstParser<Short> reference;
+
+    @Before
+    public void setUp() throws Exception {
+
+        parser = new MappedLstParser();
+        reference = new AIRALstParser();
+    }
+
+    private void assertParsedEqually(File file) throws IOException {
+
+        DebugInfo<Short> expected = reference.parseDebugInfo(file);
+        DebugInfo<Short> actual = parser.parseDebugInfo(file);
+
+        assertArrayEquals(file.getName(), expected.getWords(), actual.getWords());
+        assertEquals(file.getName(), expected.getLabels(), actual.getLabels());
+        assertEquals(file.getName(), expected.getSymbols(), actual.getSymbols());
+        assertEquals(file.getName(), expected.getLineCount(), actual.getLineCount());
+
+        for (int line = 0; line < expected.getLineCount(); ++line) {
+
+            assertEquals(file.getName(), expected.getAddress(line), actual.getAddress(line));
+        }
+    }
+
+    @Test
+    public void referenceListingsTest() throws IOException, URISyntaxException {
+
+        for (String directory : new String[] {"/LstFiles", "/corpus"}) {
+
+            Path path = Paths.get(getClass().getResource(directory).toURI());
+
+            try (Stream<Path> files = Files.list(path)) {
+
+                for (Path file : (Iterable<Path>) files.filter(f -> f.toString().endsWith(".LST"))::iterator) {
+
+                    assertParsedEqually(file.toFile());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void lineTerminatorsTest() throws IOException, URISyntaxException {
+
+        Path path = Paths.get(getClass().getResource("/LstFiles/TPicSim2.LST").toURI());
+        String text = new String(Files.readAllBytes(path), StandardCharsets.ISO_8859_1).replace("\r\n", "\n");
+
+        File unix = folder.newFile("Unix.LST");
+        Files.write(unix.toPath(), text.getBytes(StandardCharsets.ISO_8859_1));
+        assertParsedEqually(unix);
+
+        // Last line isn't terminated
+
+        File unterminated = folder.newFile("Unterminated.LST");
+        Files.write(unterminated.toPath(), text.substring(0, text.lastIndexOf('\n')).getBytes(StandardCharsets.ISO_8859_1));
+        assertParsedEqually(unterminated);
+
+        File windows = folder.newFile("Windows.LST");
+        Files.write(windows.toPath(), text.replace("\n", "\r\n").getBytes(StandardCharsets.ISO_8859_1));
+        assertParsedEqually(windows);
+    }
+
+    @Test
+    public void emptyFileTest() throws IOException {
+
+        DebugInfo<Short> info = parser.parseDebugInfo(folder.newFile("Empty.LST"));
+
+        assertEquals(0, info.getSize());
+        assertEquals(0, info.getLineCount());
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void malformedInstructionTest() throws IOException {
+
+        File file = folder.newFile("Malformed.LST");
+        Files.write(file.toPath(), "0000 30G1           00001           movlw 11h\n".getBytes(StandardCharsets.ISO_8859_1));
+
+        parser.parseDebugInfo(file);
+    }
+}
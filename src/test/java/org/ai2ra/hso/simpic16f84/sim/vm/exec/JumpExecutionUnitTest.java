@@ -43,7 +43,6 @@ public class JumpExecutionUnitTest {
     @Test
     public void executeGOTO() {
 
-        when(executor.getProgramCounter()).thenReturn(0x10);
         when(executor.ram.get(RamMemory.SFR.PCLATH)).thenReturn((byte) 0b0000_1000);
 
         executionUnit.executeGOTO(new Instruction(Instruction.OperationCode.GOTO, 0x05));
@@ -0,0 +1,191 @@
+package org.ai2ra.hso.simpic16f84.ui.util;
+
+import org.apache.log4j.Layout;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.apache.log4j.spi.LoggingEvent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+import static org.junit.Assert.*;
+
+public class AsyncConsoleAppenderTest {
+
+    private static final Logger LOGGER = Logger.getLogger(AsyncConsoleAppenderTest.class);
+
+    private AsyncConsoleAppender appender;
+    private GateLayout layout;
+
+    /**
+     * Layout recording the written messages. Each written event requires a permit, so
+     * the background thread can be held while the buffer is filled.
+     */
+
+    private static class GateLayout extends Layout {
+
+        private final Semaphore gate = new Semaphore(0);
+        private final List<String> messages = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public String format(LoggingEvent event) {
+
+            gate.acquireUninterruptibly();
+            messages.add(event.getRenderedMessage());
+
+            return "";
+        }
+
+        @Override
+        public boolean ignoresThrowable() {
+
+            return true;
+        }
+
+        @Override
+        public void activateOptions() {
+
+        }
+
+        /**
+         * Waits until the background thread is held while writing an event.
+         */
+
+        private void awaitHeld() {
+
+            while (!gate.hasQueuedThreads()) {
+
+                Thread.yield();
+            }
+        }
+
+        private void open() {
+
+            gate.release(Integer.MAX_VALUE / 2);
+        }
+    }
+
+    @Before
+    public void setUp() {
+
+        layout = new GateLayout();
+        appender = new AsyncConsoleAppender();
+        appender.setLayout(layout);
+    }
+
+    @After
+    public void tearDown() {
+
+        layout.open();
+        appender.close();
+    }
+
+    private static LoggingEvent event(Level level, String message) {
+
+        return new LoggingEvent(AsyncConsoleAppenderTest.class.getName(), LOGGER, level, message, null);
+    }
+
+    private void append(String... messages) {
+
+        for (String message : messages) {
+
+            appender.doAppend(event(Level.INFO, message));
+        }
+    }
+
+    @Test(timeout = 5000)
+    public void dropIfFull() {
+
+        appender.setBufferSize(4);
+        appender.activateOptions();
+
+        append("0");
+        layout.awaitHeld(); // Buffer is empty again, the background thread holds the event
+
+        append("1", "2", "3", "4", "5", "6");
+        assertEquals(2, appender.getDroppedCount());
+
+        layout.open();
+        appender.close();
+
+        assertEquals(Arrays.asList("0", "1", "2", "3", "4", "Dropped 2 log events"), layout.messages);
+    }
+
+    @Test(timeout = 5000)
+    public void blockUntilDrained() throws InterruptedException {
+
+        appender.setBufferSize(2);
+        appender.setOverflowPolicy("block");
+        appender.activateOptions();
+
+        append("0");
+        layout.awaitHeld();
+        append("1", "2");
+
+        Thread producer = new Thread(() -> append("3"));
+        producer.start();
+        producer.join(100);
+
+        assertTrue("Producer didn't wait for a free slot", producer.isAlive());
+
+        layout.gate.release(); // Writes the held event, the next one frees a slot
+        producer.join();
+
+        layout.open();
+        appender.close();
+
+        assertEquals(0, appender.getDroppedCount());
+        assertEquals(Arrays.asList("0", "1", "2", "3"), layout.messages);
+    }
+
+    @Test(timeout = 5000)
+    public void sampleIfHalfFull() {
+
+        appender.setBufferSize(8);
+        appender.setOverflowPolicy("sample");
+        appender.setSampleRate(3);
+        appender.activateOptions();
+
+        append("0");
+        layout.awaitHeld();
+
+        // Half of the buffer is filled without sampling, then every third event is kept
+
+        append("1", "2", "3", "4");
+        append("5", "6", "7", "8", "9", "10");
+
+        appender.doAppend(event(Level.WARN, "warn"));
+        appender.doAppend(event(Level.ERROR, "error"));
+        appender.doAppend(event(Level.ERROR, "full")); // Dropped, since the buffer is full
+
+        assertEquals(5, appender.getDroppedCount());
+
+        layout.open();
+        appender.close();
+
+        assertEquals(Arrays.asList("0", "1", "2", "3", "4", "5", "8", "warn", "error",
+                "Dropped 5 log events"), layout.messages);
+    }
+
+    @Test(timeout = 5000)
+    public void flushOnClose() {
+
+        appender.setBufferSize(16);
+        appender.activateOptions();
+
+        append("0");
+        layout.awaitHeld();
+        append("1", "2", "3", "4", "5");
+
+        layout.open();
+        appender.close();
+
+        assertEquals(Arrays.asList("0", "1", "2", "3", "4", "5"), layout.messages);
+    }
+}
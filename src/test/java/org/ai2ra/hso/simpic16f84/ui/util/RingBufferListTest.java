@@ -0,0 +1,130 @@
+package org.ai2ra.hso.simpic16f84.ui.util;
+
+import javafx.collections.ListChangeListener;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class RingBufferListTest {
+
+    private RingBufferList<Integer> list;
+    /** Recorded changes, each as the removed elements and the range of added elements. */
+    private List<String> changes;
+
+    @Before
+    public void setUp() {
+
+        list = new RingBufferList<>(4);
+        changes = new ArrayList<>();
+
+        list.addListener((ListChangeListener<Integer>) change -> {
+
+            while (change.next()) {
+
+                if (change.wasRemoved()) {
+
+                    changes.add(String.format("remove(%d, %s)", change.getFrom(), change.getRemoved()));
+                }
+
+                if (change.wasAdded()) {
+
+                    changes.add(String.format("add(%d, %d)", change.getFrom(), change.getTo()));
+                }
+            }
+        });
+    }
+
+    @Test
+    public void appendWithinCapacity() {
+
+        list.append(Arrays.asList(1, 2));
+        list.append(Arrays.asList(3));
+
+        assertEquals(Arrays.asList(1, 2, 3), list);
+        assertEquals(Arrays.asList("add(0, 2)", "add(2, 3)"), changes);
+    }
+
+    @Test
+    public void appendEmptyBatch() {
+
+        list.append(Collections.emptyList());
+
+        assertTrue(list.isEmpty());
+        assertTrue(changes.isEmpty());
+    }
+
+    @Test
+    public void dropOldestOnOverflow() {
+
+        list.append(Arrays.asList(1, 2, 3));
+        changes.clear();
+
+        list.append(Arrays.asList(4, 5, 6));
+
+        assertEquals(Arrays.asList(3, 4, 5, 6), list);
+        assertEquals(Arrays.asList("remove(0, [1, 2])", "add(1, 4)"), changes);
+    }
+
+    @Test
+    public void wrapAround() {
+
+        // Head moves around the end of the buffer several times
+
+        for (int element = 0; element < 10; ++element) {
+
+            list.append(Collections.singletonList(element));
+        }
+
+        assertEquals(Arrays.asList(6, 7, 8, 9), list);
+        assertEquals(Integer.valueOf(6), list.get(0));
+        assertEquals(Integer.valueOf(9), list.get(3));
+        assertEquals(Arrays.asList("remove(0, [5])", "add(3, 4)"), changes.subList(changes.size() - 2, changes.size()));
+    }
+
+    @Test
+    public void keepNewestOfLargeBatch() {
+
+        list.append(Arrays.asList(1, 2));
+        changes.clear();
+
+        list.append(Arrays.asList(3, 4, 5, 6, 7, 8));
+
+        assertEquals(Arrays.asList(5, 6, 7, 8), list);
+        assertEquals(Arrays.asList("remove(0, [1, 2])", "add(0, 4)"), changes);
+    }
+
+    @Test
+    public void clear() {
+
+        list.append(Arrays.asList(1, 2, 3));
+        list.append(Arrays.asList(4, 5)); // Wraps around before clearing
+        changes.clear();
+
+        list.clear();
+
+        assertTrue(list.isEmpty());
+        assertEquals(Collections.singletonList("remove(0, [2, 3, 4, 5])"), changes);
+
+        list.append(Arrays.asList(6));
+        assertEquals(Collections.singletonList(6), list);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void getOutsideOfList() {
+
+        list.append(Arrays.asList(1, 2));
+        list.get(2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectInvalidCapacity() {
+
+        new RingBufferList<Integer>(0);
+    }
+}